@@ -0,0 +1,20 @@
+package com.maxwell.apigateway.cache;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Publishes size, hits, misses and evictions of each response cache route, tagged cache=<route id>.
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public MeterBinder gatewayResponseCacheMetrics(GatewayResponseCache responseCache) {
+        return registry -> {
+            for (GatewayResponseCache.RouteCache route : responseCache.routes()) {
+                CaffeineCacheMetrics.monitor(registry, route.entries(), route.id);
+            }
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.maxwell.apigateway.cache;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A stored downstream response. {@code vary} holds the request header names from the response's
+ * {@code Vary} header, in the order used to build the variant key.
+ */
+public record CachedResponse(int status, Map<String, List<String>> headers, byte[] body, List<String> vary,
+                             long storedAtMillis) {
+
+    int weight() {
+        int bytes = body.length + 256;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            bytes += header.getKey().length();
+            for (String value : header.getValue()) {
+                bytes += value.length();
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,241 @@
+package com.maxwell.apigateway.cache;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * Buffers a downstream body so it can be cached, up to {@code limit} bytes. A larger body, or one
+ * with a streaming media type, is passed through instead: what was buffered is written out and the
+ * rest goes straight to the client, so it neither sits on the heap nor is held back.
+ */
+final class CachingResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final List<MediaType> STREAMING_TYPES = List.of(MediaType.APPLICATION_NDJSON,
+            MediaType.TEXT_EVENT_STREAM);
+
+    private final long limit;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private boolean passThrough;
+    private Long contentLength;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CachingResponseWrapper(HttpServletResponse response, long limit) {
+        super(response);
+        this.limit = limit;
+    }
+
+    /** The whole body, or {@code null} once the response has been passed through. */
+    byte[] body() {
+        return passThrough ? null : buffer.toByteArray();
+    }
+
+    /** Writes the buffered body, or what is left of it when passing through, to the client. */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (passThrough) {
+            drain();
+            return;
+        }
+        if (!getResponse().isCommitted() && (buffer.size() > 0 || contentLength != null)) {
+            super.setContentLengthLong(buffer.size());
+        }
+        buffer.writeTo(getResponse().getOutputStream());
+        buffer.reset();
+    }
+
+    @Override
+    public void setContentType(String type) {
+        super.setContentType(type);
+        if (isStreaming(type)) {
+            passThrough();
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (passThrough) {
+            super.setContentLengthLong(len);
+            return;
+        }
+        contentLength = len;
+        if (len > limit) {
+            passThrough();
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+            setContentType(value);
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) || HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+            setHeader(name, value);
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        return outputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (outputStream != null && writer == null) {
+            throw new IllegalStateException("getOutputStream() has already been called");
+        }
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(outputStream(), Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        // While buffering there is nothing to send yet; a streaming body is flushed as it goes.
+        if (passThrough) {
+            drain();
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        buffer.reset();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        buffer.reset();
+        contentLength = null;
+        passThrough = false;
+    }
+
+    private void passThrough() {
+        if (passThrough) {
+            return;
+        }
+        passThrough = true;
+        if (contentLength != null) {
+            super.setContentLengthLong(contentLength);
+        }
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+        if (!passThrough && buffer.size() + (long) length > limit) {
+            passThrough();
+        }
+        if (passThrough) {
+            drain();
+            getResponse().getOutputStream().write(bytes, offset, length);
+        } else {
+            buffer.write(bytes, offset, length);
+        }
+    }
+
+    private void drain() throws IOException {
+        if (buffer.size() > 0) {
+            buffer.writeTo(getResponse().getOutputStream());
+            buffer.reset();
+        }
+    }
+
+    private ServletOutputStream outputStream() {
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    CachingResponseWrapper.this.write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    CachingResponseWrapper.this.write(bytes, offset, length);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    CachingResponseWrapper.this.flushBuffer();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    throw new UnsupportedOperationException("Asynchronous writes are not supported");
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    private static boolean isStreaming(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            return STREAMING_TYPES.stream().anyMatch(type::isCompatibleWith);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.maxwell.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-route stores of downstream GET responses. A response is stored under its path, query and
+ * {@code Accept} header plus the request headers named in its {@code Vary}, so clients that
+ * negotiate a different encoding or media type get their own variant.
+ */
+@Component
+public class GatewayResponseCache {
+
+    private final boolean enabled;
+    private final List<RouteCache> routes = new ArrayList<>();
+
+    public GatewayResponseCache(ResponseCacheProperties properties) {
+        this.enabled = properties.enabled();
+        properties.routes().forEach((id, route) -> routes.add(new RouteCache(id, route)));
+    }
+
+    public boolean isEnabled() {
+        return enabled && !routes.isEmpty();
+    }
+
+    /** First route whose path pattern matches, or {@code null} when the request is not cacheable. */
+    RouteCache route(String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (RouteCache route : routes) {
+            if (route.pattern.matches(container)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    public void invalidateAll() {
+        routes.forEach(RouteCache::invalidateAll);
+    }
+
+    /**
+     * Drops a route's entries, or only those whose path starts with {@code pathPrefix} when given.
+     * Returns false for an unknown route.
+     */
+    public boolean invalidate(String routeId, String pathPrefix) {
+        for (RouteCache route : routes) {
+            if (route.id.equals(routeId)) {
+                if (pathPrefix == null || pathPrefix.isEmpty()) {
+                    route.invalidateAll();
+                } else {
+                    route.invalidatePrefix(pathPrefix);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Map<String, RouteCacheStats> stats() {
+        Map<String, RouteCacheStats> stats = new LinkedHashMap<>();
+        for (RouteCache route : routes) {
+            stats.put(route.id, route.stats());
+        }
+        return stats;
+    }
+
+    List<RouteCache> routes() {
+        return routes;
+    }
+
+    // Accept is always part of the key: question-service sends NDJSON, CBOR and Smile without a Vary.
+    static String resourceKey(HttpServletRequest request) {
+        String query = request.getQueryString();
+        String resource = query == null ? request.getRequestURI() : request.getRequestURI() + "?" + query;
+        return resource + "\naccept=" + String.join(",", Collections.list(request.getHeaders(HttpHeaders.ACCEPT)));
+    }
+
+    static final class RouteCache {
+
+        final String id;
+        final PathPattern pattern;
+        final long maxEntryBytes;
+        private final Cache<String, CachedResponse> entries;
+        // Vary header names last seen per resource; needed to build the variant key before a lookup.
+        private final Cache<String, List<String>> varyByResource;
+
+        RouteCache(String id, ResponseCacheProperties.Route route) {
+            if (route.path() == null || route.path().isBlank()) {
+                throw new IllegalArgumentException("Response cache route '" + id + "' has no path");
+            }
+            this.id = id;
+            this.pattern = PathPatternParser.defaultInstance.parse(route.path());
+            this.maxEntryBytes = route.maxEntryBytes().toBytes();
+            this.entries = Caffeine.newBuilder()
+                    .maximumWeight(route.maxBytes().toBytes())
+                    .weigher((String key, CachedResponse response) -> response.weight())
+                    .expireAfterWrite(route.ttl())
+                    .recordStats()
+                    .build();
+            this.varyByResource = Caffeine.newBuilder()
+                    .maximumSize(100_000)
+                    .expireAfterWrite(route.ttl())
+                    .build();
+        }
+
+        CachedResponse lookup(String resource, HttpServletRequest request) {
+            List<String> vary = varyByResource.getIfPresent(resource);
+            if (vary == null) {
+                // Count the miss so the hit ratio reflects every cacheable request.
+                entries.getIfPresent(resource);
+                return null;
+            }
+            return entries.getIfPresent(variantKey(resource, vary, request));
+        }
+
+        void store(String resource, HttpServletRequest request, CachedResponse response) {
+            varyByResource.put(resource, response.vary());
+            entries.put(variantKey(resource, response.vary(), request), response);
+        }
+
+        void invalidateAll() {
+            entries.invalidateAll();
+            varyByResource.invalidateAll();
+        }
+
+        void invalidatePrefix(String pathPrefix) {
+            entries.asMap().keySet().removeIf(key -> key.startsWith(pathPrefix));
+            varyByResource.asMap().keySet().removeIf(key -> key.startsWith(pathPrefix));
+        }
+
+        Cache<String, CachedResponse> entries() {
+            return entries;
+        }
+
+        RouteCacheStats stats() {
+            CacheStats stats = entries.stats();
+            long weightedBytes = entries.policy().eviction()
+                    .map(eviction -> eviction.weightedSize().orElse(0L))
+                    .orElse(0L);
+            return new RouteCacheStats(entries.estimatedSize(), weightedBytes, stats.hitCount(), stats.missCount(),
+                    stats.evictionCount(), stats.hitRate());
+        }
+
+        private static String variantKey(String resource, List<String> vary, HttpServletRequest request) {
+            if (vary.isEmpty()) {
+                return resource;
+            }
+            StringBuilder key = new StringBuilder(resource);
+            for (String header : vary) {
+                key.append('\n').append(header).append('=')
+                        .append(String.join(",", Collections.list(request.getHeaders(header))));
+            }
+            return key.toString();
+        }
+    }
+}
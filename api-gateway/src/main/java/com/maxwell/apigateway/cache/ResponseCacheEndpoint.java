@@ -0,0 +1,42 @@
+package com.maxwell.apigateway.cache;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/responsecache}: per-route statistics, and invalidation of everything, of one
+ * route, or of one route's entries under a path prefix ({@code ?path=/quiz-service/quiz/get/42}).
+ */
+@Component
+@Endpoint(id = "responsecache")
+public class ResponseCacheEndpoint {
+
+    private final GatewayResponseCache cache;
+
+    public ResponseCacheEndpoint(GatewayResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @ReadOperation
+    public Map<String, RouteCacheStats> stats() {
+        return cache.stats();
+    }
+
+    @DeleteOperation
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> invalidateRoute(@Selector String route, @Nullable String path) {
+        return new WebEndpointResponse<>(cache.invalidate(route, path)
+                ? WebEndpointResponse.STATUS_NO_CONTENT : WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+}
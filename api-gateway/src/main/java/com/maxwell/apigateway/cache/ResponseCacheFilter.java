@@ -0,0 +1,155 @@
+package com.maxwell.apigateway.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serves GETs on cached routes from {@link GatewayResponseCache} and stores cacheable downstream
+ * responses on a miss. Only plain 200 responses without cookies or {@code no-store}/{@code private}
+ * are kept; requests carrying credentials always go downstream.
+ */
+@Component
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final Set<String> UNSTORED_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "content-length", "content-type", "date", "set-cookie", CACHE_STATUS_HEADER.toLowerCase(Locale.ROOT));
+
+    private final GatewayResponseCache cache;
+
+    public ResponseCacheFilter(GatewayResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !cache.isEnabled() || !HttpMethod.GET.matches(request.getMethod())
+                || request.getHeader(HttpHeaders.AUTHORIZATION) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        GatewayResponseCache.RouteCache route = cache.route(request.getRequestURI());
+        String requestCacheControl = request.getHeader(HttpHeaders.CACHE_CONTROL);
+        if (route == null || hasDirective(requestCacheControl, "no-store")) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String resource = GatewayResponseCache.resourceKey(request);
+        CachedResponse cached = hasDirective(requestCacheControl, "no-cache") ? null : route.lookup(resource, request);
+        if (cached != null) {
+            writeCached(cached, request, response);
+            return;
+        }
+
+        CachingResponseWrapper wrapper = new CachingResponseWrapper(response, route.maxEntryBytes);
+        wrapper.setHeader(CACHE_STATUS_HEADER, "MISS");
+        try {
+            chain.doFilter(request, wrapper);
+            CachedResponse stored = toCachedResponse(wrapper);
+            if (stored != null) {
+                route.store(resource, request, stored);
+            }
+        } finally {
+            wrapper.finish();
+        }
+    }
+
+    // Bodies over the route's max-entry-bytes and streaming bodies were passed through, not buffered.
+    private static CachedResponse toCachedResponse(CachingResponseWrapper response) {
+        byte[] body = response.body();
+        if (body == null || response.getStatus() != HttpServletResponse.SC_OK
+                || response.getHeader(HttpHeaders.SET_COOKIE) != null) {
+            return null;
+        }
+        String cacheControl = String.join(",", response.getHeaders(HttpHeaders.CACHE_CONTROL));
+        if (hasDirective(cacheControl, "no-store") || hasDirective(cacheControl, "private")
+                || hasDirective(cacheControl, "no-cache")) {
+            return null;
+        }
+        List<String> vary = new ArrayList<>();
+        for (String value : response.getHeaders(HttpHeaders.VARY)) {
+            for (String name : StringUtils.commaDelimitedListToStringArray(value)) {
+                String header = name.trim().toLowerCase(Locale.ROOT);
+                if (header.equals("*")) {
+                    return null;
+                }
+                if (!header.isEmpty() && !vary.contains(header)) {
+                    vary.add(header);
+                }
+            }
+        }
+        Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>(Locale.ROOT);
+        for (String name : response.getHeaderNames()) {
+            if (!UNSTORED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                Collection<String> values = response.getHeaders(name);
+                headers.put(name, List.copyOf(values));
+            }
+        }
+        if (response.getContentType() != null) {
+            headers.put(HttpHeaders.CONTENT_TYPE, List.of(response.getContentType()));
+        }
+        return new CachedResponse(response.getStatus(), headers, body, List.copyOf(vary),
+                System.currentTimeMillis());
+    }
+
+    private static void writeCached(CachedResponse cached, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        cached.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(CACHE_STATUS_HEADER, "HIT");
+        response.setHeader(HttpHeaders.AGE, String.valueOf((System.currentTimeMillis() - cached.storedAtMillis()) / 1000));
+        List<String> etags = cached.headers().get(HttpHeaders.ETAG);
+        if (etags != null && matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etags.get(0))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setStatus(cached.status());
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String strong = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(strong) || candidate.equals("W/" + strong)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasDirective(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String part : cacheControl.split(",")) {
+            String name = part.trim().toLowerCase(Locale.ROOT);
+            if (name.equals(directive) || name.startsWith(directive + "=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,26 @@
+package com.maxwell.apigateway.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Gateway response cache settings. Each named route has its own path pattern, TTL and byte budget,
+ * so one busy route cannot evict another's entries.
+ */
+@ConfigurationProperties("gateway.response-cache")
+public record ResponseCacheProperties(@DefaultValue("true") boolean enabled, Map<String, Route> routes) {
+
+    public ResponseCacheProperties {
+        routes = routes == null ? Map.of() : routes;
+    }
+
+    public record Route(String path,
+                        @DefaultValue("5m") Duration ttl,
+                        @DefaultValue("32MB") DataSize maxBytes,
+                        @DefaultValue("1MB") DataSize maxEntryBytes) {
+    }
+}
@@ -0,0 +1,5 @@
+package com.maxwell.apigateway.cache;
+
+public record RouteCacheStats(long entries, long weightedBytes, long hits, long misses, long evictions,
+                              double hitRatio) {
+}
@@ -0,0 +1,59 @@
+package com.maxwell.apigateway.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit for one route. Requests beyond {@code maxInFlight} are shed instead of queued;
+ * while the moving average of response times is above {@code latencyThreshold} the limit is
+ * halved, so a slowing backend gets less work before queues build up behind it.
+ */
+public class LoadShedder {
+
+    // Weight of the newest sample in the latency average.
+    private static final double ALPHA = 0.2;
+
+    private final int maxInFlight;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong averageLatencyBits = new AtomicLong(Double.doubleToLongBits(0));
+
+    public LoadShedder(int maxInFlight, Duration latencyThreshold) {
+        this.maxInFlight = maxInFlight;
+        this.latencyThresholdNanos = latencyThreshold == null ? 0 : latencyThreshold.toNanos();
+    }
+
+    public boolean tryAdmit() {
+        int limit = limit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long elapsedNanos) {
+        inFlight.decrementAndGet();
+        averageLatencyBits.getAndUpdate(bits ->
+                Double.doubleToLongBits(ALPHA * elapsedNanos + (1 - ALPHA) * Double.longBitsToDouble(bits)));
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public Duration averageLatency() {
+        return Duration.ofNanos(Math.round(Double.longBitsToDouble(averageLatencyBits.get())));
+    }
+
+    int limit() {
+        boolean slow = latencyThresholdNanos > 0
+                && Double.longBitsToDouble(averageLatencyBits.get()) > latencyThresholdNanos;
+        return slow ? Math.max(1, maxInFlight / 2) : maxInFlight;
+    }
+}
@@ -0,0 +1,134 @@
+package com.maxwell.apigateway.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control in front of every other gateway filter. The most specific matching route
+ * decides: a client over its token bucket gets 429, and a route at its concurrency limit gets 503,
+ * both with {@code Retry-After}. Clients are identified by a known API key, or else by address. An
+ * unknown key is ignored, so sending a new one per request does not get a client a fresh bucket.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimitProperties properties;
+    private final List<RouteLimits> routes = new ArrayList<>();
+
+    @Autowired
+    public RateLimitFilter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RateLimitFilter(RateLimitProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        properties.routes().forEach((id, route) -> routes.add(new RouteLimits(id, route, properties.maxTrackedClients(), clock)));
+        routes.sort(Comparator.comparing(route -> route.pattern, PathPattern.SPECIFICITY_COMPARATOR));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.enabled() || routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RouteLimits route = route(request.getRequestURI());
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        TokenBucketRateLimiter.Decision decision = route.limiter.tryAcquire(route.id + ':' + clientId(request));
+        if (!decision.allowed()) {
+            reject(response, 429, decision.retryAfterSeconds(), "Rate limit exceeded");
+            return;
+        }
+        response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        if (route.shedder == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!route.shedder.tryAdmit()) {
+            reject(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, 1, "Service overloaded");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            route.shedder.release(System.nanoTime() - start);
+        }
+    }
+
+    String clientId(HttpServletRequest request) {
+        String key = request.getHeader(properties.clientHeader());
+        if (key != null && properties.apiKeys().contains(key)) {
+            return "key:" + key;
+        }
+        if (properties.trustForwardedFor()) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                return "ip:" + forwarded.split(",")[0].trim();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private RouteLimits route(String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (RouteLimits route : routes) {
+            if (route.pattern.matches(container)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static void reject(HttpServletResponse response, int status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+    }
+
+    private static final class RouteLimits {
+
+        final String id;
+        final PathPattern pattern;
+        final TokenBucketRateLimiter limiter;
+        final LoadShedder shedder;
+
+        RouteLimits(String id, RateLimitProperties.Route route, long maxClients, LongSupplier clock) {
+            if (route.path() == null || route.path().isBlank()) {
+                throw new IllegalArgumentException("Rate limit route '" + id + "' has no path");
+            }
+            this.id = id;
+            this.pattern = PathPatternParser.defaultInstance.parse(route.path());
+            this.limiter = new TokenBucketRateLimiter(route.capacity(), route.refillPerSecond(), maxClients, clock);
+            this.shedder = route.maxInFlight() > 0 ? new LoadShedder(route.maxInFlight(), route.latencyThreshold()) : null;
+        }
+    }
+}
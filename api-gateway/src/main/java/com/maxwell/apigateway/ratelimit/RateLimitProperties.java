@@ -0,0 +1,35 @@
+package com.maxwell.apigateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-route admission settings. {@code capacity} is the burst a client may send at once and
+ * {@code refillPerSecond} its sustained rate; {@code maxInFlight} bounds concurrent requests on the
+ * route, and is halved while the route's average latency is above {@code latencyThreshold}.
+ * Only keys listed in {@code apiKeys} identify a client through {@code clientHeader}.
+ */
+@ConfigurationProperties("gateway.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("X-API-Key") String clientHeader,
+                                  Set<String> apiKeys,
+                                  @DefaultValue("false") boolean trustForwardedFor,
+                                  @DefaultValue("100000") long maxTrackedClients,
+                                  Map<String, Route> routes) {
+
+    public RateLimitProperties {
+        apiKeys = apiKeys == null ? Set.of() : apiKeys;
+        routes = routes == null ? Map.of() : routes;
+    }
+
+    public record Route(String path,
+                        @DefaultValue("50") int capacity,
+                        @DefaultValue("10") double refillPerSecond,
+                        @DefaultValue("0") int maxInFlight,
+                        Duration latencyThreshold) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.maxwell.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per client, kept as a single {@link AtomicLong} updated with CAS (the GCRA form of a
+ * token bucket): the stored value is the time at which the bucket would be full again. A request
+ * adds one emission interval; it is rejected if that would put the bucket more than
+ * {@code capacity} intervals into the future. Idle clients expire from the bounded client table.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier clock;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, long maxClients, LongSupplier clock) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit needs a positive capacity and refill rate");
+        }
+        this.emissionIntervalNanos = Math.max(1, Math.round(1_000_000_000L / refillPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(Math.max(burstToleranceNanos, Duration.ofMinutes(1).toNanos())))
+                .build();
+    }
+
+    public Decision tryAcquire(String client) {
+        AtomicLong bucket = buckets.get(client, key -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = clock.getAsLong();
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + emissionIntervalNanos;
+            long ahead = next - now;
+            if (ahead > burstToleranceNanos) {
+                return new Decision(false, ahead - burstToleranceNanos, 0);
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return new Decision(true, 0, (burstToleranceNanos - ahead) / emissionIntervalNanos);
+            }
+        }
+    }
+
+    public record Decision(boolean allowed, long retryAfterNanos, long remaining) {
+
+        /** Whole seconds for a {@code Retry-After} header, never less than one. */
+        public long retryAfterSeconds() {
+            return Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.maxwell.apigateway.tracing;
+
+import com.maxwell.commons.tracing.SlowTraceRecorder;
+import com.maxwell.commons.tracing.TracesEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Tail-samples the gateway's traces and serves the kept ones at /actuator/traces.
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SlowTraceRecorder slowTraceRecorder(TracingProperties properties) {
+        return new SlowTraceRecorder(properties.slowThreshold(), properties.keepProbability(), properties.maxTraces());
+    }
+
+    @Bean
+    public TracesEndpoint tracesEndpoint(SlowTraceRecorder recorder) {
+        return new TracesEndpoint(recorder);
+    }
+}
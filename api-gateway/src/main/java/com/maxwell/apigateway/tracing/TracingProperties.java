@@ -0,0 +1,17 @@
+package com.maxwell.apigateway.tracing;
+
+import com.maxwell.commons.tracing.SlowTraceRecorder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Which traces {@link SlowTraceRecorder} keeps: every request slower than {@code slowThreshold}
+ * or failed, plus {@code keepProbability} of the rest, up to the newest {@code maxTraces}.
+ */
+@ConfigurationProperties("gateway.tracing")
+public record TracingProperties(@DefaultValue("500ms") Duration slowThreshold,
+                                @DefaultValue("0.01") double keepProbability,
+                                @DefaultValue("200") int maxTraces) {
+}
@@ -0,0 +1,33 @@
+package com.maxwell.apigateway;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.micrometer.metrics.test.autoconfigure.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.client.RestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "eureka.client.enabled=false")
+@AutoConfigureMetrics
+class ApiGatewayMetricsTest {
+
+    @LocalServerPort
+    int port;
+
+    @Test
+    void prometheusEndpoint_exportsLatencyHistogramsAndCacheMetrics() {
+        RestClient client = RestClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .defaultStatusHandler(status -> true, (request, response) -> { })
+                .build();
+        client.get().uri("/quiz-service/quiz/get/1").retrieve().toBodilessEntity();
+
+        String scrape = client.get().uri("/actuator/prometheus").retrieve().body(String.class);
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{application=\"api-gateway\"")
+                .contains("tomcat_threads_busy_threads{")
+                .containsPattern("cache_gets_total\\{[^}]*cache=\"quiz-questions\",result=\"miss\"} 1.0");
+    }
+}
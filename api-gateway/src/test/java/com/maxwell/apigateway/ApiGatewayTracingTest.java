@@ -0,0 +1,78 @@
+package com.maxwell.apigateway;
+
+import com.maxwell.commons.tracing.RecordedTrace;
+import com.maxwell.commons.tracing.SlowTraceRecorder;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.micrometer.tracing.test.autoconfigure.AutoConfigureTracing;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// Every request is kept (slow threshold 0), and a stub quiz-service records the trace header it receives.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "gateway.tracing.slow-threshold=0ms"
+})
+@AutoConfigureTracing
+class ApiGatewayTracingTest {
+
+    static HttpServer quizService;
+    static final AtomicReference<String> traceparent = new AtomicReference<>();
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    SlowTraceRecorder recorder;
+
+    @DynamicPropertySource
+    static void quizService(DynamicPropertyRegistry registry) throws IOException {
+        quizService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        quizService.createContext("/", exchange -> {
+            traceparent.set(exchange.getRequestHeaders().getFirst("traceparent"));
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        quizService.start();
+        registry.add("spring.cloud.discovery.client.simple.instances.QUIZ-SERVICE[0].uri",
+                () -> "http://localhost:" + quizService.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopQuizService() {
+        quizService.stop(0);
+    }
+
+    @Test
+    void proxiedRequest_carriesTheGatewaysTraceDownstream() {
+        RestClient.create("http://localhost:" + port).post().uri("/quiz-service/quiz/submit/1")
+                .header("X-API-Key", "tracing-test")
+                .body("[]")
+                .retrieve().toBodilessEntity();
+
+        // The server span finishes just after the response is written.
+        List<RecordedTrace> traces = await().atMost(Duration.ofSeconds(5))
+                .until(recorder::traces, found -> !found.isEmpty());
+        RecordedTrace trace = traces.get(0);
+        assertThat(trace.spans()).anySatisfy(span -> assertThat(span.kind()).isEqualTo("SERVER"));
+        assertThat(traceparent.get()).isNotNull().contains(trace.traceId());
+    }
+}
@@ -0,0 +1,33 @@
+package com.maxwell.apigateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheMetricsConfigTest {
+
+    @Test
+    void eachRoute_publishesItsOwnHitsAndMisses() {
+        GatewayResponseCache cache = new GatewayResponseCache(new ResponseCacheProperties(true, Map.of(
+                "quiz-questions", new ResponseCacheProperties.Route("/quiz-service/quiz/get/**",
+                        Duration.ofMinutes(5), DataSize.ofKilobytes(64), DataSize.ofBytes(100)),
+                "question-category", new ResponseCacheProperties.Route("/question-service/question/category/**",
+                        Duration.ofMinutes(1), DataSize.ofKilobytes(64), DataSize.ofBytes(100)))));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new CacheMetricsConfig().gatewayResponseCacheMetrics(cache).bindTo(registry);
+
+        String path = "/quiz-service/quiz/get/1";
+        cache.route(path).lookup(path, new MockHttpServletRequest("GET", path));
+
+        assertThat(registry.get("cache.gets").tags("cache", "quiz-questions", "result", "miss").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", "question-category", "result", "miss").functionCounter().count())
+                .isZero();
+    }
+}
@@ -0,0 +1,195 @@
+package com.maxwell.apigateway.cache;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheFilterTest {
+
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private GatewayResponseCache cache;
+    private ResponseCacheFilter filter;
+    private Consumer<HttpServletResponse> downstreamHeaders;
+    private String downstreamContentType = "application/json";
+
+    @BeforeEach
+    void setUp() {
+        cache = new GatewayResponseCache(new ResponseCacheProperties(true, Map.of(
+                "quiz-questions", new ResponseCacheProperties.Route("/quiz-service/quiz/get/**",
+                        Duration.ofMinutes(5), DataSize.ofKilobytes(64), DataSize.ofBytes(100)))));
+        filter = new ResponseCacheFilter(cache);
+        downstreamHeaders = response -> {
+            response.setHeader("ETag", "\"v1\"");
+            response.setHeader("Vary", "Accept-Encoding");
+        };
+    }
+
+    private MockHttpServletResponse get(String uri, Map<String, String> headers) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        headers.forEach(request::addHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                int call = downstreamCalls.incrementAndGet();
+                resp.setContentType(downstreamContentType);
+                downstreamHeaders.accept(resp);
+                resp.getOutputStream().write(("{\"call\":" + call + ",\"path\":\"" + req.getRequestURI() + "\"}")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+        }));
+        return response;
+    }
+
+    @Test
+    void repeatGet_isServedFromCacheWithoutDownstreamCall() throws Exception {
+        MockHttpServletResponse first = get("/quiz-service/quiz/get/1", Map.of());
+        MockHttpServletResponse second = get("/quiz-service/quiz/get/1", Map.of());
+
+        assertThat(first.getHeader("X-Cache")).isEqualTo("MISS");
+        assertThat(second.getHeader("X-Cache")).isEqualTo("HIT");
+        assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(second.getContentType()).isEqualTo("application/json");
+        assertThat(second.getHeader("ETag")).isEqualTo("\"v1\"");
+        assertThat(downstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void varyHeader_keepsSeparateVariants() throws Exception {
+        get("/quiz-service/quiz/get/1", Map.of("Accept-Encoding", "gzip"));
+        MockHttpServletResponse identity = get("/quiz-service/quiz/get/1", Map.of());
+        MockHttpServletResponse gzip = get("/quiz-service/quiz/get/1", Map.of("Accept-Encoding", "gzip"));
+
+        assertThat(identity.getHeader("X-Cache")).isEqualTo("MISS");
+        assertThat(gzip.getHeader("X-Cache")).isEqualTo("HIT");
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void responsesWithoutVary_areKeptApartByAccept() throws Exception {
+        downstreamHeaders = response -> { };
+        downstreamContentType = "application/cbor";
+        get("/quiz-service/quiz/get/1", Map.of("Accept", "application/cbor"));
+        downstreamContentType = "application/json";
+        MockHttpServletResponse json = get("/quiz-service/quiz/get/1", Map.of("Accept", "application/json"));
+        MockHttpServletResponse cbor = get("/quiz-service/quiz/get/1", Map.of("Accept", "application/cbor"));
+
+        assertThat(json.getHeader("X-Cache")).isEqualTo("MISS");
+        assertThat(json.getContentType()).isEqualTo("application/json");
+        assertThat(cbor.getHeader("X-Cache")).isEqualTo("HIT");
+        assertThat(cbor.getContentType()).isEqualTo("application/cbor");
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void matchingIfNoneMatch_onHit_returnsNotModified() throws Exception {
+        get("/quiz-service/quiz/get/1", Map.of());
+
+        MockHttpServletResponse response = get("/quiz-service/quiz/get/1", Map.of("If-None-Match", "W/\"v1\""));
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(downstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void uncachedRoute_alwaysGoesDownstream() throws Exception {
+        get("/question-service/question/allQuestions", Map.of());
+        MockHttpServletResponse second = get("/question-service/question/allQuestions", Map.of());
+
+        assertThat(second.getHeader("X-Cache")).isNull();
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void privateOrOversizedResponses_areNotStored() throws Exception {
+        downstreamHeaders = response -> response.setHeader("Cache-Control", "private");
+        get("/quiz-service/quiz/get/1", Map.of());
+        get("/quiz-service/quiz/get/1", Map.of());
+
+        downstreamHeaders = response -> { };
+        get("/quiz-service/quiz/get/" + "9".repeat(120), Map.of());
+        get("/quiz-service/quiz/get/" + "9".repeat(120), Map.of());
+
+        assertThat(downstreamCalls).hasValue(4);
+    }
+
+    @Test
+    void oversizedBody_isPassedThroughBeforeDownstreamFinishes() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicInteger sentWhileWriting = new AtomicInteger();
+        filter.doFilter(new MockHttpServletRequest("GET", "/quiz-service/quiz/get/1"), response,
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                        resp.setContentType("application/json");
+                        for (int i = 0; i < 5; i++) {
+                            resp.getOutputStream().write("x".repeat(50).getBytes(StandardCharsets.UTF_8));
+                        }
+                        sentWhileWriting.set(response.getContentAsByteArray().length);
+                    }
+                }));
+
+        assertThat(sentWhileWriting.get()).isEqualTo(250);
+        assertThat(response.getContentAsString()).isEqualTo("x".repeat(250));
+        assertThat(cache.stats().get("quiz-questions").entries()).isZero();
+    }
+
+    @Test
+    void streamingBody_isFlushedToClientAndNotStored() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicInteger sentAfterFirstLine = new AtomicInteger();
+        filter.doFilter(new MockHttpServletRequest("GET", "/quiz-service/quiz/get/1"), response,
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                        resp.setContentType("application/x-ndjson");
+                        resp.getOutputStream().write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+                        resp.flushBuffer();
+                        sentAfterFirstLine.set(response.getContentAsByteArray().length);
+                        resp.getOutputStream().write("{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+                    }
+                }));
+
+        assertThat(sentAfterFirstLine.get()).isEqualTo(9);
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":1}\n{\"id\":2}\n");
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(cache.stats().get("quiz-questions").entries()).isZero();
+    }
+
+    @Test
+    void requestsWithCredentials_bypassCache() throws Exception {
+        get("/quiz-service/quiz/get/1", Map.of("Authorization", "Bearer token"));
+        get("/quiz-service/quiz/get/1", Map.of("Authorization", "Bearer token"));
+
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void invalidateByPathPrefix_dropsOnlyMatchingEntries() throws Exception {
+        get("/quiz-service/quiz/get/1", Map.of());
+        get("/quiz-service/quiz/get/2", Map.of());
+
+        assertThat(cache.invalidate("quiz-questions", "/quiz-service/quiz/get/1")).isTrue();
+        assertThat(cache.invalidate("unknown", null)).isFalse();
+
+        assertThat(get("/quiz-service/quiz/get/1", Map.of()).getHeader("X-Cache")).isEqualTo("MISS");
+        assertThat(get("/quiz-service/quiz/get/2", Map.of()).getHeader("X-Cache")).isEqualTo("HIT");
+        assertThat(cache.stats().get("quiz-questions").entries()).isEqualTo(2);
+    }
+}
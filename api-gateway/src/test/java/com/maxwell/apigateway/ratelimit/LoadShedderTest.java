@@ -0,0 +1,41 @@
+package com.maxwell.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadShedderTest {
+
+    @Test
+    void shedsBeyondMaxInFlight() {
+        LoadShedder shedder = new LoadShedder(2, null);
+
+        assertThat(shedder.tryAdmit()).isTrue();
+        assertThat(shedder.tryAdmit()).isTrue();
+        assertThat(shedder.tryAdmit()).isFalse();
+
+        shedder.release(1_000_000);
+        assertThat(shedder.tryAdmit()).isTrue();
+        assertThat(shedder.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void halvesLimitWhileLatencyIsAboveThreshold() {
+        LoadShedder shedder = new LoadShedder(4, Duration.ofMillis(100));
+        for (int i = 0; i < 20; i++) {
+            shedder.tryAdmit();
+            shedder.release(Duration.ofMillis(500).toNanos());
+        }
+
+        assertThat(shedder.averageLatency()).isGreaterThan(Duration.ofMillis(100));
+        assertThat(shedder.limit()).isEqualTo(2);
+
+        for (int i = 0; i < 20; i++) {
+            shedder.tryAdmit();
+            shedder.release(Duration.ofMillis(10).toNanos());
+        }
+        assertThat(shedder.limit()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,114 @@
+package com.maxwell.apigateway.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong(0);
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    private RateLimitFilter filter(Map<String, RateLimitProperties.Route> routes) {
+        return new RateLimitFilter(new RateLimitProperties(true, "X-API-Key", Set.of("k1", "k2", "abc"), false, 1000,
+                routes), now::get);
+    }
+
+    private MockHttpServletResponse send(RateLimitFilter filter, String uri, String apiKey, FilterChain chain)
+            throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse send(RateLimitFilter filter, String uri, String apiKey)
+            throws IOException, ServletException {
+        return send(filter, uri, apiKey, (req, res) -> forwarded.incrementAndGet());
+    }
+
+    @Test
+    void overLimitClient_gets429WithRetryAfter() throws Exception {
+        RateLimitFilter filter = filter(Map.of("submit",
+                new RateLimitProperties.Route("/quiz-service/quiz/submit/**", 2, 0.5, 0, null)));
+
+        send(filter, "/quiz-service/quiz/submit/1", "k1");
+        MockHttpServletResponse second = send(filter, "/quiz-service/quiz/submit/1", "k1");
+        MockHttpServletResponse third = send(filter, "/quiz-service/quiz/submit/1", "k1");
+        MockHttpServletResponse otherClient = send(filter, "/quiz-service/quiz/submit/1", "k2");
+
+        assertThat(second.getHeader(RateLimitFilter.REMAINING_HEADER)).isEqualTo("0");
+        assertThat(third.getStatus()).isEqualTo(429);
+        assertThat(third.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(otherClient.getStatus()).isEqualTo(200);
+        assertThat(forwarded).hasValue(3);
+    }
+
+    @Test
+    void mostSpecificRouteApplies() throws Exception {
+        Map<String, RateLimitProperties.Route> routes = new LinkedHashMap<>();
+        routes.put("default", new RateLimitProperties.Route("/**", 100, 100, 0, null));
+        routes.put("submit", new RateLimitProperties.Route("/quiz-service/quiz/submit/**", 1, 1, 0, null));
+        RateLimitFilter filter = filter(routes);
+
+        send(filter, "/quiz-service/quiz/submit/1", null);
+        assertThat(send(filter, "/quiz-service/quiz/submit/1", null).getStatus()).isEqualTo(429);
+        assertThat(send(filter, "/quiz-service/quiz/get/1", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void routeAtConcurrencyLimit_shedsWith503() throws Exception {
+        RateLimitFilter filter = filter(Map.of("submit",
+                new RateLimitProperties.Route("/quiz-service/**", 100, 100, 1, Duration.ofSeconds(1))));
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+
+        MockHttpServletResponse outer = send(filter, "/quiz-service/quiz/submit/1", "k1",
+                (req, res) -> nested[0] = send(filter, "/quiz-service/quiz/submit/1", "k2"));
+
+        assertThat(outer.getStatus()).isEqualTo(200);
+        assertThat(nested[0].getStatus()).isEqualTo(503);
+        assertThat(nested[0].getHeader("Retry-After")).isEqualTo("1");
+        assertThat(send(filter, "/quiz-service/quiz/submit/1", "k2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void clientId_fallsBackToAddress() {
+        RateLimitFilter filter = filter(Map.of());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.7");
+        request.addHeader("X-Forwarded-For", "1.2.3.4");
+
+        assertThat(filter.clientId(request)).isEqualTo("ip:10.0.0.7");
+        request.addHeader("X-API-Key", "abc");
+        assertThat(filter.clientId(request)).isEqualTo("key:abc");
+    }
+
+    @Test
+    void unknownKeys_shareTheAddressBucket() throws Exception {
+        RateLimitFilter filter = filter(Map.of("submit",
+                new RateLimitProperties.Route("/quiz-service/quiz/submit/**", 2, 0.5, 0, null)));
+
+        send(filter, "/quiz-service/quiz/submit/1", "random-1");
+        send(filter, "/quiz-service/quiz/submit/1", "random-2");
+        MockHttpServletResponse third = send(filter, "/quiz-service/quiz/submit/1", "random-3");
+        MockHttpServletResponse known = send(filter, "/quiz-service/quiz/submit/1", "k1");
+
+        assertThat(third.getStatus()).isEqualTo(429);
+        assertThat(known.getStatus()).isEqualTo(200);
+    }
+}
@@ -0,0 +1,80 @@
+package com.maxwell.benchmarks;
+
+import com.maxwell.questionservice.model.QuestionWrapper;
+import com.maxwell.questionservice.model.Response;
+import com.maxwell.questionservice.service.QuestionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring and question lookup in question-service, called on the service bean so the numbers cover
+ * the service and repository layers without HTTP. getScore reads right answers through the
+ * answer-key cache, so after warm-up it measures the cached path; getQuestionsFromId always hits H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuestionServiceBenchmark {
+
+    private static final int QUESTION_BANK = 5000;
+
+    @Param({"10", "50"})
+    int questions;
+
+    private ConfigurableApplicationContext context;
+    private QuestionService questionService;
+    private List<Integer> questionIds;
+    private List<Response> responses;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = ServiceContexts.startQuestionService();
+        questionService = context.getBean(QuestionService.class);
+        List<Integer> bank = ServiceContexts.seedQuestions(context, QUESTION_BANK);
+        questionIds = new ArrayList<>(questions);
+        responses = new ArrayList<>(questions);
+        int stride = QUESTION_BANK / questions;
+        for (int i = 0; i < questions; i++) {
+            Integer id = bank.get(i * stride);
+            questionIds.add(id);
+            Response response = new Response();
+            response.setId(id);
+            response.setResponse(i % 2 == 0 ? ServiceContexts.RIGHT_ANSWER : "static");
+            responses.add(response);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer getScore() {
+        return questionService.getScore(responses).getBody();
+    }
+
+    @Benchmark
+    public List<QuestionWrapper> getQuestionsFromId() {
+        return questionService.getQuestionsFromId(questionIds).getBody();
+    }
+}
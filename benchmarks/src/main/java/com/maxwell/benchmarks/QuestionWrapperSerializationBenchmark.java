@@ -0,0 +1,64 @@
+package com.maxwell.benchmarks;
+
+import com.maxwell.questionservice.model.QuestionWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * JSON encoding of question lists by question-service and decoding of the same bytes into
+ * quiz-service's QuestionWrapper, the two ends of every quiz read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuestionWrapperSerializationBenchmark {
+
+    private static final TypeReference<List<com.maxwell.quizservice.model.QuestionWrapper>> QUIZ_QUESTIONS =
+            new TypeReference<>() {
+            };
+
+    @Param({"10", "50", "500"})
+    int questions;
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+    private List<QuestionWrapper> wrappers;
+    private byte[] json;
+
+    @Setup
+    public void prepare() {
+        wrappers = IntStream.range(0, questions)
+                .mapToObj(i -> new QuestionWrapper(100_000 + i, "Which keyword declares a constant in Java? #" + i,
+                        "final", "static", "const", "volatile"))
+                .toList();
+        json = mapper.writeValueAsBytes(wrappers);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return mapper.writeValueAsBytes(wrappers);
+    }
+
+    @Benchmark
+    public List<com.maxwell.quizservice.model.QuestionWrapper> deserialize() {
+        return mapper.readValue(json, QUIZ_QUESTIONS);
+    }
+}
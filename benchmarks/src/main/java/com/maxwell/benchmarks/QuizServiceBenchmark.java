@@ -0,0 +1,93 @@
+package com.maxwell.benchmarks;
+
+import com.maxwell.quizservice.cache.QuizQuestionCache;
+import com.maxwell.quizservice.dao.QuizDao;
+import com.maxwell.quizservice.model.QuestionWrapper;
+import com.maxwell.quizservice.model.Quiz;
+import com.maxwell.quizservice.model.Response;
+import com.maxwell.quizservice.service.QuizService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QuizService orchestration with question-service running in the same JVM and called over loopback
+ * HTTP through the load-balanced clients. Snapshots are off, so the uncached read is a full fetch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizServiceBenchmark {
+
+    @Param({"10", "50"})
+    int questions;
+
+    private ConfigurableApplicationContext questionService;
+    private ConfigurableApplicationContext quizContext;
+    private QuizService quizService;
+    private QuizQuestionCache quizQuestionCache;
+    private Integer quizId;
+    private List<Response> responses;
+
+    @Setup(Level.Trial)
+    public void start() {
+        questionService = ServiceContexts.startQuestionService();
+        List<Integer> questionIds = ServiceContexts.seedQuestions(questionService, questions);
+        quizContext = ServiceContexts.startQuizService(questionService);
+        quizService = quizContext.getBean(QuizService.class);
+        quizQuestionCache = quizContext.getBean(QuizQuestionCache.class);
+
+        Quiz quiz = new Quiz();
+        quiz.setTitle("Benchmark");
+        quiz.setQuestionIds(questionIds);
+        quizId = quizContext.getBean(QuizDao.class).save(quiz).getId();
+
+        responses = new ArrayList<>(questions);
+        for (int i = 0; i < questions; i++) {
+            Response response = new Response();
+            response.setId(questionIds.get(i));
+            response.setResponse(i % 2 == 0 ? ServiceContexts.RIGHT_ANSWER : "static");
+            responses.add(response);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        quizContext.close();
+        questionService.close();
+    }
+
+    @Benchmark
+    public List<QuestionWrapper> getQuizQuestionsCached() {
+        return quizService.getQuizQuestions(quizId).getBody();
+    }
+
+    @Benchmark
+    public List<QuestionWrapper> getQuizQuestionsUncached() {
+        quizQuestionCache.invalidate(quizId);
+        return quizService.getQuizQuestions(quizId).getBody();
+    }
+
+    @Benchmark
+    public Integer calculateResult() {
+        return quizService.calculateResult(quizId, responses).getBody();
+    }
+}
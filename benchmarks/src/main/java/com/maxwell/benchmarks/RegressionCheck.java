@@ -0,0 +1,115 @@
+package com.maxwell.benchmarks;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result against a baseline run and exits with status 1 when any benchmark got
+ * worse by more than the threshold (a fraction, 0.10 by default). Throughput is higher-is-better,
+ * every other mode lower-is-better. Each score is taken as its confidence interval ({@code score ±
+ * scoreError}), and a benchmark only fails when even the best case of the current run is worse than
+ * the worst case of the baseline by more than the threshold, so run-to-run noise does not fail the
+ * check. A run without an error estimate (a single iteration) never fails. Benchmarks missing from
+ * the baseline are reported but never fail.
+ * <p>
+ * Usage: {@code RegressionCheck <baseline.json> <current.json> [threshold]}
+ */
+public final class RegressionCheck {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder().build();
+
+    private RegressionCheck() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: RegressionCheck <baseline.json> <current.json> [threshold]");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[0]);
+        if (!baselineFile.isFile()) {
+            System.err.println("No baseline at " + baselineFile + "; copy a result from the target branch there first.");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        List<Comparison> comparisons = compare(MAPPER.readTree(baselineFile), MAPPER.readTree(new File(args[1])),
+                threshold);
+
+        System.out.printf("%-80s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        boolean regressed = false;
+        for (Comparison comparison : comparisons) {
+            System.out.println(comparison);
+            regressed |= comparison.regressed();
+        }
+        if (regressed) {
+            System.out.printf("Regression above %.0f%% detected%n", threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    static List<Comparison> compare(JsonNode baseline, JsonNode current, double threshold) {
+        Map<String, JsonNode> baselineScores = index(baseline);
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : index(current).entrySet()) {
+            JsonNode result = entry.getValue();
+            JsonNode before = baselineScores.get(entry.getKey());
+            double score = result.path("primaryMetric").path("score").asDouble();
+            double error = error(result);
+            String unit = result.path("primaryMetric").path("scoreUnit").asString();
+            boolean higherIsBetter = "thrpt".equals(result.path("mode").asString());
+            if (before == null) {
+                comparisons.add(new Comparison(entry.getKey(), Double.NaN, score, unit, Double.NaN, false));
+                continue;
+            }
+            double baselineScore = before.path("primaryMetric").path("score").asDouble();
+            double baselineError = error(before);
+            double change = (score - baselineScore) / baselineScore;
+            boolean regressed = higherIsBetter
+                    ? score + error < (baselineScore - baselineError) * (1 - threshold)
+                    : score - error > (baselineScore + baselineError) * (1 + threshold);
+            comparisons.add(new Comparison(entry.getKey(), baselineScore, score, unit, change, regressed));
+        }
+        return comparisons;
+    }
+
+    // JMH writes "NaN" when it has too few iterations to estimate the error; NaN makes every comparison false.
+    private static double error(JsonNode result) {
+        JsonNode error = result.path("primaryMetric").path("scoreError");
+        return error.isNumber() ? error.asDouble() : Double.NaN;
+    }
+
+    // Keyed by benchmark, mode and parameters, so each @Param combination is compared separately.
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> indexed = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").properties().forEach(param -> params.put(param.getKey(), param.getValue().asString()));
+            String key = result.path("benchmark").asString() + " [" + result.path("mode").asString() + "]"
+                    + (params.isEmpty() ? "" : " " + params);
+            indexed.put(key, result);
+        }
+        return indexed;
+    }
+
+    record Comparison(String benchmark, double baseline, double current, String unit, double change,
+                      boolean regressed) {
+
+        @Override
+        public String toString() {
+            String name = benchmark.replace("com.maxwell.benchmarks.", "");
+            if (Double.isNaN(baseline)) {
+                return String.format("%-80s %14s %14.3f %9s  %s", name, "-", current, "new", unit);
+            }
+            return String.format("%-80s %14.3f %14.3f %+8.1f%%  %s%s", name, baseline, current, change * 100, unit,
+                    regressed ? "  REGRESSION" : "");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.maxwell.benchmarks;
+
+import com.maxwell.questionservice.QuestionServiceApplication;
+import com.maxwell.questionservice.dao.QuestionDao;
+import com.maxwell.questionservice.model.Question;
+import com.maxwell.quizservice.QuizServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the services in-process against H2, using the benchmark-*.properties files instead of the
+ * services' own configuration, and seeds the question bank.
+ */
+final class ServiceContexts {
+
+    static final String RIGHT_ANSWER = "final";
+
+    private ServiceContexts() {
+    }
+
+    static ConfigurableApplicationContext startQuestionService() {
+        return new SpringApplicationBuilder(QuestionServiceApplication.class)
+                .run("--spring.config.name=benchmark-question");
+    }
+
+    // question-service must already be running; quiz-service reaches it over HTTP like in production.
+    static ConfigurableApplicationContext startQuizService(ConfigurableApplicationContext questionService) {
+        int port = ((WebServerApplicationContext) questionService).getWebServer().getPort();
+        return new SpringApplicationBuilder(QuizServiceApplication.class)
+                .run("--spring.config.name=benchmark-quiz",
+                        "--spring.cloud.discovery.client.simple.instances.QUESTION-SERVICE[0].uri=http://localhost:" + port);
+    }
+
+    // Saves count questions whose right answer is always RIGHT_ANSWER and returns their ids in order.
+    static List<Integer> seedQuestions(ConfigurableApplicationContext questionService, int count) {
+        List<Question> questions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Question question = new Question();
+            question.setQuestionTitle("Which keyword declares a constant in Java? #" + i);
+            question.setOption1("final");
+            question.setOption2("static");
+            question.setOption3("const");
+            question.setOption4("volatile");
+            question.setRightAnswer(RIGHT_ANSWER);
+            question.setDifficultylevel(i % 3 == 0 ? "Hard" : i % 3 == 1 ? "Medium" : "Easy");
+            question.setCategory("Java");
+            questions.add(question);
+        }
+        return questionService.getBean(QuestionDao.class).saveAll(questions).stream()
+                .map(Question::getId)
+                .toList();
+    }
+}
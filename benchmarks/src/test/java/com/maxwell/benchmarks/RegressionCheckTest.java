@@ -0,0 +1,117 @@
+package com.maxwell.benchmarks;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class RegressionCheckTest {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    @Test
+    void flagsSlowerAverageTimeAboveThreshold() {
+        List<RegressionCheck.Comparison> comparisons = RegressionCheck.compare(
+                results(result("a.Bench.read", "avgt", "10", 100.0)),
+                results(result("a.Bench.read", "avgt", "10", 115.0)), 0.10);
+
+        assertThat(comparisons).singleElement().satisfies(comparison -> {
+            assertThat(comparison.regressed()).isTrue();
+            assertThat(comparison.change()).isCloseTo(0.15, offset(1e-9));
+        });
+    }
+
+    @Test
+    void toleratesChangesWithinThreshold() {
+        List<RegressionCheck.Comparison> comparisons = RegressionCheck.compare(
+                results(result("a.Bench.read", "avgt", "10", 100.0)),
+                results(result("a.Bench.read", "avgt", "10", 108.0)), 0.10);
+
+        assertThat(comparisons).singleElement().extracting(RegressionCheck.Comparison::regressed).isEqualTo(false);
+    }
+
+    @Test
+    void treatsLowerThroughputAsRegression() {
+        List<RegressionCheck.Comparison> comparisons = RegressionCheck.compare(
+                results(result("a.Bench.read", "thrpt", "10", 1000.0)),
+                results(result("a.Bench.read", "thrpt", "10", 800.0)), 0.10);
+
+        assertThat(comparisons).singleElement().extracting(RegressionCheck.Comparison::regressed).isEqualTo(true);
+    }
+
+    @Test
+    void fasterResultsNeverRegress() {
+        List<RegressionCheck.Comparison> comparisons = RegressionCheck.compare(
+                results(result("a.Bench.read", "avgt", "10", 100.0), result("a.Bench.rate", "thrpt", "10", 100.0)),
+                results(result("a.Bench.read", "avgt", "10", 50.0), result("a.Bench.rate", "thrpt", "10", 200.0)), 0.10);
+
+        assertThat(comparisons).extracting(RegressionCheck.Comparison::regressed).containsOnly(false);
+    }
+
+    @Test
+    void comparesEachParameterCombinationSeparately() {
+        List<RegressionCheck.Comparison> comparisons = RegressionCheck.compare(
+                results(result("a.Bench.read", "avgt", "10", 100.0), result("a.Bench.read", "avgt", "50", 500.0)),
+                results(result("a.Bench.read", "avgt", "10", 100.0), result("a.Bench.read", "avgt", "50", 600.0)), 0.10);
+
+        assertThat(comparisons).extracting(RegressionCheck.Comparison::regressed).containsExactly(false, true);
+    }
+
+    @Test
+    void toleratesDifferencesWithinTheErrorOfEitherRun() {
+        List<RegressionCheck.Comparison> comparisons = RegressionCheck.compare(
+                results(result("a.Bench.read", "avgt", "10", 100.0, "30.0")),
+                results(result("a.Bench.read", "avgt", "10", 130.0, "20.0")), 0.10);
+
+        assertThat(comparisons).singleElement().extracting(RegressionCheck.Comparison::regressed).isEqualTo(false);
+    }
+
+    @Test
+    void neverFailsWithoutAnErrorEstimate() {
+        List<RegressionCheck.Comparison> comparisons = RegressionCheck.compare(
+                results(result("a.Bench.read", "avgt", "10", 100.0, "\"NaN\"")),
+                results(result("a.Bench.read", "avgt", "10", 200.0, "\"NaN\"")), 0.10);
+
+        assertThat(comparisons).singleElement().extracting(RegressionCheck.Comparison::regressed).isEqualTo(false);
+    }
+
+    @Test
+    void flagsAnySlowdownFromAZeroBaseline() {
+        List<RegressionCheck.Comparison> comparisons = RegressionCheck.compare(
+                results(result("a.Bench.read", "avgt", "10", 0.0, "0.0")),
+                results(result("a.Bench.read", "avgt", "10", 5.0)), 0.10);
+
+        assertThat(comparisons).singleElement().extracting(RegressionCheck.Comparison::regressed).isEqualTo(true);
+    }
+
+    @Test
+    void reportsBenchmarksMissingFromBaselineWithoutFailing() {
+        List<RegressionCheck.Comparison> comparisons = RegressionCheck.compare(
+                results(),
+                results(result("a.Bench.read", "avgt", "10", 100.0)), 0.10);
+
+        assertThat(comparisons).singleElement().satisfies(comparison -> {
+            assertThat(comparison.regressed()).isFalse();
+            assertThat(comparison.baseline()).isNaN();
+        });
+    }
+
+    private static JsonNode results(String... results) {
+        return MAPPER.readTree("[" + String.join(",", results) + "]");
+    }
+
+    private static String result(String benchmark, String mode, String questions, double score) {
+        return result(benchmark, mode, questions, score, "1.0");
+    }
+
+    private static String result(String benchmark, String mode, String questions, double score, String error) {
+        return """
+                {"benchmark": "%s", "mode": "%s", "params": {"questions": "%s"},
+                 "primaryMetric": {"score": %s, "scoreError": %s, "scoreUnit": "us/op"}}
+                """.formatted(benchmark, mode, questions, score, error);
+    }
+}
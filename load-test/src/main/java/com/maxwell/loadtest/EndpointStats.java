@@ -0,0 +1,62 @@
+package com.maxwell.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error counts of one endpoint, recorded from many virtual users at once.
+ * Latencies are kept in microseconds; errors are counted by HTTP status or failure kind.
+ */
+final class EndpointStats {
+
+    private final String endpoint;
+    private final Recorder latencies = new Recorder(3);
+    private final LongAdder requests = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    // A null failure is a success; latency is recorded either way.
+    void record(long latencyNanos, String failure) {
+        latencies.recordValue(Math.max(1, latencyNanos / 1000));
+        requests.increment();
+        if (failure != null) {
+            errors.computeIfAbsent(failure, key -> new LongAdder()).increment();
+        }
+    }
+
+    Result result(Duration elapsed) {
+        Histogram histogram = latencies.getIntervalHistogram();
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((failure, count) -> errorCounts.put(failure, count.sum()));
+        return new Result(endpoint, requests.sum(), errorCounts, elapsed, histogram);
+    }
+
+    record Result(String endpoint, long requests, Map<String, Long> errors, Duration elapsed, Histogram histogram) {
+
+        long errorCount() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errorCount() / requests;
+        }
+
+        double throughput() {
+            return requests / (elapsed.toNanos() / 1e9);
+        }
+
+        double percentileMillis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.maxwell.loadtest;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Boots the whole platform in this JVM and drives the exam-start workload through the gateway.
+ * Prints throughput, latency percentiles and error rates per endpoint, writes them to
+ * {@code loadtest.report-dir}, and exits with status 1 when an endpoint's error rate exceeds
+ * {@code loadtest.max-error-rate}. See {@link LoadTestSettings} for the options.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.from(args);
+        System.exit(run(settings) ? 0 : 1);
+    }
+
+    static boolean run(LoadTestSettings settings) throws InterruptedException {
+        List<EndpointStats.Result> results;
+        try (LoadTestStack stack = LoadTestStack.start(settings);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(settings.requestTimeout())
+                     .executor(executor)
+                     .build()) {
+            System.out.printf("%nStack started in %d ms: %d question-service and %d quiz-service instance(s)%n",
+                    stack.startupTime().toMillis(), settings.questionInstances(), settings.quizInstances());
+            Workload workload = new Workload(stack.gatewayUri(), settings, client);
+            int quizzes = workload.createQuizzes();
+            System.out.printf("%d users, %s warm-up, %s measured, %d quizzes of %d questions%n%n", settings.users(),
+                    settings.warmup(), settings.duration(), quizzes, settings.questionsPerQuiz());
+            results = workload.run();
+        }
+        LoadTestReport.print(System.out, results);
+        Path reportDir = Path.of(settings.reportDir());
+        LoadTestReport.write(reportDir, settings, results);
+        System.out.printf("%nReport written to %s%n", reportDir.toAbsolutePath());
+        return results.stream().allMatch(result -> result.errorRate() <= settings.maxErrorRate());
+    }
+}
@@ -0,0 +1,73 @@
+package com.maxwell.loadtest;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints the per-endpoint summary and writes it as JSON, together with an HdrHistogram percentile
+ * distribution (in milliseconds) per endpoint that the HdrHistogram plotter can read.
+ */
+final class LoadTestReport {
+
+    static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private LoadTestReport() {
+    }
+
+    static void print(PrintStream out, List<EndpointStats.Result> results) {
+        out.printf("%-8s %10s %10s %8s %9s %9s %9s %9s %9s  %s%n", "endpoint", "requests", "req/s", "errors",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors by cause");
+        for (EndpointStats.Result result : results) {
+            out.printf("%-8s %10d %10.1f %7.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n", result.endpoint(),
+                    result.requests(), result.throughput(), result.errorRate() * 100,
+                    result.percentileMillis(50), result.percentileMillis(90), result.percentileMillis(99),
+                    result.percentileMillis(99.9), result.histogram().getMaxValue() / 1000.0,
+                    result.errors().isEmpty() ? "-" : result.errors());
+        }
+    }
+
+    static void write(Path dir, LoadTestSettings settings, List<EndpointStats.Result> results) {
+        try {
+            Files.createDirectories(dir);
+            for (EndpointStats.Result result : results) {
+                try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(result.endpoint() + ".hgrm")))) {
+                    result.histogram().outputPercentileDistribution(out, 1000.0);
+                }
+            }
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("settings", settings);
+            report.put("endpoints", results.stream().map(LoadTestReport::summary).toList());
+            JsonMapper.builder().build().writerWithDefaultPrettyPrinter()
+                    .writeValue(dir.resolve("result.json").toFile(), report);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Map<String, Object> summary(EndpointStats.Result result) {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    result.percentileMillis(percentile));
+        }
+        latency.put("max", result.histogram().getMaxValue() / 1000.0);
+        latency.put("mean", result.histogram().getMean() / 1000.0);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("endpoint", result.endpoint());
+        summary.put("requests", result.requests());
+        summary.put("throughput", result.throughput());
+        summary.put("errorRate", result.errorRate());
+        summary.put("errors", result.errors());
+        summary.put("latencyMillis", latency);
+        return summary;
+    }
+}
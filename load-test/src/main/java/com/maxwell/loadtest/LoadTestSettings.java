@@ -0,0 +1,54 @@
+package com.maxwell.loadtest;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Workload and stack settings under the {@code loadtest} prefix, read from {@code --loadtest.x=y}
+ * arguments, system properties or environment variables.
+ *
+ * @param users              virtual users, each running sessions back to back
+ * @param warmup             time the workload runs before measurement starts
+ * @param duration           measured time
+ * @param createRatio        share of sessions that start by creating a quiz
+ * @param thinkTime          pause between the steps of a session
+ * @param quizzes            quizzes created before the run, which sessions fetch and submit
+ * @param questionsPerQuiz   questions in each created quiz
+ * @param questionBank       questions seeded into question-service
+ * @param questionInstances  question-service instances registered with the registry
+ * @param quizInstances      quiz-service instances registered with the registry
+ * @param profiles           profiles activated on question-service and quiz-service, e.g. virtual-threads
+ * @param repoRoot           repository checkout whose services' application.properties are used
+ * @param requestTimeout     per-request timeout; a timed out request counts as an error
+ * @param maxErrorRate       error rate above which the run exits with status 1
+ * @param reportDir          where the JSON summary and latency histograms are written
+ */
+record LoadTestSettings(@DefaultValue("100") int users,
+                        @DefaultValue("10s") Duration warmup,
+                        @DefaultValue("60s") Duration duration,
+                        @DefaultValue("0.02") double createRatio,
+                        @DefaultValue("0ms") Duration thinkTime,
+                        @DefaultValue("20") int quizzes,
+                        @DefaultValue("10") int questionsPerQuiz,
+                        @DefaultValue("1000") int questionBank,
+                        @DefaultValue("1") int questionInstances,
+                        @DefaultValue("1") int quizInstances,
+                        @DefaultValue List<String> profiles,
+                        @DefaultValue("..") String repoRoot,
+                        @DefaultValue("30s") Duration requestTimeout,
+                        @DefaultValue("0.01") double maxErrorRate,
+                        @DefaultValue("target/loadtest") String reportDir) {
+
+    static LoadTestSettings from(String... args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        return new Binder(ConfigurationPropertySources.get(environment))
+                .bindOrCreate("loadtest", LoadTestSettings.class);
+    }
+}
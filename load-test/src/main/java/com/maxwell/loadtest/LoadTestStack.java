@@ -0,0 +1,167 @@
+package com.maxwell.loadtest;
+
+import com.maxwell.apigateway.ApiGatewayApplication;
+import com.maxwell.questionservice.QuestionServiceApplication;
+import com.maxwell.questionservice.dao.QuestionDao;
+import com.maxwell.questionservice.model.Question;
+import com.maxwell.quizservice.QuizServiceApplication;
+import com.maxwell.serviceregistry.ServiceRegistryApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The four services started in this JVM: an embedded registry, question-service and quiz-service
+ * instances on H2, and the gateway. Each service reads its own application.properties from the
+ * repository checkout, overlaid with the {@code loadtest/<service>} file on the classpath, so routes,
+ * caches, rate limits and resilience settings are the production ones.
+ */
+final class LoadTestStack implements AutoCloseable {
+
+    static final String CATEGORY = "Java";
+
+    private static final Duration DISCOVERY_TIMEOUT = Duration.ofSeconds(60);
+    private static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+
+    // In start order; closed in reverse.
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private final LoadTestSettings settings;
+    private final Path repoRoot;
+    private ConfigurableApplicationContext gateway;
+    private Duration startupTime;
+
+    private LoadTestStack(LoadTestSettings settings) {
+        this.settings = settings;
+        this.repoRoot = Path.of(settings.repoRoot()).toAbsolutePath().normalize();
+    }
+
+    static LoadTestStack start(LoadTestSettings settings) throws InterruptedException {
+        LoadTestStack stack = new LoadTestStack(settings);
+        try {
+            stack.startAll();
+            return stack;
+        } catch (RuntimeException | InterruptedException e) {
+            stack.close();
+            throw e;
+        }
+    }
+
+    URI gatewayUri() {
+        return URI.create("http://localhost:" + port(gateway));
+    }
+
+    Duration startupTime() {
+        return startupTime;
+    }
+
+    @Override
+    public void close() {
+        List<ConfigurableApplicationContext> stopping = new ArrayList<>(contexts);
+        Collections.reverse(stopping);
+        stopping.forEach(ConfigurableApplicationContext::close);
+        contexts.clear();
+    }
+
+    private void startAll() throws InterruptedException {
+        long start = System.nanoTime();
+        // The registry is its own only peer, so it never replicates into one running on the machine.
+        int registryPort = freePort();
+        String eurekaUrl = "--eureka.client.service-url.defaultZone=http://localhost:" + registryPort + "/eureka/";
+        start(ServiceRegistryApplication.class, "service-registry", false, "--server.port=" + registryPort, eurekaUrl);
+
+        List<ConfigurableApplicationContext> questionServices = new ArrayList<>();
+        for (int i = 0; i < settings.questionInstances(); i++) {
+            questionServices.add(start(QuestionServiceApplication.class, "question-service", true, eurekaUrl,
+                    "--eureka.instance.instance-id=question-service-" + i));
+        }
+        seedQuestions(questionServices.get(0));
+
+        List<ConfigurableApplicationContext> quizServices = new ArrayList<>();
+        for (int i = 0; i < settings.quizInstances(); i++) {
+            quizServices.add(start(QuizServiceApplication.class, "quiz-service", true, eurekaUrl,
+                    "--eureka.instance.instance-id=quiz-service-" + i));
+        }
+        gateway = start(ApiGatewayApplication.class, "api-gateway", false, eurekaUrl);
+
+        for (ConfigurableApplicationContext quizService : quizServices) {
+            awaitInstances(quizService, "QUESTION-SERVICE", settings.questionInstances());
+        }
+        awaitInstances(gateway, "QUESTION-SERVICE", settings.questionInstances());
+        awaitInstances(gateway, "QUIZ-SERVICE", settings.quizInstances());
+        startupTime = Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    private ConfigurableApplicationContext start(Class<?> application, String service, boolean withProfiles,
+                                                 String... args) {
+        Path config = repoRoot.resolve(service).resolve("src/main/resources");
+        if (!Files.isRegularFile(config.resolve("application.properties"))) {
+            throw new IllegalStateException("No application.properties for " + service + " under " + repoRoot
+                    + "; set --loadtest.repo-root to the repository checkout");
+        }
+        List<String> arguments = new ArrayList<>(List.of(args));
+        arguments.add("--spring.config.location=file:" + config + "/,classpath:/loadtest/" + service + "/");
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(application);
+        if (withProfiles && !settings.profiles().isEmpty()) {
+            builder.profiles(settings.profiles().toArray(String[]::new));
+        }
+        ConfigurableApplicationContext context = builder.run(arguments.toArray(String[]::new));
+        contexts.add(context);
+        return context;
+    }
+
+    // Right answers are spread over the four options, so random responses score about a quarter.
+    private void seedQuestions(ConfigurableApplicationContext questionService) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Question> questions = new ArrayList<>(settings.questionBank());
+        for (int i = 0; i < settings.questionBank(); i++) {
+            Question question = new Question();
+            question.setQuestionTitle("Load test question #" + i);
+            question.setOption1("a" + i);
+            question.setOption2("b" + i);
+            question.setOption3("c" + i);
+            question.setOption4("d" + i);
+            question.setRightAnswer(List.of("a", "b", "c", "d").get(random.nextInt(4)) + i);
+            question.setDifficultylevel(DIFFICULTIES[i % DIFFICULTIES.length]);
+            question.setCategory(CATEGORY);
+            questions.add(question);
+        }
+        questionService.getBean(QuestionDao.class).saveAll(questions);
+    }
+
+    private static void awaitInstances(ConfigurableApplicationContext context, String serviceId, int expected)
+            throws InterruptedException {
+        DiscoveryClient discoveryClient = context.getBean(DiscoveryClient.class);
+        long deadline = System.nanoTime() + DISCOVERY_TIMEOUT.toNanos();
+        while (discoveryClient.getInstances(serviceId).size() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(context.getEnvironment().getProperty("spring.application.name")
+                        + " did not see " + expected + " " + serviceId + " instance(s) within " + DISCOVERY_TIMEOUT);
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.maxwell.loadtest;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ArrayNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The exam-start script, run through the gateway by concurrent virtual users. A session is an
+ * optional quiz creation followed by fetching a quiz and submitting answers to it, all from a fresh
+ * {@code X-Forwarded-For} address, so each session is rate limited as a separate student behind the
+ * front proxy would be.
+ */
+final class Workload {
+
+    static final String CREATE = "create";
+    static final String FETCH = "fetch";
+    static final String SUBMIT = "submit";
+
+    private static final List<String> ENDPOINTS = List.of(CREATE, FETCH, SUBMIT);
+    private static final String[] OPTIONS = {"option1", "option2", "option3", "option4"};
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+    private final URI gateway;
+    private final LoadTestSettings settings;
+    private final HttpClient client;
+    // Quizzes are only created by this workload against an empty database, so their ids are 1..n.
+    private final AtomicInteger quizzes = new AtomicInteger();
+    private final AtomicInteger clients = new AtomicInteger();
+    private volatile Map<String, EndpointStats> stats = newStats();
+
+    Workload(URI gateway, LoadTestSettings settings, HttpClient client) {
+        this.gateway = gateway;
+        this.settings = settings;
+        this.client = client;
+    }
+
+    /** Creates the quizzes sessions draw from; returns how many were created. */
+    int createQuizzes() {
+        for (int i = 0; i < settings.quizzes(); i++) {
+            create(nextClient());
+        }
+        return quizzes.get();
+    }
+
+    /**
+     * Runs the users for the warm-up and then the measured duration, and returns per-endpoint
+     * results of the measured part only. Requests still in flight at the end are not counted.
+     */
+    List<EndpointStats.Result> run() throws InterruptedException {
+        if (quizzes.get() == 0) {
+            throw new IllegalStateException("No quizzes to run sessions against");
+        }
+        long warmupEnd = System.nanoTime() + settings.warmup().toNanos();
+        long end = warmupEnd + settings.duration().toNanos();
+        Map<String, EndpointStats> measured = newStats();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < settings.users(); user++) {
+                int id = user;
+                users.execute(() -> runUser(id, end));
+            }
+            sleepUntil(warmupEnd);
+            stats = measured;
+            sleepUntil(end);
+            stats = newStats();
+        }
+        List<EndpointStats.Result> results = new ArrayList<>();
+        for (EndpointStats endpoint : measured.values()) {
+            results.add(endpoint.result(settings.duration()));
+        }
+        return results;
+    }
+
+    private void runUser(int user, long end) {
+        SplittableRandom random = new SplittableRandom(user);
+        for (long session = 0; System.nanoTime() < end && !Thread.currentThread().isInterrupted(); session++) {
+            String client = nextClient();
+            if (random.nextDouble() < settings.createRatio()) {
+                create(client);
+                think();
+            }
+            int quizId = 1 + random.nextInt(quizzes.get());
+            JsonNode questions = fetch(client, quizId);
+            if (questions == null) {
+                continue;
+            }
+            think();
+            submit(client, quizId, questions, random);
+        }
+    }
+
+    private void create(String client) {
+        Map<String, Object> quiz = Map.of("title", "Load test", "categoryName", LoadTestStack.CATEGORY,
+                "numberOfQuestions", settings.questionsPerQuiz());
+        HttpRequest request = request("/quiz-service/quiz/create", client)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(quiz)))
+                .build();
+        if (send(CREATE, request) != null) {
+            quizzes.incrementAndGet();
+        }
+    }
+
+    private JsonNode fetch(String client, int quizId) {
+        HttpResponse<String> response = send(FETCH, request("/quiz-service/quiz/get/" + quizId, client).GET().build());
+        return response == null ? null : mapper.readTree(response.body());
+    }
+
+    private void submit(String client, int quizId, JsonNode questions, SplittableRandom random) {
+        ArrayNode answers = mapper.createArrayNode();
+        for (JsonNode question : questions) {
+            answers.addObject()
+                    .put("id", question.path("id").asInt())
+                    .put("response", question.path(OPTIONS[random.nextInt(OPTIONS.length)]).asString());
+        }
+        HttpRequest request = request("/quiz-service/quiz/submit/" + quizId, client)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(answers)))
+                .build();
+        send(SUBMIT, request);
+    }
+
+    private HttpRequest.Builder request(String path, String client) {
+        return HttpRequest.newBuilder(gateway.resolve(path))
+                .header("X-Forwarded-For", client)
+                .timeout(settings.requestTimeout());
+    }
+
+    // A distinct address in 10.0.0.0/8 per client; wraps after 16M clients.
+    private String nextClient() {
+        int n = clients.incrementAndGet();
+        return "10." + (n >>> 16 & 0xff) + "." + (n >>> 8 & 0xff) + "." + (n & 0xff);
+    }
+
+    // Returns the response if it was a 2xx, otherwise records the failure and returns null.
+    private HttpResponse<String> send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        String failure;
+        HttpResponse<String> response = null;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            failure = response.statusCode() / 100 == 2 ? null : String.valueOf(response.statusCode());
+        } catch (HttpTimeoutException e) {
+            failure = "timeout";
+        } catch (IOException e) {
+            failure = "io";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        // Recorded into the phase the request completed in.
+        stats.get(endpoint).record(System.nanoTime() - start, failure);
+        return failure == null ? response : null;
+    }
+
+    private void think() {
+        if (!settings.thinkTime().isZero()) {
+            try {
+                Thread.sleep(settings.thinkTime());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > 0) {
+            Thread.sleep(Duration.ofNanos(remaining));
+        }
+    }
+
+    private static Map<String, EndpointStats> newStats() {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        for (String endpoint : ENDPOINTS) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+        return stats;
+    }
+}
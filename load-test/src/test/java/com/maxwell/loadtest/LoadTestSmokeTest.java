@@ -0,0 +1,36 @@
+package com.maxwell.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the whole stack and runs a short, light workload, checking that every step of the script
+ * goes through the gateway without errors and that the report is written.
+ */
+class LoadTestSmokeTest {
+
+    @TempDir
+    Path reportDir;
+
+    @Test
+    void shortRunCompletesWithoutErrors() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.from("--loadtest.users=10", "--loadtest.warmup=2s",
+                "--loadtest.duration=5s", "--loadtest.create-ratio=0.05", "--loadtest.quizzes=3",
+                "--loadtest.question-bank=100", "--loadtest.max-error-rate=0",
+                "--loadtest.report-dir=" + reportDir);
+
+        assertThat(LoadTest.run(settings)).isTrue();
+
+        assertThat(reportDir.resolve("result.json")).exists();
+        for (String endpoint : new String[]{Workload.CREATE, Workload.FETCH, Workload.SUBMIT}) {
+            assertThat(Files.readString(reportDir.resolve(endpoint + ".hgrm"))).contains("Percentile");
+        }
+        String report = Files.readString(reportDir.resolve("result.json"));
+        assertThat(report).contains("\"endpoint\" : \"submit\"").doesNotContain("\"requests\" : 0,");
+    }
+}
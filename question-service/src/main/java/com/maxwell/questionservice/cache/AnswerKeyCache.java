@@ -0,0 +1,214 @@
+package com.maxwell.questionservice.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded question id to right answer map backed by an open-addressing int table,
+ * so entries cost no boxing or node objects. When full, entries are evicted with
+ * the CLOCK algorithm: recently read entries get a second chance before being dropped.
+ */
+@Component
+public class AnswerKeyCache {
+
+    private final int maxSize;
+    private final int mask;
+    private final int[] keys;
+    private final String[] values;
+    private final boolean[] referenced;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int size;
+    private int clockHand;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AnswerKeyCache(@Value("${question.answer-key-cache.max-size:100000}") int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Answer key cache size must be positive: " + maxSize);
+        }
+        int capacity = Integer.highestOneBit(Math.max(2, maxSize * 2 - 1)) << 1;
+        this.maxSize = maxSize;
+        this.mask = capacity - 1;
+        this.keys = new int[capacity];
+        this.values = new String[capacity];
+        this.referenced = new boolean[capacity];
+    }
+
+    public String get(int id) {
+        String answer;
+        lock.lock();
+        try {
+            answer = lookup(id);
+        } finally {
+            lock.unlock();
+        }
+        (answer != null ? hits : misses).increment();
+        return answer;
+    }
+
+    /**
+     * Copies every cached answer for {@code ids} into {@code answers} under a single lock
+     * acquisition and returns the ids that were not cached.
+     */
+    public List<Integer> getAll(Collection<Integer> ids, Map<Integer, String> answers) {
+        List<Integer> missing = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Integer id : ids) {
+                String answer = id != null ? lookup(id) : null;
+                if (answer != null) {
+                    answers.put(id, answer);
+                } else {
+                    missing.add(id);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        hits.add(ids.size() - missing.size());
+        misses.add(missing.size());
+        return missing;
+    }
+
+    public void put(Integer id, String rightAnswer) {
+        if (id == null) {
+            return;
+        }
+        if (rightAnswer == null) {
+            invalidate(id);
+            return;
+        }
+        lock.lock();
+        try {
+            int slot = findSlot(id);
+            if (values[slot] != null) {
+                values[slot] = rightAnswer;
+                return;
+            }
+            if (size == maxSize) {
+                evictOne();
+                slot = findSlot(id);
+            }
+            keys[slot] = id;
+            values[slot] = rightAnswer;
+            referenced[slot] = false;
+            size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(int id) {
+        lock.lock();
+        try {
+            int slot = findSlot(id);
+            if (values[slot] != null) {
+                removeAt(slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            Arrays.fill(values, null);
+            Arrays.fill(referenced, false);
+            size = 0;
+            clockHand = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public AnswerKeyCacheStats stats() {
+        return new AnswerKeyCacheStats(size(), maxSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private String lookup(int id) {
+        int slot = findSlot(id);
+        String answer = values[slot];
+        if (answer != null) {
+            referenced[slot] = true;
+        }
+        return answer;
+    }
+
+    // Returns the slot holding id, or the empty slot where it would be inserted.
+    private int findSlot(int id) {
+        int slot = hash(id) & mask;
+        while (values[slot] != null && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void evictOne() {
+        while (true) {
+            int slot = clockHand;
+            clockHand = (clockHand + 1) & mask;
+            if (values[slot] == null) {
+                continue;
+            }
+            if (referenced[slot]) {
+                referenced[slot] = false;
+                continue;
+            }
+            removeAt(slot);
+            evictions.increment();
+            return;
+        }
+    }
+
+    // Backward-shift deletion keeps linear probe chains intact without tombstones.
+    private void removeAt(int slot) {
+        int gap = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (values[next] == null) {
+                break;
+            }
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                referenced[gap] = referenced[next];
+                gap = next;
+            }
+        }
+        values[gap] = null;
+        referenced[gap] = false;
+        size--;
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
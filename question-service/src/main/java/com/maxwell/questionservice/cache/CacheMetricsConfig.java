@@ -0,0 +1,40 @@
+package com.maxwell.questionservice.cache;
+
+import com.maxwell.commons.cache.ResponseBodyCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Publishes size, hits, misses and evictions of the in-memory caches, tagged cache=<name>. The
+// answer key cache is not Caffeine, so its meters follow the names CaffeineCacheMetrics uses.
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public MeterBinder questionCacheMetrics(AnswerKeyCache answerKeyCache, ResponseBodyCache responseCache) {
+        return registry -> {
+            Tags tags = Tags.of("cache", "answer-keys");
+            Gauge.builder("cache.size", answerKeyCache, AnswerKeyCache::size)
+                    .tags(tags)
+                    .description("The number of entries in this cache")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", answerKeyCache, cache -> cache.stats().getHits())
+                    .tags(tags).tag("result", "hit")
+                    .description("The number of times cache lookup methods have returned a cached value")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", answerKeyCache, cache -> cache.stats().getMisses())
+                    .tags(tags).tag("result", "miss")
+                    .description("The number of times cache lookup methods have returned an uncached value")
+                    .register(registry);
+            FunctionCounter.builder("cache.evictions", answerKeyCache, cache -> cache.stats().getEvictions())
+                    .tags(tags)
+                    .description("The number of times the cache was evicted")
+                    .register(registry);
+            CaffeineCacheMetrics.monitor(registry, responseCache.nativeCache(), "question-responses");
+        };
+    }
+}
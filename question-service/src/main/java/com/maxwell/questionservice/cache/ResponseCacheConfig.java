@@ -0,0 +1,23 @@
+package com.maxwell.questionservice.cache;
+
+import com.maxwell.commons.cache.ResponseBodyCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+
+// Serialized read responses. Entries are dropped when questions change on this instance and expire
+// after the ttl to pick up writes made through other instances.
+@Configuration
+public class ResponseCacheConfig {
+
+    @Bean
+    public ResponseBodyCache responseBodyCache(@Value("${question.response-cache.max-bytes:33554432}") long maxBytes,
+                                               @Value("${question.response-cache.ttl:5m}") Duration ttl,
+                                               @Value("${question.response-cache.gzip-min-size:2048}") int gzipMinSize,
+                                               ObjectMapper objectMapper) {
+        return new ResponseBodyCache(maxBytes, ttl, gzipMinSize, objectMapper);
+    }
+}
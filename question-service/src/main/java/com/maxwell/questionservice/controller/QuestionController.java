@@ -1,13 +1,24 @@
 package com.maxwell.questionservice.controller;
 
+import com.maxwell.commons.cache.ResponseBodyCache;
+import com.maxwell.questionservice.cache.AnswerKeyCacheStats;
+import com.maxwell.questionservice.model.AnswerSheet;
+import com.maxwell.questionservice.model.AnswerSheetResult;
+import com.maxwell.questionservice.model.BulkImportResult;
 import com.maxwell.questionservice.model.Question;
 import com.maxwell.questionservice.model.QuestionWrapper;
 import com.maxwell.questionservice.model.Response;
+import com.maxwell.questionservice.service.QuestionExportService;
+import com.maxwell.questionservice.service.QuestionImportService;
 import com.maxwell.questionservice.service.QuestionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -17,14 +28,47 @@ public class QuestionController {
     @Autowired
     private QuestionService questionService;
 
+    @Autowired
+    private QuestionExportService questionExportService;
+
+    @Autowired
+    private QuestionImportService questionImportService;
+
+    @Autowired
+    private ResponseBodyCache responseBodyCache;
+
     @GetMapping("/allQuestions")
-    public ResponseEntity<List<Question>> getAllQuestions() {
-        return questionService.getAllQuestions();
+    public ResponseEntity<?> getAllQuestions(
+            @RequestParam(required = false) Integer afterId, @RequestParam(required = false) Integer size,
+            @RequestHeader HttpHeaders headers
+    ) {
+        if (afterId == null && size == null) {
+            return responseBodyCache.respond("allQuestions", headers, questionService::getAllQuestions);
+        }
+        return questionService.getQuestionsPage(null, afterId, size);
+    }
+
+    @GetMapping(value = "/allQuestions", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllQuestions() {
+        return questionExportService.streamAllQuestions();
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Question>> getQuestionsByCategory(@PathVariable String category) {
-        return questionService.getQuestionsByCategory(category);
+    public ResponseEntity<?> getQuestionsByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) Integer afterId, @RequestParam(required = false) Integer size,
+            @RequestHeader HttpHeaders headers
+    ) {
+        if (afterId == null && size == null) {
+            return responseBodyCache.respond("category:" + category, headers,
+                    () -> questionService.getQuestionsByCategory(category));
+        }
+        return questionService.getQuestionsPage(category, afterId, size);
+    }
+
+    @GetMapping(value = "/category/{category}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamQuestionsByCategory(@PathVariable String category) {
+        return questionExportService.streamQuestionsByCategory(category);
     }
 
     @PostMapping("/add")
@@ -32,11 +76,19 @@ public class QuestionController {
         return questionService.addQuestion(question);
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<BulkImportResult> bulkImport(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body
+    ) {
+        return questionImportService.importQuestions(body, contentType);
+    }
+
     @GetMapping("/generate")
     public ResponseEntity<List<Integer>> getQuestionsForQuiz(
-            @RequestParam String categoryName, @RequestParam int numberOfQuestions
+            @RequestParam String categoryName, @RequestParam int numberOfQuestions,
+            @RequestParam(required = false) Long seed, @RequestParam(required = false) String difficultyMix
     ) {
-        return questionService.getQuestionsForQuiz(categoryName, numberOfQuestions);
+        return questionService.getQuestionsForQuiz(categoryName, numberOfQuestions, seed, difficultyMix);
     }
 
     @PostMapping("/getQuestions")
@@ -48,4 +100,14 @@ public class QuestionController {
     public ResponseEntity<Integer> getScore(@RequestBody List<Response> responses) {
         return questionService.getScore(responses);
     }
+
+    @PostMapping("/gradeAnswerSheet")
+    public ResponseEntity<AnswerSheetResult> gradeAnswerSheet(@RequestBody AnswerSheet answerSheet) {
+        return questionService.gradeAnswerSheet(answerSheet);
+    }
+
+    @GetMapping("/answerKeyCache/stats")
+    public ResponseEntity<AnswerKeyCacheStats> getAnswerKeyCacheStats() {
+        return questionService.getAnswerKeyCacheStats();
+    }
 }
@@ -1,17 +1,48 @@
 package com.maxwell.questionservice.dao;
 
+import com.maxwell.questionservice.model.AnswerKey;
 import com.maxwell.questionservice.model.Question;
+import com.maxwell.questionservice.model.QuestionDifficulty;
+import com.maxwell.questionservice.model.QuestionWrapper;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface QuestionDao extends JpaRepository<Question, Integer> {
 
     List<Question> findByCategory(String category);
 
-    @Query(value = "SELECT q.id FROM question q WHERE q.category=:category ORDER BY RANDOM() LIMIT :numberOfQuestions", nativeQuery = true)
-    List<Integer> findRandomQuestionsByCategory(String category, int numberOfQuestions);
+    List<Question> findByIdGreaterThanOrderByIdAsc(Integer afterId, Limit limit);
+
+    List<Question> findByCategoryAndIdGreaterThanOrderByIdAsc(String category, Integer afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Question> streamAllByOrderByIdAsc();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Question> streamByCategoryOrderByIdAsc(String category);
+
+    @Query("SELECT new com.maxwell.questionservice.model.QuestionDifficulty(q.id, q.difficultylevel) " +
+            "FROM Question q WHERE q.category = :category")
+    List<QuestionDifficulty> findDifficultiesByCategory(String category);
+
+    @Query("SELECT new com.maxwell.questionservice.model.QuestionWrapper(q.id, q.questionTitle, q.option1, q.option2, q.option3, q.option4) " +
+            "FROM Question q WHERE q.id IN :ids")
+    List<QuestionWrapper> findWrappersByIdIn(Collection<Integer> ids);
+
+    @Query("SELECT new com.maxwell.questionservice.model.AnswerKey(q.id, q.rightAnswer) FROM Question q WHERE q.id IN :ids")
+    List<AnswerKey> findAnswerKeysByIdIn(Collection<Integer> ids);
+
+    @Query("SELECT new com.maxwell.questionservice.model.AnswerKey(q.id, q.rightAnswer) FROM Question q ORDER BY q.id")
+    List<AnswerKey> findAnswerKeys(Pageable pageable);
 }
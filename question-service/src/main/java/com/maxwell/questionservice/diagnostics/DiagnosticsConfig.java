@@ -0,0 +1,21 @@
+package com.maxwell.questionservice.diagnostics;
+
+import com.maxwell.commons.diagnostics.VirtualThreadPinningMonitor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class DiagnosticsConfig {
+
+    // Logs pinned virtual threads; the virtual-threads profile turns it on.
+    @Bean
+    @ConditionalOnProperty(name = "question.virtual-threads.pinning-monitor.enabled", havingValue = "true")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${question.virtual-threads.pinning-monitor.threshold:20ms}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(threshold);
+    }
+}
@@ -0,0 +1,17 @@
+package com.maxwell.questionservice.discovery;
+
+import com.maxwell.commons.discovery.ReadinessRegistration;
+import com.netflix.appinfo.ApplicationInfoManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Registers with Eureka as starting and only reports UP once the application is ready for traffic.
+@Configuration
+public class DiscoveryConfig {
+
+    @Bean
+    public ReadinessRegistration readinessRegistration(ObjectProvider<ApplicationInfoManager> applicationInfoManager) {
+        return new ReadinessRegistration(applicationInfoManager);
+    }
+}
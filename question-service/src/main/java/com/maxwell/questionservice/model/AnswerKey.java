@@ -0,0 +1,12 @@
+package com.maxwell.questionservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AnswerKey {
+
+    private Integer id;
+    private String rightAnswer;
+}
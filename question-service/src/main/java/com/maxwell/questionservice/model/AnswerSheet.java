@@ -0,0 +1,17 @@
+package com.maxwell.questionservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Compact scoring request: responses.get(i) answers questionIds[i].
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerSheet {
+
+    private int[] questionIds;
+    private List<String> responses;
+}
@@ -0,0 +1,17 @@
+package com.maxwell.questionservice.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkImportResult {
+
+    private long received;
+    private long imported;
+    private long rejected;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<BulkImportError> errors = new ArrayList<>();
+}
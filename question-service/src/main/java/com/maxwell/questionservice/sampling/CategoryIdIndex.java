@@ -0,0 +1,206 @@
+package com.maxwell.questionservice.sampling;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.maxwell.questionservice.dao.QuestionDao;
+import com.maxwell.questionservice.model.Question;
+import com.maxwell.questionservice.model.QuestionDifficulty;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sorted question ids per category, and per (category, difficulty) bucket, loaded on first use
+ * and kept current by {@link #onQuestionAdded(Question)}. Entries are reloaded after the refresh
+ * interval so writes made through other instances are eventually picked up. Categories with no
+ * questions are remembered for the same interval in a bounded set, so requests for unknown
+ * categories neither query the database each time nor grow the index.
+ */
+@Slf4j
+@Component
+public class CategoryIdIndex {
+
+    private static final int[] NO_IDS = new int[0];
+    private static final int LOCK_STRIPES = 64;
+    private static final int MAX_EMPTY_CATEGORIES = 10_000;
+
+    @Autowired
+    QuestionDao questionDao;
+
+    private final long refreshIntervalNanos;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> emptyCategories;
+    // Loads run under a striped ReentrantLock instead of inside ConcurrentHashMap.compute, whose
+    // bin monitor would pin a virtual thread for the whole database round trip. A fixed set of
+    // stripes keeps arbitrary category names from allocating locks.
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public CategoryIdIndex(@Value("${question.sampler.refresh-interval:5m}") Duration refreshInterval) {
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.emptyCategories = Caffeine.newBuilder()
+                .maximumSize(MAX_EMPTY_CATEGORIES)
+                .expireAfterWrite(refreshInterval)
+                .build();
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the ids of every question in the category in ascending order. The returned
+     * array is shared and must not be modified.
+     */
+    public int[] idsFor(String category) {
+        Entry entry = entryFor(category);
+        return entry != null ? entry.ids : NO_IDS;
+    }
+
+    /**
+     * Returns the ids of the category's questions with the given difficulty (matched
+     * case-insensitively) in ascending order. The returned array is shared and must not be modified.
+     */
+    public int[] idsFor(String category, String difficulty) {
+        Entry entry = entryFor(category);
+        return entry != null ? entry.idsByDifficulty.getOrDefault(difficultyKey(difficulty), NO_IDS) : NO_IDS;
+    }
+
+    public void onQuestionAdded(Question question) {
+        if (question.getId() == null || question.getCategory() == null) {
+            return;
+        }
+        ReentrantLock lock = lockFor(question.getCategory());
+        lock.lock();
+        try {
+            emptyCategories.invalidate(question.getCategory());
+            entries.computeIfPresent(question.getCategory(), (key, current) ->
+                    current.with(question.getId(), difficultyKey(question.getDifficultylevel())));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(String category) {
+        entries.remove(category);
+        emptyCategories.invalidate(category);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+        emptyCategories.invalidateAll();
+    }
+
+    private Entry entryFor(String category) {
+        Entry entry = entries.get(category);
+        if (entry != null && !entry.isStale(refreshIntervalNanos)) {
+            return entry;
+        }
+        if (entry == null && emptyCategories.getIfPresent(category) != null) {
+            return null;
+        }
+        ReentrantLock lock = lockFor(category);
+        lock.lock();
+        try {
+            entry = entries.get(category);
+            if (entry != null && !entry.isStale(refreshIntervalNanos)) {
+                return entry;
+            }
+            if (entry == null && emptyCategories.getIfPresent(category) != null) {
+                return null;
+            }
+            entry = load(category);
+            if (entry != null) {
+                entries.put(category, entry);
+            } else {
+                entries.remove(category);
+                emptyCategories.put(category, Boolean.TRUE);
+            }
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(String category) {
+        return locks[Math.floorMod(category.hashCode(), locks.length)];
+    }
+
+    private Entry load(String category) {
+        List<QuestionDifficulty> rows = questionDao.findDifficultiesByCategory(category);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        int[] ids = new int[rows.size()];
+        Map<String, List<Integer>> grouped = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            QuestionDifficulty row = rows.get(i);
+            ids[i] = row.getId();
+            grouped.computeIfAbsent(difficultyKey(row.getDifficultylevel()), key -> new ArrayList<>()).add(row.getId());
+        }
+        Arrays.sort(ids);
+        Map<String, int[]> idsByDifficulty = new HashMap<>();
+        grouped.forEach((difficulty, bucket) -> {
+            int[] bucketIds = bucket.stream().mapToInt(Integer::intValue).sorted().toArray();
+            idsByDifficulty.put(difficulty, bucketIds);
+        });
+        log.debug("Indexed {} question ids in {} difficulty buckets for category: {}",
+                ids.length, idsByDifficulty.size(), category);
+        return new Entry(ids, idsByDifficulty, System.nanoTime());
+    }
+
+    private static String difficultyKey(String difficulty) {
+        return difficulty == null ? "" : difficulty.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int[] insertSorted(int[] ids, int id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        int insertAt = -position - 1;
+        int[] updated = new int[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, insertAt);
+        updated[insertAt] = id;
+        System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+        return updated;
+    }
+
+    private static final class Entry {
+
+        private final int[] ids;
+        private final Map<String, int[]> idsByDifficulty;
+        private final long loadedAtNanos;
+
+        private Entry(int[] ids, Map<String, int[]> idsByDifficulty, long loadedAtNanos) {
+            this.ids = ids;
+            this.idsByDifficulty = idsByDifficulty;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+
+        private boolean isStale(long refreshIntervalNanos) {
+            return System.nanoTime() - loadedAtNanos > refreshIntervalNanos;
+        }
+
+        // Copy-on-write insert so readers never observe a partially updated entry.
+        private Entry with(int id, String difficulty) {
+            int[] updatedIds = insertSorted(ids, id);
+            if (updatedIds == ids) {
+                return this;
+            }
+            Map<String, int[]> updatedBuckets = new HashMap<>(idsByDifficulty);
+            updatedBuckets.put(difficulty, insertSorted(idsByDifficulty.getOrDefault(difficulty, NO_IDS), id));
+            return new Entry(updatedIds, updatedBuckets, loadedAtNanos);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.maxwell.questionservice.sampling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Relative weights per difficulty, parsed from a spec such as {@code Easy:40,Medium:40,Hard:20}.
+ * Weights do not need to add up to 100; they are normalised against their sum.
+ */
+public final class DifficultyMix {
+
+    private final List<String> difficulties;
+    private final int[] weights;
+
+    private DifficultyMix(List<String> difficulties, int[] weights) {
+        this.difficulties = Collections.unmodifiableList(difficulties);
+        this.weights = weights;
+    }
+
+    public static DifficultyMix parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            throw new IllegalArgumentException("Difficulty mix must not be empty");
+        }
+        String[] parts = spec.split(",");
+        List<String> difficulties = new ArrayList<>(parts.length);
+        int[] weights = new int[parts.length];
+        Set<String> seen = new HashSet<>();
+        long total = 0;
+        for (int i = 0; i < parts.length; i++) {
+            String[] pair = parts[i].split(":");
+            if (pair.length != 2 || pair[0].isBlank()) {
+                throw new IllegalArgumentException("Invalid difficulty mix entry: " + parts[i].trim());
+            }
+            String difficulty = pair[0].trim();
+            if (!seen.add(difficulty.toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("Duplicate difficulty in mix: " + difficulty);
+            }
+            int weight;
+            try {
+                weight = Integer.parseInt(pair[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight for difficulty " + difficulty + ": " + pair[1].trim());
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for difficulty " + difficulty + ": " + weight);
+            }
+            difficulties.add(difficulty);
+            weights[i] = weight;
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Difficulty mix weights must not all be zero");
+        }
+        return new DifficultyMix(difficulties, weights);
+    }
+
+    public List<String> getDifficulties() {
+        return difficulties;
+    }
+
+    /**
+     * Splits {@code total} questions across the difficulties in proportion to their weights using
+     * the largest remainder method, never assigning a difficulty more than its capacity. Seats a
+     * full difficulty cannot take go to the others, so the result only falls short of
+     * {@code total} when every weighted difficulty is exhausted. A difficulty weighted 0 never
+     * gets a seat.
+     */
+    public int[] allocate(int total, int[] capacities) {
+        long weightSum = 0;
+        for (int weight : weights) {
+            weightSum += weight;
+        }
+        double[] ideal = new double[weights.length];
+        int[] quotas = new int[weights.length];
+        int remaining = total;
+        for (int i = 0; i < weights.length; i++) {
+            ideal[i] = (double) total * weights[i] / weightSum;
+            quotas[i] = Math.min((int) ideal[i], capacities[i]);
+            remaining -= quotas[i];
+        }
+        while (remaining > 0) {
+            int best = -1;
+            for (int i = 0; i < weights.length; i++) {
+                if (weights[i] > 0 && quotas[i] < capacities[i] && (best < 0 || ideal[i] - quotas[i] > ideal[best] - quotas[best])) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            quotas[best]++;
+            remaining--;
+        }
+        return quotas;
+    }
+}
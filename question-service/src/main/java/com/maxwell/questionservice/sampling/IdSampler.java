@@ -0,0 +1,30 @@
+package com.maxwell.questionservice.sampling;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+public final class IdSampler {
+
+    private IdSampler() {
+    }
+
+    /**
+     * Draws {@code count} distinct ids uniformly at random (or all of them, shuffled, when the
+     * pool is smaller) using a partial Fisher-Yates shuffle. Only the swapped positions are
+     * tracked, so the cost is O(count) regardless of the pool size and {@code ids} is left untouched.
+     */
+    public static int[] sample(int[] ids, int count, RandomGenerator random) {
+        int n = Math.min(count, ids.length);
+        int[] sample = new int[n];
+        Map<Integer, Integer> swapped = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            int j = i + random.nextInt(ids.length - i);
+            int atJ = swapped.getOrDefault(j, j);
+            int atI = swapped.getOrDefault(i, i);
+            swapped.put(j, atI);
+            sample[i] = ids[atJ];
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,118 @@
+package com.maxwell.questionservice.service;
+
+import com.maxwell.questionservice.model.Question;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads questions from CSV one record per line. The first line is a header naming the
+ * {@link Question} fields (questionTitle, option1..option4, rightAnswer, difficultylevel,
+ * category) in any order. Fields may be double-quoted, with "" as an escaped quote;
+ * line breaks inside fields are not supported.
+ */
+class CsvQuestionReader {
+
+    private static final List<String> COLUMNS = List.of("questiontitle", "option1", "option2", "option3", "option4",
+            "rightanswer", "difficultylevel", "category");
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private long lineNumber;
+
+    CsvQuestionReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        String header = reader.readLine();
+        lineNumber = 1;
+        if (header == null) {
+            throw new IllegalArgumentException("CSV body is empty, expected a header line");
+        }
+        List<String> names = parseLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        for (int i = 0; i < names.size(); i++) {
+            columnIndex.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = new ArrayList<>();
+        for (String column : COLUMNS) {
+            if (!column.equals("difficultylevel") && !columnIndex.containsKey(column)) {
+                missing.add(column);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing columns: " + missing);
+        }
+    }
+
+    /**
+     * Returns the next non-blank line, or null at the end of input.
+     */
+    String nextLine() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line != null) {
+                lineNumber++;
+            }
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    /** Line number in the file, counting the header and blank lines, of the line last returned. */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    Question toQuestion(String line) {
+        List<String> fields = parseLine(line);
+        Question question = new Question();
+        question.setQuestionTitle(field(fields, "questiontitle"));
+        question.setOption1(field(fields, "option1"));
+        question.setOption2(field(fields, "option2"));
+        question.setOption3(field(fields, "option3"));
+        question.setOption4(field(fields, "option4"));
+        question.setRightAnswer(field(fields, "rightanswer"));
+        question.setDifficultylevel(field(fields, "difficultylevel"));
+        question.setCategory(field(fields, "category"));
+        return question;
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columnIndex.get(column);
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,82 @@
+package com.maxwell.questionservice.service;
+
+import com.maxwell.questionservice.dao.QuestionDao;
+import com.maxwell.questionservice.model.Question;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams questions as newline-delimited JSON straight from a database cursor. Each row is
+ * written and detached from the persistence context before the next is read, so memory use
+ * stays flat however large the export is.
+ */
+@Slf4j
+@Service
+public class QuestionExportService {
+
+    @Autowired
+    QuestionDao questionDao;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    public ResponseEntity<StreamingResponseBody> streamAllQuestions() {
+        return stream(questionDao::streamAllByOrderByIdAsc, "all questions");
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamQuestionsByCategory(String category) {
+        return stream(() -> questionDao.streamByCategoryOrderByIdAsc(category), "category " + category);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<Question>> source, String description) {
+        StreamingResponseBody body = out -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            long rows = transaction.execute(status -> writeRows(source, out));
+            log.info("Streamed {} questions for {}", rows, description);
+        };
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private long writeRows(Supplier<Stream<Question>> source, OutputStream out) {
+        long rows = 0;
+        try (Stream<Question> questions = source.get()) {
+            Iterator<Question> iterator = questions.iterator();
+            while (iterator.hasNext()) {
+                Question question = iterator.next();
+                out.write(objectMapper.writeValueAsBytes(question));
+                out.write('\n');
+                entityManager.detach(question);
+                rows++;
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stream questions", e);
+        }
+        return rows;
+    }
+}
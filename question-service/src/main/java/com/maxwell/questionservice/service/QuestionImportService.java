@@ -0,0 +1,227 @@
+package com.maxwell.questionservice.service;
+
+import com.maxwell.commons.cache.ResponseBodyCache;
+import com.maxwell.questionservice.dao.QuestionBatchDao;
+import com.maxwell.questionservice.model.BulkImportError;
+import com.maxwell.questionservice.model.BulkImportResult;
+import com.maxwell.questionservice.model.Question;
+import com.maxwell.questionservice.sampling.CategoryIdIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk question import from a JSON array, NDJSON or CSV body. Rows are read incrementally,
+ * validated, and inserted in JDBC batches of {@code question.bulk-import.batch-size}, so the
+ * body is never held in memory as a whole. Every rejected row is reported with its row number.
+ */
+@Slf4j
+@Service
+public class QuestionImportService {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    QuestionBatchDao questionBatchDao;
+
+    @Autowired
+    CategoryIdIndex categoryIdIndex;
+
+    @Autowired
+    ResponseBodyCache responseBodyCache;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${question.bulk-import.batch-size:500}")
+    int batchSize;
+
+    public ResponseEntity<BulkImportResult> importQuestions(InputStream body, MediaType contentType) {
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun();
+        try {
+            if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+                importNdjson(body, run);
+            } else if (TEXT_CSV.isCompatibleWith(contentType)) {
+                importCsv(body, run);
+            } else {
+                importJsonArray(body, run);
+            }
+        } catch (IOException | JacksonException | IllegalArgumentException e) {
+            run.reject(run.currentRow, "Import aborted: " + e.getMessage());
+        }
+        run.flush();
+
+        BulkImportResult result = run.result;
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        result.setRowsPerSecond(result.getElapsedMillis() == 0
+                ? result.getImported() : result.getImported() * 1000.0 / result.getElapsedMillis());
+        run.touchedCategories.forEach(categoryIdIndex::invalidate);
+        if (result.getImported() > 0) {
+            responseBodyCache.invalidateAll();
+        }
+        log.info("Bulk import finished: {} received, {} imported, {} rejected in {} ms ({} rows/s)",
+                result.getReceived(), result.getImported(), result.getRejected(), result.getElapsedMillis(),
+                Math.round(result.getRowsPerSecond()));
+
+        HttpStatus status = result.getImported() > 0 ? HttpStatus.CREATED
+                : result.getRejected() > 0 ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
+        return new ResponseEntity<>(result, status);
+    }
+
+    // A malformed element leaves the parser in an unknown position, so it aborts the rest of the array.
+    private void importJsonArray(InputStream body, ImportRun run) {
+        ObjectReader elementReader = objectMapper.readerFor(Question.class)
+                .without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of questions");
+            }
+            long row = 1;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                run.accept(row, elementReader.readValue(parser));
+                run.currentRow = ++row;
+            }
+        }
+    }
+
+    private void importNdjson(InputStream body, ImportRun run) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            run.currentRow = row + 1;
+            if (line.isBlank()) {
+                continue;
+            }
+            Question question;
+            try {
+                question = objectMapper.readValue(line, Question.class);
+            } catch (JacksonException e) {
+                run.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            run.accept(row, question);
+        }
+    }
+
+    private void importCsv(InputStream body, ImportRun run) throws IOException {
+        CsvQuestionReader reader = new CsvQuestionReader(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        String line;
+        while ((line = reader.nextLine()) != null) {
+            long row = reader.lineNumber();
+            run.currentRow = row + 1;
+            Question question;
+            try {
+                question = reader.toQuestion(line);
+            } catch (IllegalArgumentException e) {
+                run.reject(row, "Malformed CSV: " + e.getMessage());
+                continue;
+            }
+            run.accept(row, question);
+        }
+    }
+
+    static String validate(Question question) {
+        if (isBlank(question.getQuestionTitle())) {
+            return "questionTitle is required";
+        }
+        if (isBlank(question.getOption1()) || isBlank(question.getOption2())
+                || isBlank(question.getOption3()) || isBlank(question.getOption4())) {
+            return "option1 to option4 are required";
+        }
+        if (isBlank(question.getRightAnswer())) {
+            return "rightAnswer is required";
+        }
+        if (!List.of(question.getOption1(), question.getOption2(), question.getOption3(), question.getOption4())
+                .contains(question.getRightAnswer())) {
+            return "rightAnswer must match one of the options";
+        }
+        if (isBlank(question.getCategory())) {
+            return "category is required";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private final class ImportRun {
+
+        private final BulkImportResult result = new BulkImportResult();
+        private final Set<String> touchedCategories = new HashSet<>();
+        private final List<Question> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchRows = new ArrayList<>(batchSize);
+        private long currentRow = 1;
+
+        private void accept(long row, Question question) {
+            result.setReceived(result.getReceived() + 1);
+            String error = question == null ? "Row is empty" : validate(question);
+            if (error != null) {
+                rejectRow(row, error);
+                return;
+            }
+            batch.add(question);
+            batchRows.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void reject(long row, String message) {
+            result.setReceived(result.getReceived() + 1);
+            rejectRow(row, message);
+        }
+
+        private void rejectRow(long row, String message) {
+            result.setRejected(result.getRejected() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add(new BulkImportError(row, message));
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                questionBatchDao.insertAll(batch);
+                result.setImported(result.getImported() + batch.size());
+                for (Question question : batch) {
+                    touchedCategories.add(question.getCategory());
+                }
+            } catch (Exception e) {
+                log.error("Bulk import batch of {} rows failed", batch.size(), e);
+                for (Long row : batchRows) {
+                    rejectRow(row, "Batch insert failed: " + e.getMessage());
+                }
+            }
+            batch.clear();
+            batchRows.clear();
+        }
+    }
+}
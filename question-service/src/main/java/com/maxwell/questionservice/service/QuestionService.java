@@ -1,25 +1,74 @@
 package com.maxwell.questionservice.service;
 
+import com.maxwell.commons.cache.ResponseBodyCache;
+import com.maxwell.questionservice.cache.AnswerKeyCache;
+import com.maxwell.questionservice.cache.AnswerKeyCacheStats;
 import com.maxwell.questionservice.dao.QuestionDao;
+import com.maxwell.questionservice.model.AnswerKey;
+import com.maxwell.questionservice.model.AnswerSheet;
+import com.maxwell.questionservice.model.AnswerSheetResult;
 import com.maxwell.questionservice.model.Question;
 import com.maxwell.questionservice.model.QuestionWrapper;
 import com.maxwell.questionservice.model.Response;
+import com.maxwell.questionservice.sampling.CategoryIdIndex;
+import com.maxwell.questionservice.sampling.DifficultyMix;
+import com.maxwell.questionservice.sampling.IdSampler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 @Slf4j
 @Service
 public class QuestionService {
 
+    static final int ID_CHUNK_SIZE = 1000;
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     QuestionDao questionDao;
 
+    @Autowired
+    AnswerKeyCache answerKeyCache;
+
+    @Autowired
+    CategoryIdIndex categoryIdIndex;
+
+    @Autowired
+    ResponseBodyCache responseBodyCache;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmAnswerKeyCache() {
+        try {
+            List<AnswerKey> answerKeys = questionDao.findAnswerKeys(PageRequest.of(0, answerKeyCache.maxSize()));
+            for (AnswerKey answerKey : answerKeys) {
+                answerKeyCache.put(answerKey.getId(), answerKey.getRightAnswer());
+            }
+            log.info("Warmed answer key cache with {} entries", answerKeys.size());
+        } catch (Exception e) {
+            log.warn("Failed to warm answer key cache, scoring will load answer keys on demand", e);
+        }
+    }
+
     public ResponseEntity<List<Question>> getAllQuestions() {
         try {
             return new ResponseEntity<>(questionDao.findAll(), HttpStatus.OK);
@@ -38,9 +87,35 @@ public class QuestionService {
         return new ResponseEntity<>(new ArrayList<>(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    // Keyset pagination: a page holds up to size questions with ids greater than afterId, in id order.
+    // When the page is full, the X-Next-Cursor header carries the afterId for the next page.
+    public ResponseEntity<List<Question>> getQuestionsPage(String category, Integer afterId, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        if (pageSize < 1) {
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
+        }
+        int cursor = afterId == null ? 0 : afterId;
+        try {
+            List<Question> page = category == null
+                    ? questionDao.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(pageSize))
+                    : questionDao.findByCategoryAndIdGreaterThanOrderByIdAsc(category, cursor, Limit.of(pageSize));
+            HttpHeaders headers = new HttpHeaders();
+            if (page.size() == pageSize) {
+                headers.set(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+            }
+            return new ResponseEntity<>(page, headers, HttpStatus.OK);
+        } catch (Exception e) {
+            log.error("Failed to fetch question page, category: {}, afterId: {}", category, cursor, e);
+        }
+        return new ResponseEntity<>(new ArrayList<>(), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
     public ResponseEntity<String> addQuestion(Question question) {
         try {
-            questionDao.save(question);
+            Question saved = questionDao.save(question);
+            answerKeyCache.put(saved.getId(), saved.getRightAnswer());
+            categoryIdIndex.onQuestionAdded(saved);
+            responseBodyCache.invalidateAll();
             return new ResponseEntity<>("Question added successfully", HttpStatus.CREATED);
         } catch (Exception e) {
             log.error("Failed to add question", e);
@@ -48,9 +123,34 @@ public class QuestionService {
         }
     }
 
-    public ResponseEntity<List<Integer>> getQuestionsForQuiz(String categoryName, int numberOfQuestions) {
+    public ResponseEntity<List<Integer>> getQuestionsForQuiz(String categoryName, int numberOfQuestions,
+                                                             Long seed, String difficultyMix) {
+        if (numberOfQuestions < 1) {
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
+        }
+        DifficultyMix mix = null;
+        if (difficultyMix != null && !difficultyMix.isBlank()) {
+            try {
+                mix = DifficultyMix.parse(difficultyMix);
+            } catch (IllegalArgumentException e) {
+                log.warn("Rejected difficulty mix '{}': {}", difficultyMix, e.getMessage());
+                return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
+            }
+        }
         try {
-            List<Integer> questions = questionDao.findRandomQuestionsByCategory(categoryName, numberOfQuestions);
+            RandomGenerator random = seed != null ? new SplittableRandom(seed) : ThreadLocalRandom.current();
+            int[][] samples = mix == null
+                    ? new int[][]{IdSampler.sample(categoryIdIndex.idsFor(categoryName), numberOfQuestions, random)}
+                    : sampleByDifficulty(categoryName, numberOfQuestions, mix, random);
+            // Sized from what was drawn, which the category bounds, never from the requested count.
+            int drawn = 0;
+            for (int[] sample : samples) {
+                drawn += sample.length;
+            }
+            List<Integer> questions = new ArrayList<>(drawn);
+            for (int[] sample : samples) {
+                addAll(questions, sample);
+            }
             if (questions.isEmpty()) {
                 log.warn("No questions found for category: {}", categoryName);
                 return new ResponseEntity<>(questions, HttpStatus.NOT_FOUND);
@@ -62,31 +162,144 @@ public class QuestionService {
         }
     }
 
+    // Questions are returned grouped by difficulty, in the order the mix lists them.
+    private int[][] sampleByDifficulty(String categoryName, int numberOfQuestions, DifficultyMix mix,
+                                       RandomGenerator random) {
+        List<String> difficulties = mix.getDifficulties();
+        int[][] buckets = new int[difficulties.size()][];
+        int[] capacities = new int[difficulties.size()];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = categoryIdIndex.idsFor(categoryName, difficulties.get(i));
+            capacities[i] = buckets[i].length;
+        }
+        int[] quotas = mix.allocate(numberOfQuestions, capacities);
+        int[][] samples = new int[buckets.length][];
+        for (int i = 0; i < buckets.length; i++) {
+            samples[i] = IdSampler.sample(buckets[i], quotas[i], random);
+        }
+        return samples;
+    }
+
     public ResponseEntity<List<QuestionWrapper>> getQuestionsFromId(List<Integer> questionIds) {
-        List<QuestionWrapper> wrappers = new ArrayList<>();
+        Set<Integer> distinctIds = new LinkedHashSet<>(questionIds);
+        Map<Integer, QuestionWrapper> wrappersById = new HashMap<>(distinctIds.size() * 2);
+        for (List<Integer> chunk : chunk(distinctIds)) {
+            for (QuestionWrapper wrapper : questionDao.findWrappersByIdIn(chunk)) {
+                wrappersById.put(wrapper.getId(), wrapper);
+            }
+        }
+
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer id : distinctIds) {
+            if (!wrappersById.containsKey(id)) {
+                missingIds.add(id);
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            throw new RuntimeException("Questions not found with ids: " + missingIds);
+        }
+
+        List<QuestionWrapper> wrappers = new ArrayList<>(questionIds.size());
         for (Integer id : questionIds) {
-            Question question = questionDao.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Question not found with id: " + id));
-            wrappers.add(new QuestionWrapper(
-                    question.getId(),
-                    question.getQuestionTitle(),
-                    question.getOption1(),
-                    question.getOption2(),
-                    question.getOption3(),
-                    question.getOption4()));
+            wrappers.add(wrappersById.get(id));
         }
         return new ResponseEntity<>(wrappers, HttpStatus.OK);
     }
 
+    // Each question is scored at most once (the first response for an id wins) and a submission
+    // containing ids that do not exist is rejected as a whole, listing every unknown id.
     public ResponseEntity<Integer> getScore(List<Response> responses) {
+        Set<Integer> submittedIds = new LinkedHashSet<>(responses.size() * 2);
+        for (Response response : responses) {
+            submittedIds.add(response.getId());
+        }
+        Map<Integer, String> rightAnswers = findRightAnswers(submittedIds);
+
         int right = 0;
         for (Response response : responses) {
-            Question question = questionDao.findById(response.getId())
-                    .orElseThrow(() -> new RuntimeException("Question not found with id: " + response.getId()));
-            if (response.getResponse().equals(question.getRightAnswer())) {
+            String rightAnswer = rightAnswers.remove(response.getId());
+            if (rightAnswer != null && rightAnswer.equals(response.getResponse())) {
                 right++;
             }
         }
         return new ResponseEntity<>(right, HttpStatus.OK);
     }
+
+    public ResponseEntity<AnswerSheetResult> gradeAnswerSheet(AnswerSheet answerSheet) {
+        int[] questionIds = answerSheet.getQuestionIds();
+        List<String> responses = answerSheet.getResponses();
+        if (questionIds == null || responses == null || questionIds.length != responses.size()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        Set<Integer> submittedIds = new LinkedHashSet<>(questionIds.length * 2);
+        for (int id : questionIds) {
+            submittedIds.add(id);
+        }
+        Map<Integer, String> rightAnswers = findRightAnswers(submittedIds);
+
+        // Same policy as getScore: only the first response for a question counts.
+        boolean[] correct = new boolean[questionIds.length];
+        int right = 0;
+        for (int i = 0; i < questionIds.length; i++) {
+            String rightAnswer = rightAnswers.remove(questionIds[i]);
+            if (rightAnswer != null && rightAnswer.equals(responses.get(i))) {
+                correct[i] = true;
+                right++;
+            }
+        }
+        return new ResponseEntity<>(new AnswerSheetResult(right, correct), HttpStatus.OK);
+    }
+
+    public ResponseEntity<AnswerKeyCacheStats> getAnswerKeyCacheStats() {
+        return new ResponseEntity<>(answerKeyCache.stats(), HttpStatus.OK);
+    }
+
+    // Answer keys for all ids, from the cache first and the database for the rest; fails on any unknown id.
+    private Map<Integer, String> findRightAnswers(Set<Integer> ids) {
+        Map<Integer, String> rightAnswers = new HashMap<>(ids.size() * 2);
+        List<Integer> uncachedIds = answerKeyCache.getAll(ids, rightAnswers);
+        for (List<Integer> chunk : chunk(uncachedIds)) {
+            for (AnswerKey answerKey : questionDao.findAnswerKeysByIdIn(chunk)) {
+                rightAnswers.put(answerKey.getId(), answerKey.getRightAnswer());
+                answerKeyCache.put(answerKey.getId(), answerKey.getRightAnswer());
+            }
+        }
+
+        List<Integer> unknownIds = new ArrayList<>();
+        for (Integer id : ids) {
+            if (!rightAnswers.containsKey(id)) {
+                unknownIds.add(id);
+            }
+        }
+        if (!unknownIds.isEmpty()) {
+            throw new RuntimeException("Questions not found with ids: " + unknownIds);
+        }
+        return rightAnswers;
+    }
+
+    private static void addAll(List<Integer> target, int[] ids) {
+        for (int id : ids) {
+            target.add(id);
+        }
+    }
+
+    // Splits ids into IN-list sized batches so huge requests never exceed driver bind-parameter limits.
+    private static List<List<Integer>> chunk(Collection<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        List<Integer> current = new ArrayList<>(Math.min(ids.size(), ID_CHUNK_SIZE));
+        for (Integer id : ids) {
+            if (id == null) {
+                continue;
+            }
+            current.add(id);
+            if (current.size() == ID_CHUNK_SIZE) {
+                chunks.add(current);
+                current = new ArrayList<>(ID_CHUNK_SIZE);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
 }
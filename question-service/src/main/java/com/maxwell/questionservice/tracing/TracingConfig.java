@@ -0,0 +1,27 @@
+package com.maxwell.questionservice.tracing;
+
+import com.maxwell.commons.tracing.SlowTraceRecorder;
+import com.maxwell.commons.tracing.TracesEndpoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Tail-samples this service's traces and serves the kept ones at /actuator/traces.
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SlowTraceRecorder slowTraceRecorder(
+            @Value("${question.tracing.slow-threshold:500ms}") Duration slowThreshold,
+            @Value("${question.tracing.keep-probability:0.01}") double keepProbability,
+            @Value("${question.tracing.max-traces:200}") int maxTraces) {
+        return new SlowTraceRecorder(slowThreshold, keepProbability, maxTraces);
+    }
+
+    @Bean
+    public TracesEndpoint tracesEndpoint(SlowTraceRecorder recorder) {
+        return new TracesEndpoint(recorder);
+    }
+}
@@ -0,0 +1,45 @@
+package com.maxwell.questionservice;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.micrometer.metrics.test.autoconfigure.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMetrics
+@ActiveProfiles("test")
+class QuestionServiceMetricsTest {
+
+    @LocalServerPort
+    int port;
+
+    @Test
+    void prometheusEndpoint_exportsLatencyHistogramsPoolAndCacheMetrics() {
+        RestClient client = RestClient.create("http://localhost:" + port);
+        client.post().uri("/question/bulk").contentType(MediaType.APPLICATION_JSON)
+                .body("[{\"questionTitle\":\"q\",\"option1\":\"a\",\"option2\":\"b\",\"option3\":\"c\",\"option4\":\"d\","
+                        + "\"rightAnswer\":\"a\",\"difficultylevel\":\"Easy\",\"category\":\"Java\"}]")
+                .retrieve().toBodilessEntity();
+        client.get().uri("/question/category/{category}", "Java").retrieve().toBodilessEntity();
+        client.post().uri("/question/getScore").contentType(MediaType.APPLICATION_JSON)
+                .body("[{\"id\":1,\"response\":\"a\"}]")
+                .retrieve().toBodilessEntity();
+
+        String scrape = client.get().uri("/actuator/prometheus").retrieve().body(String.class);
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{application=\"question-service\"")
+                .containsPattern("http_server_requests_seconds_bucket\\{[^ ]*uri=\"/question/category/\\{category}\"")
+                .containsPattern("spring_data_repository_invocations_seconds_bucket\\{[^}]*repository=\"QuestionDao\"")
+                .containsPattern("spring_data_repository_invocations_seconds_bucket\\{[^}]*method=\"insertAll\",repository=\"QuestionBatchDao\"")
+                .contains("hikaricp_connections_active{")
+                .contains("tomcat_threads_busy_threads{")
+                .containsPattern("cache_gets_total\\{[^}]*cache=\"answer-keys\"")
+                .containsPattern("cache_gets_total\\{[^}]*cache=\"question-responses\"");
+    }
+}
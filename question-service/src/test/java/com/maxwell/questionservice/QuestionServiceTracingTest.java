@@ -0,0 +1,52 @@
+package com.maxwell.questionservice;
+
+import com.maxwell.commons.tracing.RecordedSpan;
+import com.maxwell.commons.tracing.RecordedTrace;
+import com.maxwell.commons.tracing.SlowTraceRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.micrometer.tracing.test.autoconfigure.AutoConfigureTracing;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// Every request is kept (slow threshold 0), so the caller's trace can be looked up by id.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "question.tracing.slow-threshold=0ms")
+@AutoConfigureTracing
+@ActiveProfiles("test")
+class QuestionServiceTracingTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    SlowTraceRecorder recorder;
+
+    @Test
+    void categoryQuery_joinsTheCallersTraceWithJdbcSpans() {
+        RestClient.create("http://localhost:" + port).get().uri("/question/category/{category}", "Java")
+                .header("traceparent", "00-" + TRACE_ID + "-" + PARENT_ID + "-01")
+                .retrieve().toBodilessEntity();
+
+        // The server span finishes just after the response is written.
+        List<RecordedTrace> traces = await().atMost(Duration.ofSeconds(5))
+                .until(() -> recorder.traces(TRACE_ID), found -> !found.isEmpty());
+        List<RecordedSpan> spans = traces.getFirst().spans();
+        assertThat(spans).anySatisfy(span -> {
+            assertThat(span.kind()).isEqualTo("SERVER");
+            assertThat(span.parentId()).isEqualTo(PARENT_ID);
+        });
+        assertThat(spans).anySatisfy(span -> assertThat(span.name()).startsWith("query"));
+    }
+}
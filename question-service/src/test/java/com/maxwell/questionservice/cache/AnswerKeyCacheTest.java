@@ -0,0 +1,115 @@
+package com.maxwell.questionservice.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnswerKeyCacheTest {
+
+    @Test
+    void putAndGet_returnsCachedAnswer() {
+        AnswerKeyCache cache = new AnswerKeyCache(4);
+
+        cache.put(7, "Java Virtual Machine");
+
+        assertThat(cache.get(7)).isEqualTo("Java Virtual Machine");
+        assertThat(cache.get(8)).isNull();
+    }
+
+    @Test
+    void put_existingId_overwritesAnswer() {
+        AnswerKeyCache cache = new AnswerKeyCache(4);
+
+        cache.put(1, "old");
+        cache.put(1, "new");
+
+        assertThat(cache.get(1)).isEqualTo("new");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void put_nullAnswer_invalidatesEntry() {
+        AnswerKeyCache cache = new AnswerKeyCache(4);
+
+        cache.put(1, "answer");
+        cache.put(1, null);
+
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_beyondMaxSize_evictsAndStaysBounded() {
+        AnswerKeyCache cache = new AnswerKeyCache(100);
+
+        for (int id = 1; id <= 1000; id++) {
+            cache.put(id, "answer-" + id);
+        }
+
+        assertThat(cache.size()).isEqualTo(100);
+        assertThat(cache.stats().getEvictions()).isEqualTo(900);
+        int present = 0;
+        for (int id = 1; id <= 1000; id++) {
+            String answer = cache.get(id);
+            if (answer != null) {
+                assertThat(answer).isEqualTo("answer-" + id);
+                present++;
+            }
+        }
+        assertThat(present).isEqualTo(100);
+    }
+
+    @Test
+    void eviction_givesRecentlyReadEntriesASecondChance() {
+        AnswerKeyCache cache = new AnswerKeyCache(2);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.get(1);
+
+        cache.put(3, "c");
+
+        assertThat(cache.get(1)).isEqualTo("a");
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.get(3)).isEqualTo("c");
+    }
+
+    @Test
+    void invalidate_keepsCollidingEntriesReachable() {
+        AnswerKeyCache cache = new AnswerKeyCache(64);
+        for (int id = 0; id < 64; id++) {
+            cache.put(id, "answer-" + id);
+        }
+
+        for (int id = 0; id < 64; id += 2) {
+            cache.invalidate(id);
+        }
+
+        for (int id = 0; id < 64; id++) {
+            assertThat(cache.get(id)).isEqualTo(id % 2 == 0 ? null : "answer-" + id);
+        }
+        assertThat(cache.size()).isEqualTo(32);
+    }
+
+    @Test
+    void getAll_returnsMissesAndRecordsStats() {
+        AnswerKeyCache cache = new AnswerKeyCache(4);
+        cache.put(1, "a");
+        Map<Integer, String> answers = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(List.of(1, 2));
+        ids.add(null);
+
+        List<Integer> missing = cache.getAll(ids, answers);
+
+        assertThat(answers).containsOnly(Map.entry(1, "a"));
+        assertThat(missing).containsExactly(2, null);
+        AnswerKeyCacheStats stats = cache.stats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(2);
+        assertThat(stats.getHitRatio()).isEqualTo(1.0 / 3);
+    }
+}
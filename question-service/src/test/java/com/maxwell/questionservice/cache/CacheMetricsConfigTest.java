@@ -0,0 +1,36 @@
+package com.maxwell.questionservice.cache;
+
+import com.maxwell.commons.cache.ResponseBodyCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheMetricsConfigTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AnswerKeyCache answerKeyCache = new AnswerKeyCache(2);
+
+    @Test
+    void answerKeyCache_publishesHitsMissesEvictionsAndSize() {
+        new CacheMetricsConfig().questionCacheMetrics(answerKeyCache,
+                new ResponseBodyCache(1024, Duration.ofMinutes(1), 2048, JsonMapper.builder().build())).bindTo(registry);
+
+        answerKeyCache.put(1, "a");
+        answerKeyCache.put(2, "b");
+        answerKeyCache.get(1);
+        answerKeyCache.get(3);
+        answerKeyCache.put(3, "c");
+
+        assertThat(registry.get("cache.gets").tags("cache", "answer-keys", "result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", "answer-keys", "result", "miss").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.evictions").tag("cache", "answer-keys").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").tag("cache", "answer-keys").gauge().value()).isEqualTo(2);
+        assertThat(registry.find("cache.gets").tag("cache", "question-responses").meters()).isNotEmpty();
+    }
+}
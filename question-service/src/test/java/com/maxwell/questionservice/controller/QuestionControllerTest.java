@@ -1,25 +1,46 @@
 package com.maxwell.questionservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maxwell.commons.cache.ResponseBodyCache;
+import com.maxwell.questionservice.model.AnswerSheet;
+import com.maxwell.questionservice.model.AnswerSheetResult;
+import com.maxwell.questionservice.model.BulkImportResult;
 import com.maxwell.questionservice.model.Question;
 import com.maxwell.questionservice.model.QuestionWrapper;
 import com.maxwell.questionservice.model.Response;
+import com.maxwell.questionservice.service.QuestionExportService;
+import com.maxwell.questionservice.service.QuestionImportService;
 import com.maxwell.questionservice.service.QuestionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.endsWith;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +53,16 @@ class QuestionControllerTest {
     @Mock
     private QuestionService questionService;
 
+    @Mock
+    private QuestionExportService questionExportService;
+
+    @Mock
+    private QuestionImportService questionImportService;
+
+    @Spy
+    private ResponseBodyCache responseBodyCache = new ResponseBodyCache(1 << 20, Duration.ofMinutes(5), 64,
+            JsonMapper.builder().build());
+
     @InjectMocks
     private QuestionController questionController;
 
@@ -79,6 +110,116 @@ class QuestionControllerTest {
                 .andExpect(jsonPath("$[0].category").value("Java"));
     }
 
+    @Test
+    void getAllQuestions_withMatchingIfNoneMatch_returns304WithoutReloading() throws Exception {
+        when(questionService.getAllQuestions())
+                .thenReturn(new ResponseEntity<>(List.of(question), HttpStatus.OK));
+
+        String etag = mockMvc.perform(get("/question/allQuestions"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/question/allQuestions").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().bytes(new byte[0]));
+        verify(questionService, times(1)).getAllQuestions();
+    }
+
+    @Test
+    void getQuestionsByCategory_withGzipAcceptEncoding_returnsCompressedBody() throws Exception {
+        when(questionService.getQuestionsByCategory("Java"))
+                .thenReturn(new ResponseEntity<>(List.of(question, question, question), HttpStatus.OK));
+
+        MvcResult result = mockMvc.perform(get("/question/category/Java").header("Accept-Encoding", "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", endsWith("-gzip\"")))
+                .andReturn();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).contains("\"category\":\"Java\"");
+        }
+    }
+
+    @Test
+    void getAllQuestions_whenServiceFails_isNotCached() throws Exception {
+        when(questionService.getAllQuestions())
+                .thenReturn(new ResponseEntity<>(List.of(), HttpStatus.INTERNAL_SERVER_ERROR))
+                .thenReturn(new ResponseEntity<>(List.of(question), HttpStatus.OK));
+
+        mockMvc.perform(get("/question/allQuestions"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(header().doesNotExist("ETag"));
+        mockMvc.perform(get("/question/allQuestions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
+    @Test
+    void getAllQuestions_withCursor_returnsPage() throws Exception {
+        when(questionService.getQuestionsPage(null, 10, 1))
+                .thenReturn(ResponseEntity.ok().header("X-Next-Cursor", "1").body(List.of(question)));
+
+        mockMvc.perform(get("/question/allQuestions").param("afterId", "10").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "1"))
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
+    @Test
+    void getQuestionsByCategory_withSizeOnly_returnsFirstPage() throws Exception {
+        when(questionService.getQuestionsPage("Java", null, 50))
+                .thenReturn(new ResponseEntity<>(List.of(question), HttpStatus.OK));
+
+        mockMvc.perform(get("/question/category/Java").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].category").value("Java"));
+    }
+
+    @Test
+    void getAllQuestions_withDefaultAccept_doesNotStream() throws Exception {
+        when(questionService.getAllQuestions())
+                .thenReturn(new ResponseEntity<>(List.of(question), HttpStatus.OK));
+
+        mockMvc.perform(get("/question/allQuestions").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        verifyNoInteractions(questionExportService);
+    }
+
+    @Test
+    void getAllQuestions_withNdjsonAccept_streamsRows() throws Exception {
+        StreamingResponseBody body = out -> out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+        when(questionExportService.streamAllQuestions())
+                .thenReturn(ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body));
+
+        MvcResult result = mockMvc.perform(get("/question/allQuestions").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    void getQuestionsByCategory_withNdjsonAccept_streamsCategory() throws Exception {
+        StreamingResponseBody body = out -> out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+        when(questionExportService.streamQuestionsByCategory("Java"))
+                .thenReturn(ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body));
+
+        MvcResult result = mockMvc.perform(get("/question/category/Java").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
     @Test
     void addQuestion_returns201OnSuccess() throws Exception {
         when(questionService.addQuestion(any(Question.class)))
@@ -91,9 +232,24 @@ class QuestionControllerTest {
                 .andExpect(content().string("Question added successfully"));
     }
 
+    @Test
+    void bulkImport_passesBodyAndContentTypeToImportService() throws Exception {
+        BulkImportResult result = new BulkImportResult();
+        result.setReceived(1);
+        result.setImported(1);
+        when(questionImportService.importQuestions(any(), eq(MediaType.parseMediaType("text/csv"))))
+                .thenReturn(new ResponseEntity<>(result, HttpStatus.CREATED));
+
+        mockMvc.perform(post("/question/bulk")
+                        .contentType("text/csv")
+                        .content("questionTitle,option1,option2,option3,option4,rightAnswer,category\nQ,a,b,c,d,a,Java\n"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.imported").value(1));
+    }
+
     @Test
     void generateQuiz_returnsListOfIds() throws Exception {
-        when(questionService.getQuestionsForQuiz("Java", 2))
+        when(questionService.getQuestionsForQuiz("Java", 2, null, null))
                 .thenReturn(new ResponseEntity<>(List.of(1, 2), HttpStatus.OK));
 
         mockMvc.perform(get("/question/generate")
@@ -104,6 +260,32 @@ class QuestionControllerTest {
                 .andExpect(jsonPath("$[1]").value(2));
     }
 
+    @Test
+    void generateQuiz_passesSeedThrough() throws Exception {
+        when(questionService.getQuestionsForQuiz("Java", 2, 42L, null))
+                .thenReturn(new ResponseEntity<>(List.of(3, 1), HttpStatus.OK));
+
+        mockMvc.perform(get("/question/generate")
+                        .param("categoryName", "Java")
+                        .param("numberOfQuestions", "2")
+                        .param("seed", "42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value(3));
+    }
+
+    @Test
+    void generateQuiz_passesDifficultyMixThrough() throws Exception {
+        when(questionService.getQuestionsForQuiz("Java", 5, null, "Easy:60,Hard:40"))
+                .thenReturn(new ResponseEntity<>(List.of(1, 2, 3, 4, 5), HttpStatus.OK));
+
+        mockMvc.perform(get("/question/generate")
+                        .param("categoryName", "Java")
+                        .param("numberOfQuestions", "5")
+                        .param("difficultyMix", "Easy:60,Hard:40"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5));
+    }
+
     @Test
     void getQuestionsFromId_returnsWrappers() throws Exception {
         when(questionService.getQuestionsFromId(List.of(1)))
@@ -117,6 +299,43 @@ class QuestionControllerTest {
                 .andExpect(jsonPath("$[0].questionTitle").value("What is Java?"));
     }
 
+    @Test
+    void getQuestionsFromId_withCbor_readsAndWritesCbor() throws Exception {
+        CBORMapper cborMapper = CBORMapper.builder().build();
+        when(questionService.getQuestionsFromId(List.of(1)))
+                .thenReturn(new ResponseEntity<>(List.of(wrapper), HttpStatus.OK));
+
+        MvcResult result = mockMvc.perform(post("/question/getQuestions")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(List.of(1))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        QuestionWrapper[] body = cborMapper.readValue(result.getResponse().getContentAsByteArray(), QuestionWrapper[].class);
+        assertThat(body).containsExactly(wrapper);
+    }
+
+    @Test
+    void getQuestionsFromId_withSmileAccept_writesSmile() throws Exception {
+        MediaType smile = new MediaType("application", "x-jackson-smile");
+        when(questionService.getQuestionsFromId(List.of(1)))
+                .thenReturn(new ResponseEntity<>(List.of(wrapper), HttpStatus.OK));
+
+        MvcResult result = mockMvc.perform(post("/question/getQuestions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(smile)
+                        .content("[1]"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(smile))
+                .andReturn();
+
+        QuestionWrapper[] body = SmileMapper.builder().build()
+                .readValue(result.getResponse().getContentAsByteArray(), QuestionWrapper[].class);
+        assertThat(body).containsExactly(wrapper);
+    }
+
     @Test
     void getScore_returnsCorrectCount() throws Exception {
         when(questionService.getScore(anyList()))
@@ -132,4 +351,18 @@ class QuestionControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("1"));
     }
+
+    @Test
+    void gradeAnswerSheet_returnsScoreAndCorrectness() throws Exception {
+        when(questionService.gradeAnswerSheet(any(AnswerSheet.class)))
+                .thenReturn(new ResponseEntity<>(new AnswerSheetResult(1, new boolean[]{true, false}), HttpStatus.OK));
+
+        mockMvc.perform(post("/question/gradeAnswerSheet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"questionIds\":[1,2],\"responses\":[\"A language\",\"A coffee\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.score").value(1))
+                .andExpect(jsonPath("$.correct[0]").value(true))
+                .andExpect(jsonPath("$.correct[1]").value(false));
+    }
 }
@@ -0,0 +1,165 @@
+package com.maxwell.questionservice.discovery;
+
+import com.maxwell.questionservice.QuestionServiceApplication;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.discovery.shared.Application;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.data.jpa.autoconfigure.DataJpaRepositoriesAutoConfiguration;
+import org.springframework.boot.hibernate.autoconfigure.HibernateJpaAutoConfiguration;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.netflix.eureka.server.EnableEurekaServer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts a Eureka server with the {@code fast-discovery} settings of service-registry, a
+ * non-registering client standing in for quiz-service, and a question-service instance with the
+ * {@code fast-discovery} profile and a slow warm-up. Measures how long the instance takes to become
+ * visible to the client once ready, and to disappear once shut down.
+ */
+class InstancePropagationTest {
+
+    private static final Duration WARM_UP = Duration.ofSeconds(3);
+    // One registry fetch interval plus scheduling slack.
+    private static final Duration MAX_PROPAGATION = Duration.ofSeconds(10);
+
+    // Jersey is only on the test classpath, for the server; clients use RestClient as in production.
+    private static final String JERSEY_DISABLED = "eureka.client.jersey.enabled=false";
+
+    private static volatile boolean warmedUp;
+
+    private ConfigurableApplicationContext registry;
+    private ConfigurableApplicationContext consumer;
+    private ConfigurableApplicationContext questionService;
+
+    @AfterEach
+    void stop() {
+        for (ConfigurableApplicationContext context : new ConfigurableApplicationContext[]{questionService, consumer, registry}) {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    @Test
+    void readyInstanceReachesClientsWithinOneFetchInterval() throws Exception {
+        // The registry lists itself as its only peer instead of the default localhost:8761, so the test
+        // never replicates into a registry running on the machine.
+        int registryPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            registryPort = socket.getLocalPort();
+        }
+        String eurekaUrl = "http://localhost:" + registryPort + "/eureka/";
+        registry = new SpringApplicationBuilder(Registry.class)
+                .properties("spring.config.name=propagation-registry", "server.port=" + registryPort,
+                        "spring.application.name=service-registry",
+                        "eureka.client.register-with-eureka=false", "eureka.client.fetch-registry=false",
+                        "eureka.client.service-url.defaultZone=" + eurekaUrl,
+                        "eureka.server.use-read-only-response-cache=false",
+                        "eureka.server.response-cache-update-interval-ms=5000",
+                        "eureka.server.eviction-interval-timer-in-ms=5000",
+                        "eureka.server.expected-client-renewal-interval-seconds=5")
+                .run();
+        PeerAwareInstanceRegistry instances = registry.getBean(PeerAwareInstanceRegistry.class);
+
+        consumer = new SpringApplicationBuilder(Consumer.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.config.name=propagation-consumer", "spring.application.name=consumer",
+                        "eureka.client.service-url.defaultZone=" + eurekaUrl,
+                        "eureka.client.register-with-eureka=false",
+                        "eureka.client.registry-fetch-interval-seconds=5", JERSEY_DISABLED)
+                .run();
+        DiscoveryClient discoveryClient = consumer.getBean(DiscoveryClient.class);
+
+        CompletableFuture<ConfigurableApplicationContext> starting = CompletableFuture.supplyAsync(() ->
+                new SpringApplicationBuilder(QuestionServiceApplication.class, SlowWarmUp.class)
+                        .profiles("test", "fast-discovery")
+                        // Arguments, so they override the test profile, which disables Eureka.
+                        .run("--server.port=0", "--eureka.client.enabled=true",
+                                "--eureka.client.service-url.defaultZone=" + eurekaUrl,
+                                "--eureka.client.fetch-registry=false", "--" + JERSEY_DISABLED));
+
+        // Until warm-up has finished the instance is either not registered yet or registered as
+        // STARTING, and clients never see it.
+        while (!starting.isDone()) {
+            InstanceStatus status = status(instances);
+            boolean routable = !discoveryClient.getInstances("QUESTION-SERVICE").isEmpty();
+            if (!warmedUp) {
+                assertThat(status).isIn(null, InstanceStatus.STARTING);
+                assertThat(routable).isFalse();
+            }
+            Thread.sleep(50);
+        }
+        questionService = starting.get();
+        long readyAt = System.nanoTime();
+        assertThat(warmedUp).isTrue();
+        await(MAX_PROPAGATION, () -> !discoveryClient.getInstances("QUESTION-SERVICE").isEmpty());
+        Duration join = Duration.ofNanos(System.nanoTime() - readyAt);
+        List<ServiceInstance> visible = discoveryClient.getInstances("QUESTION-SERVICE");
+        assertThat(visible).singleElement().extracting(ServiceInstance::getPort)
+                .isEqualTo(Integer.valueOf(questionService.getEnvironment().getProperty("local.server.port")));
+
+        long closedAt = System.nanoTime();
+        questionService.close();
+        await(MAX_PROPAGATION, () -> discoveryClient.getInstances("QUESTION-SERVICE").isEmpty());
+        Duration leave = Duration.ofNanos(System.nanoTime() - closedAt);
+
+        assertThat(join).as("time from ready to visible").isLessThanOrEqualTo(MAX_PROPAGATION);
+        assertThat(leave).as("time from shutdown to gone").isLessThanOrEqualTo(MAX_PROPAGATION);
+    }
+
+    private static InstanceStatus status(PeerAwareInstanceRegistry instances) {
+        Application application = instances.getApplication("QUESTION-SERVICE");
+        if (application == null || application.getInstances().isEmpty()) {
+            return null;
+        }
+        InstanceInfo instance = application.getInstances().get(0);
+        return instance.getStatus();
+    }
+
+    private static void await(Duration timeout, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", timeout).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    // Not annotated as components, so the question-service context's scan does not pick them up.
+    @EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            DataJpaRepositoriesAutoConfiguration.class})
+    @EnableEurekaServer
+    static class Registry {
+    }
+
+    @EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            DataJpaRepositoriesAutoConfiguration.class})
+    static class Consumer {
+    }
+
+    static class SlowWarmUp {
+
+        @EventListener(ApplicationReadyEvent.class)
+        public void warmUp() throws InterruptedException {
+            Thread.sleep(WARM_UP);
+            warmedUp = true;
+        }
+    }
+}
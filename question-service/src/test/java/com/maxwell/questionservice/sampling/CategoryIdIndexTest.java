@@ -0,0 +1,134 @@
+package com.maxwell.questionservice.sampling;
+
+import com.maxwell.questionservice.dao.QuestionDao;
+import com.maxwell.questionservice.model.Question;
+import com.maxwell.questionservice.model.QuestionDifficulty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryIdIndexTest {
+
+    @Mock
+    private QuestionDao questionDao;
+
+    private CategoryIdIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CategoryIdIndex(Duration.ofMinutes(5));
+        index.questionDao = questionDao;
+    }
+
+    @Test
+    void idsFor_loadsOnceAndReturnsSortedIds() {
+        when(questionDao.findDifficultiesByCategory("Java")).thenReturn(rows(3, "Easy", 1, "Hard", 2, "Easy"));
+
+        assertThat(index.idsFor("Java")).containsExactly(1, 2, 3);
+        assertThat(index.idsFor("Java")).containsExactly(1, 2, 3);
+        verify(questionDao, times(1)).findDifficultiesByCategory("Java");
+    }
+
+    @Test
+    void idsFor_concurrentMisses_loadOnce() throws Exception {
+        when(questionDao.findDifficultiesByCategory("Java")).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return rows(1, "Easy", 2, "Hard");
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(executor.submit(() -> index.idsFor("Java")));
+            }
+            for (Future<int[]> result : results) {
+                assertThat(result.get()).containsExactly(1, 2);
+            }
+        }
+        verify(questionDao, times(1)).findDifficultiesByCategory("Java");
+    }
+
+    @Test
+    void idsFor_withDifficulty_returnsSortedBucketIgnoringCase() {
+        when(questionDao.findDifficultiesByCategory("Java")).thenReturn(rows(3, "Easy", 1, "Hard", 2, "easy"));
+
+        assertThat(index.idsFor("Java", "EASY")).containsExactly(2, 3);
+        assertThat(index.idsFor("Java", "Hard")).containsExactly(1);
+        assertThat(index.idsFor("Java", "Medium")).isEmpty();
+    }
+
+    @Test
+    void idsFor_remembersEmptyCategories() {
+        when(questionDao.findDifficultiesByCategory("Unknown")).thenReturn(List.of());
+
+        assertThat(index.idsFor("Unknown")).isEmpty();
+        assertThat(index.idsFor("Unknown", "Easy")).isEmpty();
+        verify(questionDao, times(1)).findDifficultiesByCategory("Unknown");
+    }
+
+    @Test
+    void onQuestionAdded_toEmptyCategory_makesItLoadAgain() {
+        when(questionDao.findDifficultiesByCategory("Kotlin")).thenReturn(List.of())
+                .thenReturn(rows(7, "Easy"));
+        assertThat(index.idsFor("Kotlin")).isEmpty();
+
+        index.onQuestionAdded(question(7, "Kotlin", "Easy"));
+
+        assertThat(index.idsFor("Kotlin")).containsExactly(7);
+        verify(questionDao, times(2)).findDifficultiesByCategory("Kotlin");
+    }
+
+    @Test
+    void onQuestionAdded_appendsToLoadedCategoryWithoutReloading() {
+        when(questionDao.findDifficultiesByCategory("Java")).thenReturn(rows(1, "Easy", 5, "Hard"));
+        index.idsFor("Java");
+
+        index.onQuestionAdded(question(3, "Java", "Hard"));
+        index.onQuestionAdded(question(3, "Java", "Hard"));
+
+        assertThat(index.idsFor("Java")).containsExactly(1, 3, 5);
+        assertThat(index.idsFor("Java", "Hard")).containsExactly(3, 5);
+        verify(questionDao, times(1)).findDifficultiesByCategory("Java");
+    }
+
+    @Test
+    void idsFor_reloadsAfterRefreshInterval() {
+        index = new CategoryIdIndex(Duration.ZERO);
+        index.questionDao = questionDao;
+        when(questionDao.findDifficultiesByCategory("Java")).thenReturn(rows(1, "Easy"))
+                .thenReturn(rows(1, "Easy", 2, "Easy"));
+
+        index.idsFor("Java");
+
+        assertThat(index.idsFor("Java")).containsExactly(1, 2);
+    }
+
+    private static Question question(int id, String category, String difficulty) {
+        Question question = new Question();
+        question.setId(id);
+        question.setCategory(category);
+        question.setDifficultylevel(difficulty);
+        return question;
+    }
+
+    private static List<QuestionDifficulty> rows(Object... idAndDifficulty) {
+        List<QuestionDifficulty> rows = new ArrayList<>();
+        for (int i = 0; i < idAndDifficulty.length; i += 2) {
+            rows.add(new QuestionDifficulty((Integer) idAndDifficulty[i], (String) idAndDifficulty[i + 1]));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,48 @@
+package com.maxwell.questionservice.sampling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DifficultyMixTest {
+
+    @Test
+    void parse_readsDifficultiesInOrder() {
+        DifficultyMix mix = DifficultyMix.parse("Easy:40, Medium:40 ,Hard:20");
+
+        assertThat(mix.getDifficulties()).containsExactly("Easy", "Medium", "Hard");
+    }
+
+    @Test
+    void parse_rejectsMalformedSpecs() {
+        assertThatThrownBy(() -> DifficultyMix.parse("Easy")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DifficultyMix.parse("Easy:x")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DifficultyMix.parse("Easy:-1")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DifficultyMix.parse("Easy:0,Hard:0")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DifficultyMix.parse("Easy:1,easy:2")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void allocate_splitsByWeightUsingLargestRemainder() {
+        DifficultyMix mix = DifficultyMix.parse("Easy:40,Medium:40,Hard:20");
+
+        assertThat(mix.allocate(10, new int[]{100, 100, 100})).containsExactly(4, 4, 2);
+        assertThat(mix.allocate(7, new int[]{100, 100, 100})).containsExactly(3, 3, 1);
+    }
+
+    @Test
+    void allocate_givesSeatsOfFullBucketsToOthers() {
+        DifficultyMix mix = DifficultyMix.parse("Easy:1,Hard:1");
+
+        assertThat(mix.allocate(10, new int[]{100, 2})).containsExactly(8, 2);
+        assertThat(mix.allocate(10, new int[]{3, 2})).containsExactly(3, 2);
+    }
+
+    @Test
+    void allocate_neverGivesSeatsToZeroWeightDifficulties() {
+        DifficultyMix mix = DifficultyMix.parse("Easy:1,Medium:1,Hard:0");
+
+        assertThat(mix.allocate(10, new int[]{2, 3, 100})).containsExactly(2, 3, 0);
+    }
+}
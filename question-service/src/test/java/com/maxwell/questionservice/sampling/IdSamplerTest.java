@@ -0,0 +1,56 @@
+package com.maxwell.questionservice.sampling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdSamplerTest {
+
+    @Test
+    void sample_returnsRequestedNumberOfDistinctIds() {
+        int[] ids = IntStream.rangeClosed(1, 10_000).toArray();
+
+        int[] sample = IdSampler.sample(ids, 50, new SplittableRandom());
+
+        assertThat(sample).hasSize(50);
+        assertThat(Arrays.stream(sample).distinct().count()).isEqualTo(50);
+        assertThat(Arrays.stream(sample).allMatch(id -> id >= 1 && id <= 10_000)).isTrue();
+    }
+
+    @Test
+    void sample_whenPoolSmallerThanCount_returnsWholePool() {
+        int[] ids = {5, 6, 7};
+
+        int[] sample = IdSampler.sample(ids, 10, new SplittableRandom());
+
+        assertThat(sample).containsExactlyInAnyOrder(5, 6, 7);
+        assertThat(ids).containsExactly(5, 6, 7);
+    }
+
+    @Test
+    void sample_withSameSeed_isDeterministic() {
+        int[] ids = IntStream.rangeClosed(1, 1_000).toArray();
+
+        assertThat(IdSampler.sample(ids, 20, new SplittableRandom(7)))
+                .containsExactly(IdSampler.sample(ids, 20, new SplittableRandom(7)));
+    }
+
+    @Test
+    void sample_isRoughlyUniform() {
+        int[] ids = IntStream.range(0, 10).toArray();
+        int[] counts = new int[10];
+        SplittableRandom random = new SplittableRandom(1);
+
+        for (int round = 0; round < 20_000; round++) {
+            for (int id : IdSampler.sample(ids, 3, random)) {
+                counts[id]++;
+            }
+        }
+
+        assertThat(Arrays.stream(counts).allMatch(count -> count > 5_400 && count < 6_600)).isTrue();
+    }
+}
@@ -0,0 +1,89 @@
+package com.maxwell.questionservice.service;
+
+import com.maxwell.questionservice.dao.QuestionDao;
+import com.maxwell.questionservice.model.Question;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuestionExportServiceTest {
+
+    @Mock
+    private QuestionDao questionDao;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private QuestionExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new QuestionExportService();
+        exportService.questionDao = questionDao;
+        exportService.entityManager = entityManager;
+        exportService.transactionManager = transactionManager;
+        exportService.objectMapper = JsonMapper.builder().build();
+    }
+
+    @Test
+    void streamAllQuestions_writesOneJsonObjectPerLineAndDetachesRows() throws Exception {
+        Question first = question(1, "Java");
+        Question second = question(2, "SQL");
+        AtomicBoolean closed = new AtomicBoolean();
+        when(questionDao.streamAllByOrderByIdAsc())
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+
+        ResponseEntity<StreamingResponseBody> response = exportService.streamAllQuestions();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"id\":1").contains("\"category\":\"Java\"");
+        assertThat(lines[1]).contains("\"id\":2");
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        verify(transactionManager).commit(any());
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void streamQuestionsByCategory_readsCategoryCursor() throws Exception {
+        when(questionDao.streamByCategoryOrderByIdAsc("Java")).thenReturn(Stream.of(question(1, "Java")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.streamQuestionsByCategory("Java").getBody().writeTo(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("\n").contains("\"category\":\"Java\"");
+        verify(questionDao, never()).streamAllByOrderByIdAsc();
+    }
+
+    private static Question question(int id, String category) {
+        Question question = new Question();
+        question.setId(id);
+        question.setQuestionTitle("Question " + id);
+        question.setCategory(category);
+        return question;
+    }
+}
@@ -0,0 +1,164 @@
+package com.maxwell.questionservice.service;
+
+import com.maxwell.commons.cache.ResponseBodyCache;
+import com.maxwell.questionservice.dao.QuestionBatchDao;
+import com.maxwell.questionservice.model.BulkImportResult;
+import com.maxwell.questionservice.model.Question;
+import com.maxwell.questionservice.sampling.CategoryIdIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuestionImportServiceTest {
+
+    private static final String VALID_JSON = "{\"questionTitle\":\"Q%d\",\"option1\":\"a\",\"option2\":\"b\"," +
+            "\"option3\":\"c\",\"option4\":\"d\",\"rightAnswer\":\"a\",\"difficultylevel\":\"Easy\",\"category\":\"Java\"}";
+
+    @Mock
+    private QuestionBatchDao questionBatchDao;
+
+    @Mock
+    private CategoryIdIndex categoryIdIndex;
+
+    @Mock
+    private ResponseBodyCache responseBodyCache;
+
+    private QuestionImportService importService;
+
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        importService = new QuestionImportService();
+        importService.questionBatchDao = questionBatchDao;
+        importService.categoryIdIndex = categoryIdIndex;
+        importService.responseBodyCache = responseBodyCache;
+        importService.objectMapper = JsonMapper.builder().build();
+        importService.batchSize = 2;
+        lenient().doAnswer(invocation -> {
+            List<Question> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            return null;
+        }).when(questionBatchDao).insertAll(anyList());
+    }
+
+    @Test
+    void importQuestions_jsonArray_insertsInConfiguredBatches() {
+        String body = "[" + VALID_JSON.formatted(1) + "," + VALID_JSON.formatted(2) + "," + VALID_JSON.formatted(3) + "]";
+
+        ResponseEntity<BulkImportResult> response = importService.importQuestions(stream(body), MediaType.APPLICATION_JSON);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody().getReceived()).isEqualTo(3);
+        assertThat(response.getBody().getImported()).isEqualTo(3);
+        assertThat(response.getBody().getErrors()).isEmpty();
+        assertThat(batchSizes).containsExactly(2, 1);
+        verify(categoryIdIndex).invalidate("Java");
+    }
+
+    @Test
+    void importQuestions_ndjson_reportsInvalidRowsAndKeepsValidOnes() {
+        String body = VALID_JSON.formatted(1) + "\n" +
+                "{not json}\n" +
+                "\n" +
+                "{\"questionTitle\":\"Q\",\"option1\":\"a\",\"option2\":\"b\",\"option3\":\"c\",\"option4\":\"d\"," +
+                "\"rightAnswer\":\"z\",\"category\":\"Java\"}\n";
+
+        BulkImportResult result = importService.importQuestions(stream(body), MediaType.APPLICATION_NDJSON).getBody();
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting("row").containsExactly(2L, 4L);
+        assertThat(result.getErrors().get(1).getMessage()).contains("rightAnswer");
+    }
+
+    @Test
+    void importQuestions_csv_mapsColumnsByHeader() {
+        String body = "category,questionTitle,option1,option2,option3,option4,rightAnswer\n" +
+                "SQL,\"Which clause filters rows, after grouping?\",WHERE,HAVING,ORDER BY,LIMIT,HAVING\n" +
+                "SQL,Missing answer,a,b,c,d,\n";
+        List<Question> inserted = new ArrayList<>();
+        doAnswer(invocation -> inserted.addAll(invocation.getArgument(0))).when(questionBatchDao).insertAll(anyList());
+
+        BulkImportResult result = importService.importQuestions(stream(body), QuestionImportService.TEXT_CSV).getBody();
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting("row").containsExactly(3L);
+        assertThat(inserted.get(0).getQuestionTitle()).isEqualTo("Which clause filters rows, after grouping?");
+        assertThat(inserted.get(0).getCategory()).isEqualTo("SQL");
+    }
+
+    @Test
+    void importQuestions_csv_reportsFileLineNumbersAcrossBlankLines() {
+        String body = "category,questionTitle,option1,option2,option3,option4,rightAnswer\n" +
+                "\n" +
+                "SQL,Valid,a,b,c,d,a\n" +
+                "   \n" +
+                "\n" +
+                "SQL,Missing answer,a,b,c,d,\n";
+
+        BulkImportResult result = importService.importQuestions(stream(body), QuestionImportService.TEXT_CSV).getBody();
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting("row").containsExactly(6L);
+    }
+
+    @Test
+    void importQuestions_csvWithoutRequiredColumns_isRejected() {
+        ResponseEntity<BulkImportResult> response = importService.importQuestions(
+                stream("questionTitle,option1\nQ,a\n"), QuestionImportService.TEXT_CSV);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().getErrors().get(0).getMessage()).contains("missing columns");
+        verifyNoInteractions(questionBatchDao);
+    }
+
+    @Test
+    void importQuestions_whenBatchInsertFails_reportsEveryRowOfTheBatch() {
+        doThrow(new RuntimeException("duplicate key")).when(questionBatchDao).insertAll(anyList());
+        String body = "[" + VALID_JSON.formatted(1) + "," + VALID_JSON.formatted(2) + "]";
+
+        ResponseEntity<BulkImportResult> response = importService.importQuestions(stream(body), MediaType.APPLICATION_JSON);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().getErrors()).extracting("row").containsExactly(1L, 2L);
+        verify(categoryIdIndex, never()).invalidate(any());
+    }
+
+    @Test
+    void importQuestions_truncatedJsonArray_keepsRowsReadSoFar() {
+        String body = "[" + VALID_JSON.formatted(1) + ", {\"questionTitle\": ";
+
+        BulkImportResult result = importService.importQuestions(stream(body), MediaType.APPLICATION_JSON).getBody();
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).hasSize(1);
+        assertThat(result.getErrors().get(0).getRow()).isEqualTo(2L);
+        assertThat(result.getErrors().get(0).getMessage()).startsWith("Import aborted");
+    }
+
+    @Test
+    void parseLine_handlesQuotedFieldsAndEscapedQuotes() {
+        assertThat(CsvQuestionReader.parseLine("a,\"b,c\",\"say \"\"hi\"\"\",")).containsExactly("a", "b,c", "say \"hi\"", "");
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,20 +1,31 @@
 package com.maxwell.questionservice.service;
 
+import com.maxwell.commons.cache.ResponseBodyCache;
+import com.maxwell.questionservice.cache.AnswerKeyCache;
 import com.maxwell.questionservice.dao.QuestionDao;
+import com.maxwell.questionservice.model.AnswerKey;
+import com.maxwell.questionservice.model.AnswerSheet;
+import com.maxwell.questionservice.model.AnswerSheetResult;
 import com.maxwell.questionservice.model.Question;
 import com.maxwell.questionservice.model.QuestionWrapper;
 import com.maxwell.questionservice.model.Response;
+import com.maxwell.questionservice.sampling.CategoryIdIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -26,6 +37,15 @@ class QuestionServiceTest {
     @Mock
     private QuestionDao questionDao;
 
+    @Mock
+    private CategoryIdIndex categoryIdIndex;
+
+    @Mock
+    private ResponseBodyCache responseBodyCache;
+
+    @Spy
+    private AnswerKeyCache answerKeyCache = new AnswerKeyCache(16);
+
     @InjectMocks
     private QuestionService questionService;
 
@@ -86,6 +106,45 @@ class QuestionServiceTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @Test
+    void getQuestionsPage_whenPageIsFull_returnsNextCursor() {
+        when(questionDao.findByIdGreaterThanOrderByIdAsc(0, Limit.of(1))).thenReturn(List.of(question));
+
+        ResponseEntity<List<Question>> response = questionService.getQuestionsPage(null, null, 1);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(question);
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("1");
+    }
+
+    @Test
+    void getQuestionsPage_onLastPage_omitsNextCursor() {
+        when(questionDao.findByCategoryAndIdGreaterThanOrderByIdAsc("Java", 0, Limit.of(QuestionService.DEFAULT_PAGE_SIZE)))
+                .thenReturn(List.of(question));
+
+        ResponseEntity<List<Question>> response = questionService.getQuestionsPage("Java", 0, null);
+
+        assertThat(response.getBody()).containsExactly(question);
+        assertThat(response.getHeaders().containsHeader("X-Next-Cursor")).isFalse();
+    }
+
+    @Test
+    void getQuestionsPage_capsPageSize() {
+        when(questionDao.findByIdGreaterThanOrderByIdAsc(5, Limit.of(QuestionService.MAX_PAGE_SIZE))).thenReturn(List.of());
+
+        ResponseEntity<List<Question>> response = questionService.getQuestionsPage(null, 5, 1_000_000);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void getQuestionsPage_withNonPositiveSize_returnsBadRequest() {
+        ResponseEntity<List<Question>> response = questionService.getQuestionsPage(null, null, 0);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(questionDao);
+    }
+
     @Test
     void addQuestion_savesAndReturnsCreated() {
         when(questionDao.save(question)).thenReturn(question);
@@ -95,6 +154,9 @@ class QuestionServiceTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         assertThat(response.getBody()).isEqualTo("Question added successfully");
         verify(questionDao).save(question);
+        assertThat(answerKeyCache.get(1)).isEqualTo("A language");
+        verify(categoryIdIndex).onQuestionAdded(question);
+        verify(responseBodyCache).invalidateAll();
     }
 
     @Test
@@ -109,27 +171,101 @@ class QuestionServiceTest {
 
     @Test
     void getQuestionsForQuiz_returnsRandomIds() {
-        when(questionDao.findRandomQuestionsByCategory("Java", 2)).thenReturn(List.of(1, 2));
+        when(categoryIdIndex.idsFor("Java")).thenReturn(new int[]{1, 2});
 
-        ResponseEntity<List<Integer>> response = questionService.getQuestionsForQuiz("Java", 2);
+        ResponseEntity<List<Integer>> response = questionService.getQuestionsForQuiz("Java", 2, null, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).containsExactlyInAnyOrder(1, 2);
     }
 
+    @Test
+    void getQuestionsForQuiz_returnsDistinctIdsFromCategory() {
+        int[] ids = IntStream.rangeClosed(1, 500).toArray();
+        when(categoryIdIndex.idsFor("Java")).thenReturn(ids);
+
+        ResponseEntity<List<Integer>> response = questionService.getQuestionsForQuiz("Java", 20, null, null);
+
+        assertThat(response.getBody()).hasSize(20).doesNotHaveDuplicates().allMatch(id -> id >= 1 && id <= 500);
+    }
+
+    @Test
+    void getQuestionsForQuiz_withHugeCount_returnsWholeCategory() {
+        when(categoryIdIndex.idsFor("Java")).thenReturn(new int[]{1, 2, 3});
+        when(categoryIdIndex.idsFor("Java", "Easy")).thenReturn(new int[]{1, 2});
+
+        ResponseEntity<List<Integer>> response = questionService.getQuestionsForQuiz("Java", Integer.MAX_VALUE, null, null);
+        List<Integer> mixed = questionService.getQuestionsForQuiz("Java", Integer.MAX_VALUE, null, "Easy:1").getBody();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactlyInAnyOrder(1, 2, 3);
+        assertThat(mixed).containsExactlyInAnyOrder(1, 2);
+    }
+
+    @Test
+    void getQuestionsForQuiz_withSeed_isReproducible() {
+        when(categoryIdIndex.idsFor("Java")).thenReturn(IntStream.rangeClosed(1, 500).toArray());
+
+        List<Integer> first = questionService.getQuestionsForQuiz("Java", 10, 42L, null).getBody();
+        List<Integer> second = questionService.getQuestionsForQuiz("Java", 10, 42L, null).getBody();
+
+        assertThat(first).isEqualTo(second);
+    }
+
     @Test
     void getQuestionsForQuiz_whenNoneFound_returnsNotFound() {
-        when(questionDao.findRandomQuestionsByCategory("Unknown", 5)).thenReturn(List.of());
+        when(categoryIdIndex.idsFor("Unknown")).thenReturn(new int[0]);
 
-        ResponseEntity<List<Integer>> response = questionService.getQuestionsForQuiz("Unknown", 5);
+        ResponseEntity<List<Integer>> response = questionService.getQuestionsForQuiz("Unknown", 5, null, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         assertThat(response.getBody()).isEmpty();
     }
 
+    @Test
+    void getQuestionsForQuiz_withDifficultyMix_drawsFromEachBucket() {
+        when(categoryIdIndex.idsFor("Java", "Easy")).thenReturn(IntStream.rangeClosed(1, 100).toArray());
+        when(categoryIdIndex.idsFor("Java", "Medium")).thenReturn(IntStream.rangeClosed(101, 200).toArray());
+        when(categoryIdIndex.idsFor("Java", "Hard")).thenReturn(IntStream.rangeClosed(201, 300).toArray());
+
+        List<Integer> ids = questionService.getQuestionsForQuiz("Java", 10, 1L, "Easy:40,Medium:40,Hard:20").getBody();
+
+        assertThat(ids).hasSize(10).doesNotHaveDuplicates();
+        assertThat(ids.subList(0, 4)).allMatch(id -> id <= 100);
+        assertThat(ids.subList(4, 8)).allMatch(id -> id > 100 && id <= 200);
+        assertThat(ids.subList(8, 10)).allMatch(id -> id > 200);
+        verify(categoryIdIndex, never()).idsFor("Java");
+    }
+
+    @Test
+    void getQuestionsForQuiz_withDifficultyMix_fillsShortBucketFromOthers() {
+        when(categoryIdIndex.idsFor("Java", "Easy")).thenReturn(IntStream.rangeClosed(1, 100).toArray());
+        when(categoryIdIndex.idsFor("Java", "Hard")).thenReturn(new int[]{201});
+
+        List<Integer> ids = questionService.getQuestionsForQuiz("Java", 10, null, "Easy:50,Hard:50").getBody();
+
+        assertThat(ids).hasSize(10).contains(201).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void getQuestionsForQuiz_withInvalidDifficultyMix_returnsBadRequest() {
+        ResponseEntity<List<Integer>> response = questionService.getQuestionsForQuiz("Java", 5, null, "Easy:abc");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(categoryIdIndex);
+    }
+
+    @Test
+    void getQuestionsForQuiz_withNonPositiveCount_returnsBadRequest() {
+        ResponseEntity<List<Integer>> response = questionService.getQuestionsForQuiz("Java", 0, null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(categoryIdIndex);
+    }
+
     @Test
     void getQuestionsFromId_returnsWrappers() {
-        when(questionDao.findById(1)).thenReturn(Optional.of(question));
+        when(questionDao.findWrappersByIdIn(List.of(1))).thenReturn(List.of(wrapperOf(question)));
 
         ResponseEntity<List<QuestionWrapper>> response = questionService.getQuestionsFromId(List.of(1));
 
@@ -139,11 +275,38 @@ class QuestionServiceTest {
         assertThat(wrapper.getId()).isEqualTo(1);
         assertThat(wrapper.getQuestionTitle()).isEqualTo("What is Java?");
         assertThat(wrapper.getOption1()).isEqualTo("A language");
+        verify(questionDao, never()).findById(any());
+    }
+
+    @Test
+    void getQuestionsFromId_preservesRequestOrderAndDuplicates() {
+        QuestionWrapper first = new QuestionWrapper(1, "Q1", "a", "b", "c", "d");
+        QuestionWrapper second = new QuestionWrapper(2, "Q2", "a", "b", "c", "d");
+        when(questionDao.findWrappersByIdIn(List.of(2, 1))).thenReturn(List.of(first, second));
+
+        ResponseEntity<List<QuestionWrapper>> response = questionService.getQuestionsFromId(List.of(2, 1, 2));
+
+        assertThat(response.getBody()).extracting(QuestionWrapper::getId).containsExactly(2, 1, 2);
+        verify(questionDao, times(1)).findWrappersByIdIn(anyCollection());
+    }
+
+    @Test
+    void getQuestionsFromId_splitsLargeRequestsIntoChunks() {
+        List<Integer> ids = IntStream.rangeClosed(1, QuestionService.ID_CHUNK_SIZE + 1).boxed().toList();
+        when(questionDao.findWrappersByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Integer> chunk = invocation.getArgument(0);
+            return chunk.stream().map(id -> new QuestionWrapper(id, "Q" + id, "a", "b", "c", "d")).toList();
+        });
+
+        ResponseEntity<List<QuestionWrapper>> response = questionService.getQuestionsFromId(ids);
+
+        assertThat(response.getBody()).extracting(QuestionWrapper::getId).containsExactlyElementsOf(ids);
+        verify(questionDao, times(2)).findWrappersByIdIn(anyCollection());
     }
 
     @Test
     void getQuestionsFromId_whenQuestionMissing_throwsException() {
-        when(questionDao.findById(99)).thenReturn(Optional.empty());
+        when(questionDao.findWrappersByIdIn(List.of(99))).thenReturn(List.of());
 
         assertThatThrownBy(() -> questionService.getQuestionsFromId(List.of(99)))
                 .isInstanceOf(RuntimeException.class)
@@ -151,16 +314,20 @@ class QuestionServiceTest {
     }
 
     @Test
-    void getScore_countsCorrectAnswers() {
-        Response correctResponse = new Response();
-        correctResponse.setId(1);
-        correctResponse.setResponse("A language");
+    void getQuestionsFromId_whenSeveralMissing_listsEveryMissingId() {
+        when(questionDao.findWrappersByIdIn(List.of(1, 98, 99))).thenReturn(List.of(wrapperOf(question)));
 
-        Response wrongResponse = new Response();
-        wrongResponse.setId(1);
-        wrongResponse.setResponse("A coffee");
+        assertThatThrownBy(() -> questionService.getQuestionsFromId(List.of(1, 98, 99)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("[98, 99]");
+    }
+
+    @Test
+    void getScore_countsCorrectAnswers() {
+        Response correctResponse = response(1, "A language");
+        Response wrongResponse = response(1, "A coffee");
 
-        when(questionDao.findById(1)).thenReturn(Optional.of(question));
+        when(questionDao.findAnswerKeysByIdIn(List.of(1))).thenReturn(List.of(new AnswerKey(1, "A language")));
 
         ResponseEntity<Integer> correctResult = questionService.getScore(List.of(correctResponse));
         assertThat(correctResult.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -169,6 +336,104 @@ class QuestionServiceTest {
         ResponseEntity<Integer> wrongResult = questionService.getScore(List.of(wrongResponse));
         assertThat(wrongResult.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(wrongResult.getBody()).isEqualTo(0);
+        verify(questionDao, never()).findById(any());
+    }
+
+    @Test
+    void getScore_fetchesAllAnswerKeysInOneQuery() {
+        when(questionDao.findAnswerKeysByIdIn(List.of(1, 2, 3))).thenReturn(List.of(
+                new AnswerKey(1, "a"), new AnswerKey(2, "b"), new AnswerKey(3, "c")));
+
+        ResponseEntity<Integer> result = questionService.getScore(List.of(
+                response(1, "a"), response(2, "x"), response(3, "c")));
+
+        assertThat(result.getBody()).isEqualTo(2);
+        verify(questionDao, times(1)).findAnswerKeysByIdIn(anyCollection());
+    }
+
+    @Test
+    void getScore_withCachedAnswerKeys_skipsDatabase() {
+        answerKeyCache.put(1, "A language");
+
+        ResponseEntity<Integer> result = questionService.getScore(List.of(response(1, "A language")));
+
+        assertThat(result.getBody()).isEqualTo(1);
+        verifyNoInteractions(questionDao);
+    }
+
+    @Test
+    void getScore_queriesOnlyUncachedIdsAndCachesThem() {
+        answerKeyCache.put(1, "a");
+        when(questionDao.findAnswerKeysByIdIn(List.of(2))).thenReturn(List.of(new AnswerKey(2, "b")));
+
+        ResponseEntity<Integer> result = questionService.getScore(List.of(response(1, "a"), response(2, "b")));
+
+        assertThat(result.getBody()).isEqualTo(2);
+        assertThat(answerKeyCache.get(2)).isEqualTo("b");
+    }
+
+    @Test
+    void warmAnswerKeyCache_loadsAnswerKeysFromDao() {
+        when(questionDao.findAnswerKeys(any())).thenReturn(List.of(new AnswerKey(1, "a"), new AnswerKey(2, "b")));
+
+        questionService.warmAnswerKeyCache();
+
+        assertThat(answerKeyCache.size()).isEqualTo(2);
+        assertThat(answerKeyCache.get(2)).isEqualTo("b");
+    }
+
+    @Test
+    void getScore_withDuplicateIds_scoresFirstResponseOnly() {
+        when(questionDao.findAnswerKeysByIdIn(List.of(1))).thenReturn(List.of(new AnswerKey(1, "A language")));
+
+        ResponseEntity<Integer> repeatedCorrect = questionService.getScore(List.of(
+                response(1, "A language"), response(1, "A language")));
+        ResponseEntity<Integer> wrongThenCorrect = questionService.getScore(List.of(
+                response(1, "A coffee"), response(1, "A language")));
+
+        assertThat(repeatedCorrect.getBody()).isEqualTo(1);
+        assertThat(wrongThenCorrect.getBody()).isEqualTo(0);
+    }
+
+    @Test
+    void gradeAnswerSheet_marksEachPositionAndScores() {
+        answerKeyCache.put(1, "a");
+        when(questionDao.findAnswerKeysByIdIn(List.of(2, 3))).thenReturn(List.of(
+                new AnswerKey(2, "b"), new AnswerKey(3, "c")));
+
+        ResponseEntity<AnswerSheetResult> result = questionService.gradeAnswerSheet(
+                new AnswerSheet(new int[]{1, 2, 3, 1}, Arrays.asList("a", "x", "c", "a")));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody().getScore()).isEqualTo(2);
+        assertThat(result.getBody().getCorrect()).containsExactly(true, false, true, false);
+    }
+
+    @Test
+    void gradeAnswerSheet_withMismatchedLengths_returnsBadRequest() {
+        ResponseEntity<AnswerSheetResult> result = questionService.gradeAnswerSheet(
+                new AnswerSheet(new int[]{1, 2}, List.of("a")));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(questionDao);
+    }
+
+    @Test
+    void gradeAnswerSheet_whenQuestionMissing_throwsException() {
+        when(questionDao.findAnswerKeysByIdIn(List.of(99))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> questionService.gradeAnswerSheet(new AnswerSheet(new int[]{99}, List.of("a"))))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("99");
+    }
+
+    @Test
+    void getScore_withNullResponse_countsAsWrong() {
+        when(questionDao.findAnswerKeysByIdIn(List.of(1))).thenReturn(List.of(new AnswerKey(1, "A language")));
+
+        ResponseEntity<Integer> result = questionService.getScore(List.of(response(1, null)));
+
+        assertThat(result.getBody()).isEqualTo(0);
     }
 
     @Test
@@ -177,18 +442,36 @@ class QuestionServiceTest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(0);
+        verifyNoInteractions(questionDao);
     }
 
     @Test
     void getScore_whenQuestionMissing_throwsException() {
-        Response r = new Response();
-        r.setId(99);
-        r.setResponse("anything");
+        when(questionDao.findAnswerKeysByIdIn(List.of(99))).thenReturn(List.of());
 
-        when(questionDao.findById(99)).thenReturn(Optional.empty());
-
-        assertThatThrownBy(() -> questionService.getScore(List.of(r)))
+        assertThatThrownBy(() -> questionService.getScore(List.of(response(99, "anything"))))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("99");
     }
+
+    @Test
+    void getScore_whenSeveralMissing_listsEveryUnknownId() {
+        when(questionDao.findAnswerKeysByIdIn(List.of(1, 98, 99))).thenReturn(List.of(new AnswerKey(1, "A language")));
+
+        assertThatThrownBy(() -> questionService.getScore(List.of(
+                response(1, "A language"), response(98, "x"), response(99, "y"))))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("[98, 99]");
+    }
+
+    private static Response response(Integer id, String answer) {
+        Response response = new Response();
+        response.setId(id);
+        response.setResponse(answer);
+        return response;
+    }
+
+    private static QuestionWrapper wrapperOf(Question q) {
+        return new QuestionWrapper(q.getId(), q.getQuestionTitle(), q.getOption1(), q.getOption2(), q.getOption3(), q.getOption4());
+    }
 }
@@ -0,0 +1,22 @@
+package com.maxwell.quizservice.cache;
+
+import com.maxwell.commons.cache.ResponseBodyCache;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Publishes size, hits, misses, loads and evictions of the in-memory caches, tagged cache=<name>.
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public MeterBinder quizCacheMetrics(QuizQuestionCache questionCache, QuizDefinitionCache definitionCache,
+                                        ResponseBodyCache responseCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, questionCache.nativeCache(), "quiz-questions");
+            CaffeineCacheMetrics.monitor(registry, definitionCache.nativeCache(), "quiz-definitions");
+            CaffeineCacheMetrics.monitor(registry, responseCache.nativeCache(), "quiz-responses");
+        };
+    }
+}
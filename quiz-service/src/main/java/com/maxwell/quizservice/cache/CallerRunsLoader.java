@@ -0,0 +1,44 @@
+package com.maxwell.quizservice.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Coalesced cache loads that run on the calling thread, outside any cache lock.
+ * <p>
+ * A synchronous Caffeine {@code Cache.get} runs the loader inside {@code ConcurrentHashMap.compute},
+ * whose bin monitor pins a virtual thread to its carrier for the whole Feign or JDBC call. Here the
+ * map only installs a placeholder future; the first caller completes it and later callers park on it.
+ */
+final class CallerRunsLoader {
+
+    private CallerRunsLoader() {
+    }
+
+    static <K, V> V get(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> placeholder = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> placeholder);
+        if (future == placeholder) {
+            try {
+                placeholder.complete(loader.apply(key));
+            } catch (RuntimeException | Error e) {
+                // Caffeine drops entries whose future completes exceptionally, so failures are not cached.
+                placeholder.completeExceptionally(e);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.maxwell.quizservice.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Question ids per quiz id, kept as primitive arrays. Scoring only needs the quiz's id list, so
+ * this avoids both the database read and the question text held by {@link QuizQuestionCache}.
+ */
+@Component
+public class QuizDefinitionCache {
+
+    private final AsyncCache<Integer, int[]> cache;
+
+    public QuizDefinitionCache(@Value("${quiz.definition-cache.max-size:100000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Returns the question ids of the quiz, calling {@code loader} on a miss. The returned array is
+     * shared and must not be modified.
+     */
+    public int[] questionIds(Integer quizId, Function<Integer, List<Integer>> loader) {
+        return CallerRunsLoader.get(cache, quizId, id -> loader.apply(id).stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public void invalidate(Integer quizId) {
+        cache.synchronous().invalidate(quizId);
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    Cache<Integer, int[]> nativeCache() {
+        return cache.synchronous();
+    }
+}
@@ -0,0 +1,95 @@
+package com.maxwell.quizservice.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.maxwell.quizservice.model.QuestionWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Assembled quiz questions per quiz id. Quizzes never change after creation, so entries only
+ * leave the cache when they expire or when the byte budget forces an eviction. Concurrent
+ * misses for the same quiz share a single load.
+ */
+@Component
+public class QuizQuestionCache {
+
+    private final AsyncCache<Integer, List<QuestionWrapper>> cache;
+
+    @Autowired
+    public QuizQuestionCache(@Value("${quiz.question-cache.max-bytes:67108864}") long maxBytes,
+                             @Value("${quiz.question-cache.ttl:1h}") Duration ttl) {
+        this(maxBytes, ttl, Ticker.systemTicker(), null);
+    }
+
+    QuizQuestionCache(long maxBytes, Duration ttl, Ticker ticker, Executor executor) {
+        Caffeine<Integer, List<QuestionWrapper>> builder = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Integer quizId, List<QuestionWrapper> questions) -> estimateBytes(questions))
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats();
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        this.cache = builder.buildAsync();
+    }
+
+    /**
+     * Returns the cached questions for the quiz, calling {@code loader} on a miss. Concurrent
+     * callers for the same quiz wait for the one in-flight load instead of starting their own.
+     */
+    public List<QuestionWrapper> get(Integer quizId, Function<Integer, List<QuestionWrapper>> loader) {
+        return CallerRunsLoader.get(cache, quizId, id -> List.copyOf(loader.apply(id)));
+    }
+
+    public void put(Integer quizId, List<QuestionWrapper> questions) {
+        cache.synchronous().put(quizId, List.copyOf(questions));
+    }
+
+    public void invalidate(Integer quizId) {
+        cache.synchronous().invalidate(quizId);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public QuizQuestionCacheStats stats() {
+        Cache<Integer, List<QuestionWrapper>> view = cache.synchronous();
+        CacheStats stats = view.stats();
+        long weightedSize = view.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        return new QuizQuestionCacheStats(view.estimatedSize(), weightedSize, stats.hitCount(), stats.missCount(),
+                stats.loadSuccessCount(), stats.loadFailureCount(), stats.evictionCount(), stats.hitRate());
+    }
+
+    Cache<Integer, List<QuestionWrapper>> nativeCache() {
+        return cache.synchronous();
+    }
+
+    // Rough retained size: object headers and references plus two bytes per string character.
+    static int estimateBytes(List<QuestionWrapper> questions) {
+        long bytes = 64;
+        for (QuestionWrapper question : questions) {
+            bytes += 48 + stringBytes(question.getQuestionTitle()) + stringBytes(question.getOption1())
+                    + stringBytes(question.getOption2()) + stringBytes(question.getOption3())
+                    + stringBytes(question.getOption4());
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+}
@@ -0,0 +1,18 @@
+package com.maxwell.quizservice.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class QuizQuestionCacheStats {
+
+    private long entries;
+    private long weightedBytes;
+    private long hits;
+    private long misses;
+    private long loadSuccesses;
+    private long loadFailures;
+    private long evictions;
+    private double hitRatio;
+}
@@ -0,0 +1,23 @@
+package com.maxwell.quizservice.cache;
+
+import com.maxwell.commons.cache.ResponseBodyCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+
+// Serialized quiz responses. Quizzes don't change, so entries are only dropped when a snapshot
+// refresh or a question edit brings new question text, when they expire, or when the byte budget is exceeded.
+@Configuration
+public class ResponseCacheConfig {
+
+    @Bean
+    public ResponseBodyCache responseBodyCache(@Value("${quiz.response-cache.max-bytes:33554432}") long maxBytes,
+                                               @Value("${quiz.response-cache.ttl:1h}") Duration ttl,
+                                               @Value("${quiz.response-cache.gzip-min-size:2048}") int gzipMinSize,
+                                               ObjectMapper objectMapper) {
+        return new ResponseBodyCache(maxBytes, ttl, gzipMinSize, objectMapper);
+    }
+}
@@ -0,0 +1,72 @@
+package com.maxwell.quizservice.config;
+
+import com.maxwell.quizservice.feign.QuestionWireFormat;
+import feign.RequestInterceptor;
+import feign.micrometer.DefaultFeignObservationConvention;
+import feign.micrometer.MicrometerObservationCapability;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class QuestionClientConfig {
+
+    // Runs the async client's calls; one virtual thread per in-flight chunk.
+    @Bean(destroyMethod = "close")
+    public ExecutorService questionClientExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    // Each request is resolved through the load balancer, so parallel chunks spread across instances.
+    // Calls block on HttpURLConnection inside virtual threads, which is cheaper here than the
+    // selector-based java.net.http client. Not a default candidate: injected by name only, so the
+    // Eureka client keeps Boot's plain builder instead of sending registry calls through the balancer.
+    // The read timeout never outlasts a chunk's deadline, so a stalled read cannot outlive its chunk.
+    @Bean(defaultCandidate = false)
+    @LoadBalanced
+    public RestClient.Builder questionServiceRestClientBuilder(
+            @Value("${quiz.question-client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${quiz.question-client.read-timeout:3s}") Duration readTimeout,
+            @Value("${quiz.question-client.chunk-timeout:3s}") Duration chunkTimeout,
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout.compareTo(chunkTimeout) > 0 ? chunkTimeout : readTimeout);
+        return RestClient.builder()
+                .requestFactory(requestFactory)
+                .observationRegistry(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+
+    // Times every Feign call per interface method. Published as feign.client.requests because the
+    // RestClient already owns http.client.requests with a different tag set.
+    @Bean
+    public MicrometerObservationCapability feignObservationCapability(ObservationRegistry observationRegistry) {
+        return new MicrometerObservationCapability(observationRegistry, new DefaultFeignObservationConvention() {
+            @Override
+            public String getName() {
+                return "feign.client.requests";
+            }
+        });
+    }
+
+    // Feign bodies stay JSON; only responses are negotiated, which is where the large question lists are.
+    @Bean
+    public RequestInterceptor questionWireFormatInterceptor(
+            @Value("${quiz.question-client.wire-format:json}") QuestionWireFormat wireFormat) {
+        return template -> {
+            if (!template.headers().containsKey(HttpHeaders.ACCEPT)) {
+                template.header(HttpHeaders.ACCEPT, wireFormat.acceptHeader());
+            }
+        };
+    }
+}
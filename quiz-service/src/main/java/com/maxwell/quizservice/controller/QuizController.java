@@ -1,11 +1,13 @@
 package com.maxwell.quizservice.controller;
 
 
-import com.maxwell.quizservice.model.QuestionWrapper;
+import com.maxwell.quizservice.cache.QuizQuestionCacheStats;
 import com.maxwell.quizservice.model.QuizDto;
+import com.maxwell.quizservice.model.QuizResult;
 import com.maxwell.quizservice.model.Response;
 import com.maxwell.quizservice.service.QuizService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,16 +22,33 @@ public class QuizController {
 
     @PostMapping("/create")
     public ResponseEntity<String> createQuiz(@RequestBody QuizDto quizDto) {
-        return quizService.createQuiz(quizDto.getCategoryName(), quizDto.getNumberOfQuestions(), quizDto.getTitle());
+        return quizService.createQuiz(quizDto.getCategoryName(), quizDto.getNumberOfQuestions(), quizDto.getTitle(),
+                quizDto.getDifficultyMix(), quizDto.getSeed());
     }
 
     @GetMapping("/get/{id}")
-    public ResponseEntity<List<QuestionWrapper>> getQuizQuestions(@PathVariable Integer id) {
-        return quizService.getQuizQuestions(id);
+    public ResponseEntity<?> getQuizQuestions(@PathVariable Integer id, @RequestHeader HttpHeaders headers) {
+        return quizService.getQuizQuestions(id, headers);
     }
 
     @PostMapping("/submit/{id}")
     public ResponseEntity<Integer> submitQuiz(@PathVariable Integer id, @RequestBody List<Response> responses) {
         return quizService.calculateResult(id, responses);
     }
+
+    @PostMapping("/submit/{id}/details")
+    public ResponseEntity<QuizResult> submitQuizWithDetails(@PathVariable Integer id, @RequestBody List<Response> responses) {
+        return quizService.calculateDetailedResult(id, responses);
+    }
+
+    // Called after questions are edited so quizzes containing them are re-materialized.
+    @PostMapping("/questionsChanged")
+    public ResponseEntity<List<Integer>> questionsChanged(@RequestBody List<Integer> questionIds) {
+        return quizService.questionsChanged(questionIds);
+    }
+
+    @GetMapping("/questionCache/stats")
+    public ResponseEntity<QuizQuestionCacheStats> getQuestionCacheStats() {
+        return quizService.getQuestionCacheStats();
+    }
 }
@@ -0,0 +1,87 @@
+package com.maxwell.quizservice.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores an ordered list of question ids in a single binary column.
+ * <p>
+ * Layout: a format version byte, the element count as an unsigned varint, then each id as the
+ * zigzag-encoded difference from the previous id in LEB128 varint form. Ids within a category are
+ * usually close together, so most entries take one or two bytes.
+ */
+@Converter
+public class QuestionIdListConverter implements AttributeConverter<List<Integer>, byte[]> {
+
+    static final byte FORMAT_VERSION = 1;
+
+    @Override
+    public byte[] convertToDatabaseColumn(List<Integer> ids) {
+        if (ids == null) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + ids.size() * 2);
+        out.write(FORMAT_VERSION);
+        writeVarint(out, ids.size());
+        int previous = 0;
+        for (Integer id : ids) {
+            if (id == null) {
+                throw new IllegalArgumentException("Question id list must not contain null");
+            }
+            int delta = id - previous;
+            writeVarint(out, (delta << 1) ^ (delta >> 31));
+            previous = id;
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public List<Integer> convertToEntityAttribute(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0 || data[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported question id list format");
+        }
+        int[] position = {1};
+        int count = readVarint(data, position);
+        List<Integer> ids = new ArrayList<>(count);
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            int zigzag = readVarint(data, position);
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            ids.add(previous);
+        }
+        if (position[0] != data.length) {
+            throw new IllegalArgumentException("Trailing bytes in question id list");
+        }
+        return ids;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] data, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (position[0] >= data.length) {
+                throw new IllegalArgumentException("Truncated question id list");
+            }
+            byte b = data[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in question id list");
+    }
+}
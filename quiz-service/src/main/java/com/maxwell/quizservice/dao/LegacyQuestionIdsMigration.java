@@ -0,0 +1,133 @@
+package com.maxwell.quizservice.dao;
+
+import com.maxwell.quizservice.converter.QuestionIdListConverter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves question ids from the old {@code quiz_question_ids} join table (the former
+ * {@code @ElementCollection} mapping) into the packed {@code quiz.question_ids} column.
+ * <p>
+ * Quizzes are migrated in id order, one transaction per batch, and their join table rows are
+ * deleted as they are copied, so the migration can be interrupted and resumed on the next start.
+ * Once the join table is empty it can be dropped.
+ * <p>
+ * It runs once all beans are created, before the web server and discovery registration start, so
+ * no request reads a quiz that has not been migrated yet. Each batch locks its quiz rows, so
+ * instances starting together never migrate the same quiz twice.
+ */
+@Slf4j
+@Component
+public class LegacyQuestionIdsMigration implements SmartInitializingSingleton {
+
+    static final String LEGACY_TABLE = "quiz_question_ids";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final QuestionIdListConverter converter = new QuestionIdListConverter();
+
+    @Value("${quiz.question-ids.migration.enabled:true}")
+    boolean enabled = true;
+
+    @Value("${quiz.question-ids.migration.batch-size:500}")
+    int batchSize = 500;
+
+    @Autowired
+    public LegacyQuestionIdsMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        // Failing startup beats serving quizzes whose question ids are still in the join table.
+        try {
+            int migrated = migrate();
+            if (migrated > 0) {
+                log.info("Migrated question ids of {} quizzes out of {}", migrated, LEGACY_TABLE);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Failed to migrate question ids out of " + LEGACY_TABLE, e);
+        }
+    }
+
+    public int migrate() {
+        if (!legacyTableExists()) {
+            return 0;
+        }
+        int migrated = 0;
+        int afterId = 0;
+        while (true) {
+            List<Integer> quizIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM quiz WHERE question_ids IS NULL AND id > ? ORDER BY id LIMIT ?",
+                    Integer.class, afterId, batchSize);
+            if (quizIds.isEmpty()) {
+                return migrated;
+            }
+            migrated += transactionTemplate.execute(status -> migrateBatch(quizIds));
+            afterId = quizIds.get(quizIds.size() - 1);
+        }
+    }
+
+    // Returns how many of the quizzes were migrated here; ones another instance got to first are skipped.
+    int migrateBatch(List<Integer> candidateIds) {
+        // Waits for a concurrent batch over the same quizzes to commit, then sees its writes.
+        List<Integer> quizIds = jdbcTemplate.queryForList("SELECT id FROM quiz WHERE question_ids IS NULL AND id IN ("
+                + placeholders(candidateIds.size()) + ") ORDER BY id FOR UPDATE", Integer.class, candidateIds.toArray());
+        if (quizIds.isEmpty()) {
+            return 0;
+        }
+        String placeholders = placeholders(quizIds.size());
+        Map<Integer, List<Integer>> idsByQuiz = new LinkedHashMap<>();
+        quizIds.forEach(quizId -> idsByQuiz.put(quizId, new ArrayList<>()));
+        // The join table has no order column, so the original order is not recoverable and a plain scan
+        // guarantees none; order by the table's columns so the result is at least deterministic.
+        jdbcTemplate.query("SELECT quiz_id, question_ids FROM " + LEGACY_TABLE + " WHERE quiz_id IN (" + placeholders
+                        + ") ORDER BY quiz_id, question_ids",
+                rs -> {
+                    idsByQuiz.get(rs.getInt(1)).add(rs.getInt(2));
+                },
+                quizIds.toArray());
+
+        List<Object[]> updates = new ArrayList<>(idsByQuiz.size());
+        idsByQuiz.forEach((quizId, ids) -> updates.add(new Object[]{converter.convertToDatabaseColumn(ids), quizId}));
+        jdbcTemplate.batchUpdate("UPDATE quiz SET question_ids = ? WHERE id = ? AND question_ids IS NULL", updates);
+        jdbcTemplate.update("DELETE FROM " + LEGACY_TABLE + " WHERE quiz_id IN (" + placeholders + ")", quizIds.toArray());
+        return quizIds.size();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private boolean legacyTableExists() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : List.of(LEGACY_TABLE, LEGACY_TABLE.toUpperCase())) {
+                try (ResultSet tables = metaData.getTables(null, null, name, new String[]{"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
@@ -0,0 +1,19 @@
+package com.maxwell.quizservice.dao;
+
+import com.maxwell.quizservice.model.QuizDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface QuizDocumentDao extends JpaRepository<QuizDocument, Integer> {
+
+    @Query("select distinct d.quizId from QuizDocument d join d.questionIds q where q in :questionIds")
+    List<Integer> findQuizIdsByQuestionIds(Collection<Integer> questionIds);
+
+    @Modifying
+    @Query("update QuizDocument d set d.stale = true, d.revision = d.revision + 1 where d.quizId in :quizIds")
+    int markStale(Collection<Integer> quizIds);
+}
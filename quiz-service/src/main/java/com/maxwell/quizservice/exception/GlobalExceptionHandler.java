@@ -10,6 +10,12 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(QuestionServiceUnavailableException.class)
+    public ResponseEntity<String> handleUnavailable(QuestionServiceUnavailableException ex) {
+        log.warn("Question service unavailable: {}", ex.getMessage());
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handleNotFound(RuntimeException ex) {
         log.warn("Resource not found: {}", ex.getMessage());
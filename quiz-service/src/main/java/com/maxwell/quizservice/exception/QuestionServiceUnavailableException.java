@@ -0,0 +1,9 @@
+package com.maxwell.quizservice.exception;
+
+// question-service could not be reached in time, or calls to it are being shed; mapped to 503.
+public class QuestionServiceUnavailableException extends RuntimeException {
+
+    public QuestionServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,210 @@
+package com.maxwell.quizservice.feign;
+
+import com.maxwell.quizservice.model.AnswerSheet;
+import com.maxwell.quizservice.model.AnswerSheetResult;
+import com.maxwell.quizservice.model.QuestionWrapper;
+import com.maxwell.quizservice.resilience.QuestionServiceResilience;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of {@link QuizInterface}. Large id lists are split into chunks that are
+ * sent in parallel; with a load-balanced {@code RestClient} each chunk may land on a different
+ * question-service instance. Results are merged back in request order.
+ * <p>
+ * Every chunk has its own deadline and runs through {@link QuestionServiceResilience}: retries go to
+ * the next instance and question chunks are hedged, so one slow instance delays only its chunk
+ * instead of the whole request. A chunk that misses its deadline is interrupted, which aborts the
+ * blocking socket read of its virtual thread, and only then fails, so no timed-out request stays in
+ * flight.
+ */
+@Component
+public class AsyncQuizInterface {
+
+    private static final ParameterizedTypeReference<List<Integer>> ID_LIST = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<List<QuestionWrapper>> QUESTION_LIST = new ParameterizedTypeReference<>() {
+    };
+    private static final ContextSnapshotFactory CONTEXT = ContextSnapshotFactory.builder().build();
+
+    private final RestClient restClient;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final Duration chunkTimeout;
+    private final QuestionServiceResilience resilience;
+    private final QuestionWireFormat wireFormat;
+
+    @Autowired
+    public AsyncQuizInterface(@Qualifier("questionServiceRestClientBuilder") RestClient.Builder restClientBuilder,
+                              @Qualifier("questionClientExecutor") ExecutorService executor,
+                              @Value("${quiz.question-client.base-url:http://QUESTION-SERVICE}") String baseUrl,
+                              @Value("${quiz.question-client.chunk-size:50}") int chunkSize,
+                              @Value("${quiz.question-client.chunk-timeout:3s}") Duration chunkTimeout,
+                              @Value("${quiz.question-client.wire-format:json}") QuestionWireFormat wireFormat,
+                              QuestionServiceResilience resilience) {
+        this(restClientBuilder.baseUrl(baseUrl).build(), executor, chunkSize, chunkTimeout, wireFormat, resilience);
+    }
+
+    AsyncQuizInterface(RestClient restClient, ExecutorService executor, int chunkSize, Duration chunkTimeout,
+                       QuestionWireFormat wireFormat, QuestionServiceResilience resilience) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.restClient = restClient;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.chunkTimeout = chunkTimeout;
+        this.wireFormat = wireFormat;
+        this.resilience = resilience;
+    }
+
+    public CompletableFuture<List<Integer>> getQuestionsForQuiz(String categoryName, int numberOfQuestions,
+                                                                Long seed, String difficultyMix) {
+        return resilience.callAsync(QuestionServiceResilience.GENERATE, attempt(() -> restClient.get()
+                .uri(uri -> uri.path("/question/generate")
+                        .queryParam("categoryName", categoryName)
+                        .queryParam("numberOfQuestions", numberOfQuestions)
+                        .queryParamIfPresent("seed", Optional.ofNullable(seed))
+                        .queryParamIfPresent("difficultyMix", Optional.ofNullable(difficultyMix))
+                        .build())
+                .accept(wireFormat.accept())
+                .retrieve()
+                .body(ID_LIST)));
+    }
+
+    /**
+     * Fetches the questions in chunks of {@code chunkSize} ids in parallel and returns them in the
+     * order of {@code questionIds}.
+     */
+    public CompletableFuture<List<QuestionWrapper>> getQuestionsFromId(List<Integer> questionIds) {
+        List<List<Integer>> chunks = chunk(questionIds);
+        List<CompletableFuture<List<QuestionWrapper>>> futures = new ArrayList<>(chunks.size());
+        for (List<Integer> chunk : chunks) {
+            futures.add(resilience.callHedged(QuestionServiceResilience.GET_QUESTIONS, attempt(() -> restClient.post()
+                    .uri("/question/getQuestions")
+                    .contentType(wireFormat.contentType())
+                    .accept(wireFormat.accept())
+                    .body(chunk)
+                    .retrieve()
+                    .body(QUESTION_LIST))));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            List<QuestionWrapper> questions = new ArrayList<>(questionIds.size());
+            for (int i = 0; i < futures.size(); i++) {
+                List<QuestionWrapper> part = futures.get(i).join();
+                if (part == null || part.size() != chunks.get(i).size()) {
+                    throw new IllegalStateException("Question service returned an incomplete chunk");
+                }
+                questions.addAll(part);
+            }
+            return questions;
+        });
+    }
+
+    /**
+     * Grades the sheet in parallel chunks and merges per-position correctness and the score. The
+     * sheet must not repeat a question id, since each chunk is graded independently.
+     */
+    public CompletableFuture<AnswerSheetResult> gradeAnswerSheet(AnswerSheet answerSheet) {
+        int[] questionIds = answerSheet.getQuestionIds();
+        List<String> responses = answerSheet.getResponses();
+        List<CompletableFuture<AnswerSheetResult>> futures = new ArrayList<>();
+        for (int from = 0; from < questionIds.length; from += chunkSize) {
+            int to = Math.min(from + chunkSize, questionIds.length);
+            AnswerSheet chunk = new AnswerSheet(Arrays.copyOfRange(questionIds, from, to),
+                    new ArrayList<>(responses.subList(from, to)));
+            futures.add(resilience.callAsync(QuestionServiceResilience.GRADE_ANSWER_SHEET, attempt(() -> restClient.post()
+                    .uri("/question/gradeAnswerSheet")
+                    .contentType(wireFormat.contentType())
+                    .accept(wireFormat.accept())
+                    .body(chunk)
+                    .retrieve()
+                    .body(AnswerSheetResult.class))));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            boolean[] correct = new boolean[questionIds.length];
+            int score = 0;
+            int offset = 0;
+            for (CompletableFuture<AnswerSheetResult> future : futures) {
+                AnswerSheetResult part = future.join();
+                int expected = Math.min(chunkSize, questionIds.length - offset);
+                if (part == null || part.getCorrect() == null || part.getCorrect().length != expected) {
+                    throw new IllegalStateException("Question service returned an incomplete chunk");
+                }
+                System.arraycopy(part.getCorrect(), 0, correct, offset, expected);
+                score += part.getScore();
+                offset += expected;
+            }
+            return new AnswerSheetResult(score, correct);
+        });
+    }
+
+    private List<List<Integer>> chunk(List<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>((ids.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(List.copyOf(ids.subList(from, Math.min(from + chunkSize, ids.size()))));
+        }
+        return chunks;
+    }
+
+    // Starts one request with its own deadline; retries and hedges are layered on by the resilience guard.
+    // The caller's context, including the current trace, is captured here because retries and hedges
+    // are started from the resilience scheduler rather than the request thread.
+    private <T> Supplier<CompletableFuture<T>> attempt(Supplier<T> request) {
+        ContextSnapshot context = CONTEXT.captureAll();
+        return () -> {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            AtomicBoolean started = new AtomicBoolean();
+            AtomicBoolean timedOut = new AtomicBoolean();
+            Future<?> call = executor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return;
+                }
+                try (ContextSnapshot.Scope scope = context.setThreadLocals()) {
+                    result.complete(request.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(timedOut.get() ? timeout() : e);
+                }
+            });
+            // The future completes once the call has actually stopped, so whoever holds a permit for it,
+            // such as the bulkhead, keeps it until then.
+            CompletableFuture.delayedExecutor(chunkTimeout.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                timedOut.set(true);
+                if (started.compareAndSet(false, true)) {
+                    call.cancel(false);
+                    result.completeExceptionally(timeout());
+                } else {
+                    call.cancel(true);
+                }
+            });
+            return result;
+        };
+    }
+
+    private TimeoutException timeout() {
+        return new TimeoutException("Question service call exceeded " + chunkTimeout);
+    }
+}
@@ -0,0 +1,37 @@
+package com.maxwell.quizservice.feign;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Encoding used between quiz-service and question-service, selected with
+ * {@code quiz.question-client.wire-format}. The binary formats still accept JSON responses, so an
+ * instance that cannot produce them falls back instead of failing.
+ */
+public enum QuestionWireFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private static final MediaType JSON_FALLBACK = MediaType.parseMediaType("application/json;q=0.5");
+
+    private final MediaType mediaType;
+
+    QuestionWireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    public MediaType[] accept() {
+        return this == JSON ? new MediaType[]{mediaType} : new MediaType[]{mediaType, JSON_FALLBACK};
+    }
+
+    public String acceptHeader() {
+        return MediaType.toString(List.of(accept()));
+    }
+}
@@ -1,7 +1,8 @@
 package com.maxwell.quizservice.feign;
 
+import com.maxwell.quizservice.model.AnswerSheet;
+import com.maxwell.quizservice.model.AnswerSheetResult;
 import com.maxwell.quizservice.model.QuestionWrapper;
-import com.maxwell.quizservice.model.Response;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,14 +17,15 @@ public interface QuizInterface {
 
     @GetMapping("question/generate")
     public ResponseEntity<List<Integer>> getQuestionsForQuiz(
-            @RequestParam String categoryName, @RequestParam int numberOfQuestions
+            @RequestParam String categoryName, @RequestParam int numberOfQuestions,
+            @RequestParam(required = false) Long seed, @RequestParam(required = false) String difficultyMix
     );
 
     @PostMapping("question/getQuestions")
     public ResponseEntity<List<QuestionWrapper>> getQuestionsFromId(@RequestBody List<Integer> questionIds);
 
 
-    @PostMapping("question/getScore")
-    public ResponseEntity<Integer> getScore(@RequestBody List<Response> responses);
+    @PostMapping("question/gradeAnswerSheet")
+    public ResponseEntity<AnswerSheetResult> gradeAnswerSheet(@RequestBody AnswerSheet answerSheet);
 
 }
@@ -0,0 +1,19 @@
+package com.maxwell.quizservice.loadbalancer;
+
+/**
+ * How a load-balanced client picks an instance of a service.
+ */
+public enum BalancingStrategy {
+
+    /** Spring Cloud LoadBalancer's default rotation; ignores how instances are doing. */
+    ROUND_ROBIN,
+
+    /** Power of two random choices, keeping the one with fewer requests in flight. */
+    LEAST_OUTSTANDING,
+
+    /**
+     * Power of two random choices, keeping the one with the lower peak-EWMA latency weighted by
+     * its requests in flight. Reacts to a slow or pausing instance within a few requests.
+     */
+    PEAK_EWMA
+}
@@ -0,0 +1,220 @@
+package com.maxwell.quizservice.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks requests in flight and a peak-EWMA of response time for every instance chosen by a
+ * load-balanced client, Feign or {@code RestClient}. Failed calls and 5xx responses count as at least
+ * {@code failurePenalty}, so an instance that fails fast does not look fast. Latency decays towards
+ * zero while an instance gets no traffic, so one that was slow is probed again after a few
+ * {@code decay} periods.
+ * <p>
+ * Publishes {@code quiz.loadbalancer.outstanding} and {@code quiz.loadbalancer.latency.ewma} gauges and
+ * a {@code quiz.loadbalancer.requests} timer, tagged by service and instance. An instance that has had
+ * nothing in flight and has not been a candidate for {@code idleExpiry}, such as one that left the
+ * registry, is forgotten and its meters are removed.
+ */
+@Component
+public class InstanceLoadTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    // Cost of an instance that has requests in flight but no completed one yet; keeps a new or
+    // restarted instance from absorbing a burst before its latency is known.
+    private static final double UNMEASURED_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final ConcurrentMap<String, InstanceLoad> instances = new ConcurrentHashMap<>();
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+    private final long idleExpiryNanos;
+    private final MeterRegistry registry;
+    private final LongSupplier clock;
+    private final AtomicLong nextSweepAt;
+
+    @Autowired
+    public InstanceLoadTracker(@Value("${quiz.load-balancer.decay:10s}") Duration decay,
+                               @Value("${quiz.load-balancer.failure-penalty:1s}") Duration failurePenalty,
+                               @Value("${quiz.load-balancer.idle-expiry:10m}") Duration idleExpiry,
+                               MeterRegistry registry) {
+        this(decay, failurePenalty, idleExpiry, registry, System::nanoTime);
+    }
+
+    InstanceLoadTracker(Duration decay, Duration failurePenalty, Duration idleExpiry, MeterRegistry registry,
+                        LongSupplier clock) {
+        this.decayNanos = decay.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.idleExpiryNanos = idleExpiry.toNanos();
+        this.registry = registry;
+        this.clock = clock;
+        this.nextSweepAt = new AtomicLong(clock.getAsLong() + idleExpiryNanos);
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext timed && timed.getRequestStartTime() == 0) {
+            timed.setRequestStartTime(clock.getAsLong());
+        }
+        load(lbResponse.getServer()).outstanding.incrementAndGet();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completion) {
+        Response<ServiceInstance> lbResponse = completion.getLoadBalancerResponse();
+        if (completion.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceLoad load = load(lbResponse.getServer());
+        // Never below zero, in case the entry was expired and recreated while the request was starting.
+        load.outstanding.updateAndGet(count -> Math.max(count - 1, 0));
+        if (!(completion.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed)
+                || timed.getRequestStartTime() == 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long elapsed = now - timed.getRequestStartTime();
+        boolean failed = completion.status() == CompletionContext.Status.FAILED
+                || completion.getClientResponse() instanceof ResponseData data
+                && data.getHttpStatus() != null && data.getHttpStatus().is5xxServerError();
+        load.observe(failed ? Math.max(elapsed, failurePenaltyNanos) : elapsed, now, decayNanos);
+        (failed ? load.failures : load.successes).record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    /** What choosing {@code instance} now would cost under {@code strategy}; lower is better. */
+    double cost(ServiceInstance instance, BalancingStrategy strategy) {
+        InstanceLoad load = load(instance);
+        int outstanding = load.outstanding.get();
+        if (strategy == BalancingStrategy.LEAST_OUTSTANDING) {
+            return outstanding;
+        }
+        double latency = load.latency(clock.getAsLong(), decayNanos);
+        if (latency < 0) {
+            return outstanding == 0 ? 0 : UNMEASURED_PENALTY_NANOS + outstanding;
+        }
+        return latency * (outstanding + 1);
+    }
+
+    int outstanding(ServiceInstance instance) {
+        return load(instance).outstanding.get();
+    }
+
+    int trackedInstances() {
+        return instances.size();
+    }
+
+    private InstanceLoad load(ServiceInstance instance) {
+        String key = instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+        long now = clock.getAsLong();
+        expireIdle(now);
+        InstanceLoad load = instances.get(key);
+        if (load == null) {
+            load = instances.computeIfAbsent(key, k -> register(instance));
+        }
+        load.lastUsedAt = now;
+        return load;
+    }
+
+    // Runs at most once per idle-expiry period, on whichever call gets there first.
+    private void expireIdle(long now) {
+        long due = nextSweepAt.get();
+        if (now - due < 0 || !nextSweepAt.compareAndSet(due, now + idleExpiryNanos)) {
+            return;
+        }
+        instances.forEach((key, load) -> {
+            boolean removed = instances.computeIfPresent(key, (k, current) ->
+                    current.outstanding.get() == 0 && now - current.lastUsedAt > idleExpiryNanos ? null : current) == null;
+            if (removed) {
+                load.meters.forEach(registry::remove);
+            }
+        });
+    }
+
+    private InstanceLoad register(ServiceInstance instance) {
+        String service = String.valueOf(instance.getServiceId());
+        String address = instance.getHost() + ":" + instance.getPort();
+        InstanceLoad load = new InstanceLoad(
+                requestTimer(service, address, "success"), requestTimer(service, address, "failure"));
+        Gauge outstanding = Gauge.builder("quiz.loadbalancer.outstanding", load, l -> l.outstanding.get())
+                .description("Requests in flight to the instance")
+                .tags("service", service, "instance", address)
+                .register(registry);
+        Gauge latency = Gauge.builder("quiz.loadbalancer.latency.ewma", load,
+                        l -> l.latency(clock.getAsLong(), decayNanos) / 1e6)
+                .description("Peak-EWMA response time the balancer sees for the instance, -1 until measured")
+                .tags("service", service, "instance", address)
+                .baseUnit("milliseconds")
+                .register(registry);
+        load.meters = List.of(load.successes, load.failures, outstanding, latency);
+        return load;
+    }
+
+    private Timer requestTimer(String service, String address, String outcome) {
+        return Timer.builder("quiz.loadbalancer.requests")
+                .description("Load-balanced requests by instance")
+                .tags("service", service, "instance", address, "outcome", outcome)
+                .register(registry);
+    }
+
+    private static final class InstanceLoad {
+
+        final AtomicInteger outstanding = new AtomicInteger();
+        final Timer successes;
+        final Timer failures;
+        volatile List<Meter> meters = List.of();
+        volatile long lastUsedAt;
+        private double ewma = -1;
+        private long updatedAt;
+
+        InstanceLoad(Timer successes, Timer failures) {
+            this.successes = successes;
+            this.failures = failures;
+        }
+
+        // Peak-sensitive: a sample above the average replaces it, lower samples are blended in by how
+        // much time has passed since the last one.
+        synchronized void observe(long sampleNanos, long now, double decayNanos) {
+            if (ewma < 0 || sampleNanos > ewma) {
+                ewma = sampleNanos;
+            } else {
+                double weight = Math.exp(-(now - updatedAt) / decayNanos);
+                ewma = ewma * weight + sampleNanos * (1 - weight);
+            }
+            updatedAt = now;
+        }
+
+        synchronized double latency(long now, double decayNanos) {
+            return ewma < 0 ? -1 : ewma * Math.exp(-(now - updatedAt) / decayNanos);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.maxwell.quizservice.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import java.util.Locale;
+
+// Registered in each load-balanced client's own context by LoadBalancingConfig, so it must stay
+// unannotated: picked up by the application context, it would have no client name to work with.
+// The class name must not be LoadBalancerClientConfiguration, or Spring Cloud's defaults of that
+// name replace it in the client context.
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(
+            Environment environment, LoadBalancerClientFactory clientFactory, InstanceLoadTracker tracker) {
+        String serviceId = LoadBalancerClientFactory.getName(environment);
+        BalancingStrategy strategy = strategy(environment, serviceId);
+        ObjectProvider<ServiceInstanceListSupplier> instances =
+                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+        if (strategy == BalancingStrategy.ROUND_ROBIN) {
+            return new RoundRobinLoadBalancer(instances, serviceId);
+        }
+        return new LatencyAwareLoadBalancer(instances, serviceId, strategy, tracker);
+    }
+
+    static BalancingStrategy strategy(Environment environment, String serviceId) {
+        Binder binder = Binder.get(environment);
+        return binder.bind("quiz.load-balancer.clients." + serviceId.toLowerCase(Locale.ROOT) + ".strategy",
+                        BalancingStrategy.class)
+                .orElseGet(() -> binder.bind("quiz.load-balancer.strategy", BalancingStrategy.class)
+                        .orElse(BalancingStrategy.PEAK_EWMA));
+    }
+}
@@ -0,0 +1,11 @@
+package com.maxwell.quizservice.loadbalancer;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+// Every load-balanced client, Feign or RestClient, picks instances with the strategy configured under
+// quiz.load-balancer.clients.<service-id>.strategy, falling back to quiz.load-balancer.strategy.
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancingConfig {
+}
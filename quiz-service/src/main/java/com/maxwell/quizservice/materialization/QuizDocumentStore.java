@@ -0,0 +1,100 @@
+package com.maxwell.quizservice.materialization;
+
+import com.maxwell.quizservice.dao.QuizDocumentDao;
+import com.maxwell.quizservice.model.QuestionWrapper;
+import com.maxwell.quizservice.model.QuizDocument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Quiz questions serialized once, when the quiz is created, and stored next to the quiz. Reads
+ * return the stored bytes without calling question-service or serializing again. Each document
+ * records the question ids it contains, so a question edit can mark the affected documents stale.
+ * A stale document is rebuilt on its next read.
+ * <p>
+ * Writes are versioned: a build reads the document's revision before fetching questions and
+ * writes only if it is still current, so an edit that lands during the fetch is not overwritten
+ * with the old text.
+ */
+@Component
+public class QuizDocumentStore {
+
+    // Bump when the serialized form of QuestionWrapper changes; documents in an older format are rebuilt.
+    static final int FORMAT = 1;
+
+    private final QuizDocumentDao quizDocumentDao;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    @Autowired
+    public QuizDocumentStore(QuizDocumentDao quizDocumentDao, ObjectMapper objectMapper,
+                             @Value("${quiz.materialization.enabled:false}") boolean enabled) {
+        this.quizDocumentDao = quizDocumentDao;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The quiz's document, or empty when there is none or it was written in an older format. */
+    public Optional<QuizDocument> read(Integer quizId) {
+        return quizDocumentDao.findById(quizId).filter(document -> document.getFormat() == FORMAT);
+    }
+
+    /** Revision of the quiz's document in any format, or null when it has none. */
+    public Long revision(Integer quizId) {
+        return quizDocumentDao.findById(quizId).map(QuizDocument::getRevision).orElse(null);
+    }
+
+    /**
+     * Stores the questions as the quiz's document if it is still at {@code expectedRevision}, null
+     * meaning there is none yet. Otherwise, or when it changes before the commit, throws an
+     * {@link OptimisticLockingFailureException} (or a {@code DataIntegrityViolationException} for a
+     * concurrent first write); the questions may predate the change and must be fetched again.
+     */
+    @Transactional
+    public QuizDocument write(Integer quizId, Long expectedRevision, List<Integer> questionIds,
+                              List<QuestionWrapper> questions) {
+        QuizDocument document = quizDocumentDao.findById(quizId).orElseGet(QuizDocument::new);
+        if (!Objects.equals(document.getRevision(), expectedRevision)) {
+            throw new OptimisticLockingFailureException("Document of quiz " + quizId + " changed while it was built");
+        }
+        document.setQuizId(quizId);
+        document.setFormat(FORMAT);
+        document.setStale(false);
+        document.setMaterializedAtMillis(System.currentTimeMillis());
+        document.setJson(objectMapper.writeValueAsBytes(questions));
+        Set<Integer> ids = new HashSet<>(questionIds);
+        // Replacing an equal collection would rewrite every index row.
+        if (!ids.equals(document.getQuestionIds())) {
+            document.setQuestionIds(ids);
+        }
+        return quizDocumentDao.save(document);
+    }
+
+    /** Marks every document containing one of the questions stale and returns their quiz ids. */
+    @Transactional
+    public List<Integer> markStale(Collection<Integer> questionIds) {
+        if (!enabled || questionIds.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> quizIds = quizDocumentDao.findQuizIdsByQuestionIds(questionIds);
+        if (!quizIds.isEmpty()) {
+            quizDocumentDao.markStale(quizIds);
+        }
+        return quizIds;
+    }
+}
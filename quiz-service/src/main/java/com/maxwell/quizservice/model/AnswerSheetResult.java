@@ -0,0 +1,15 @@
+package com.maxwell.quizservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// correct[i] tells whether the response at position i of the AnswerSheet was right.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerSheetResult {
+
+    private int score;
+    private boolean[] correct;
+}
@@ -0,0 +1,15 @@
+package com.maxwell.quizservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionResult {
+
+    private Integer questionId;
+    private boolean answered;
+    private boolean correct;
+}
@@ -1,5 +1,6 @@
 package com.maxwell.quizservice.model;
 
+import com.maxwell.quizservice.converter.QuestionIdListConverter;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -14,7 +15,9 @@ public class Quiz {
     private Integer id;
     private String title;
 
-    @ElementCollection
+    // Packed varint blob in a single column; see QuestionIdListConverter.
+    @Convert(converter = QuestionIdListConverter.class)
+    @Column(name = "question_ids", length = 1048576)
     private List<Integer> questionIds;
 
 }
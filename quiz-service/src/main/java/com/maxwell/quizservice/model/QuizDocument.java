@@ -0,0 +1,39 @@
+package com.maxwell.quizservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * A quiz's questions, serialized as the JSON body of {@code GET /quiz/get/{id}}. Kept in its own
+ * table so loading a {@link Quiz} for grading does not load the body.
+ */
+@Entity
+@Data
+public class QuizDocument {
+
+    @Id
+    private Integer quizId;
+    private int format;
+    // Bumped by every write and by markStale, so a rebuild can tell whether the document changed under it.
+    @Version
+    private Long revision;
+    private boolean stale;
+    private long materializedAtMillis;
+
+    @ToString.Exclude
+    @Column(length = 1048576)
+    private byte[] json;
+
+    // Reverse index from question to the documents that contain it, used to find what a question edit affects.
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ElementCollection
+    @CollectionTable(name = "quiz_document_question", joinColumns = @JoinColumn(name = "quiz_id"),
+            indexes = @Index(columnList = "question_id"))
+    @Column(name = "question_id")
+    private Set<Integer> questionIds;
+}
@@ -2,9 +2,13 @@ package com.maxwell.quizservice.model;
 
 import lombok.Data;
 
+import java.util.Map;
+
 @Data
 public class QuizDto {
     private String title;
     private Integer numberOfQuestions;
     private String categoryName;
+    private Map<String, Integer> difficultyMix;
+    private Long seed;
 }
@@ -0,0 +1,23 @@
+package com.maxwell.quizservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizResult {
+
+    private Integer quizId;
+    private int score;
+    private int totalQuestions;
+    private int answered;
+    // In quiz order.
+    private List<QuestionResult> questions;
+    // Submitted ids that are not part of the quiz; they are not scored.
+    private List<Integer> rejectedQuestionIds;
+    private long elapsedMillis;
+}
@@ -0,0 +1,221 @@
+package com.maxwell.quizservice.resilience;
+
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Guards every call to question-service, whether made through Feign or {@code AsyncQuizInterface}.
+ * <p>
+ * Each attempt passes a per-operation semaphore bulkhead and a circuit breaker shared by the whole
+ * service. Failures that suggest the instance or network is in trouble (timeouts, I/O errors, 5xx)
+ * are retried with jittered exponential backoff; 4xx responses, an open breaker and a full bulkhead
+ * are not. Calls are only made to read endpoints, so every operation is safe to retry.
+ */
+@Slf4j
+@Component
+public class QuestionServiceResilience {
+
+    public static final String SERVICE = "question-service";
+    public static final String GENERATE = "generate";
+    public static final String GET_QUESTIONS = "getQuestions";
+    public static final String GRADE_ANSWER_SHEET = "gradeAnswerSheet";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final RetryRegistry retryRegistry;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration hedgeDelay;
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder hedgedRequests = new LongAdder();
+
+    public QuestionServiceResilience(
+            @Value("${quiz.resilience.breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${quiz.resilience.breaker.slow-call-duration:2s}") Duration slowCallDuration,
+            @Value("${quiz.resilience.breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${quiz.resilience.breaker.wait-in-open:10s}") Duration waitInOpen,
+            @Value("${quiz.resilience.bulkhead.max-concurrent-calls:200}") int maxConcurrentCalls,
+            @Value("${quiz.resilience.bulkhead.max-wait:50ms}") Duration bulkheadMaxWait,
+            @Value("${quiz.resilience.retry.max-attempts:3}") int retryMaxAttempts,
+            @Value("${quiz.resilience.retry.initial-backoff:100ms}") Duration retryInitialBackoff,
+            @Value("${quiz.resilience.hedge.delay:300ms}") Duration hedgeDelay) {
+        this.circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(80)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(Math.max(minimumCalls, 50))
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(waitInOpen)
+                .permittedNumberOfCallsInHalfOpenState(5)
+                .recordException(QuestionServiceResilience::isServiceFailure)
+                .build());
+        this.bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(bulkheadMaxWait)
+                .build());
+        this.retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(retryMaxAttempts)
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(retryInitialBackoff, 2.0, 0.5))
+                .retryOnException(QuestionServiceResilience::isServiceFailure)
+                .build());
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(SERVICE);
+        for (String operation : new String[]{GENERATE, GET_QUESTIONS, GRADE_ANSWER_SHEET}) {
+            bulkheadRegistry.bulkhead(operation);
+            retryRegistry.retry(operation);
+        }
+        this.hedgeDelay = hedgeDelay;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("question-service-resilience").daemon().factory());
+    }
+
+    /**
+     * Runs a blocking call, such as a Feign request, through the bulkhead, breaker and retry for
+     * the operation.
+     */
+    public <T> T call(String operation, Supplier<T> request) {
+        Supplier<T> guarded = CircuitBreaker.decorateSupplier(circuitBreaker,
+                Bulkhead.decorateSupplier(bulkheadRegistry.bulkhead(operation), request));
+        return Retry.decorateSupplier(retryRegistry.retry(operation), guarded).get();
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #call(String, Supplier)}; {@code attempt} starts one request.
+     * The bulkhead permit is held until the attempt's future completes, so that future must not
+     * complete, even on timeout, while the request is still running.
+     */
+    public <T> CompletableFuture<T> callAsync(String operation, Supplier<CompletableFuture<T>> attempt) {
+        Supplier<CompletionStage<T>> guarded = guard(operation, attempt);
+        return Retry.decorateCompletionStage(retryRegistry.retry(operation), scheduler, guarded).get()
+                .toCompletableFuture();
+    }
+
+    /**
+     * Like {@link #callAsync(String, Supplier)}, but if an attempt has not finished after the hedge
+     * delay a second, identical attempt is started and the first success wins. This trims the tail
+     * added by one slow instance at the cost of a few duplicate reads.
+     */
+    public <T> CompletableFuture<T> callHedged(String operation, Supplier<CompletableFuture<T>> attempt) {
+        Supplier<CompletionStage<T>> guarded = guard(operation, attempt);
+        return Retry.decorateCompletionStage(retryRegistry.retry(operation), scheduler, () -> hedge(guarded)).get()
+                .toCompletableFuture();
+    }
+
+    public CircuitBreakerRegistry circuitBreakerRegistry() {
+        return circuitBreakerRegistry;
+    }
+
+    public BulkheadRegistry bulkheadRegistry() {
+        return bulkheadRegistry;
+    }
+
+    public RetryRegistry retryRegistry() {
+        return retryRegistry;
+    }
+
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public long hedgedRequestCount() {
+        return hedgedRequests.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // Bounds real concurrency only because attempts complete once their request has ended; see callAsync.
+    private <T> Supplier<CompletionStage<T>> guard(String operation, Supplier<CompletableFuture<T>> attempt) {
+        Supplier<CompletionStage<T>> stage = attempt::get;
+        return CircuitBreaker.decorateCompletionStage(circuitBreaker,
+                Bulkhead.decorateCompletionStage(bulkheadRegistry.bulkhead(operation), stage));
+    }
+
+    private <T> CompletionStage<T> hedge(Supplier<CompletionStage<T>> attempt) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger inFlight = new AtomicInteger(1);
+        BiConsumer<T, Throwable> onDone = (value, failure) -> {
+            if (failure == null) {
+                result.complete(value);
+            } else if (inFlight.decrementAndGet() == 0) {
+                result.completeExceptionally(unwrap(failure));
+            }
+        };
+        start(attempt).whenComplete(onDone);
+        ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            // Only hedge while the first attempt is still running.
+            if (!result.isDone() && inFlight.getAndUpdate(n -> n == 0 ? 0 : n + 1) > 0) {
+                hedgedRequests.increment();
+                start(attempt).whenComplete(onDone);
+            }
+        }, hedgeDelay.toNanos(), TimeUnit.NANOSECONDS);
+        result.whenComplete((value, failure) -> timer.cancel(false));
+        return result;
+    }
+
+    private static <T> CompletionStage<T> start(Supplier<CompletionStage<T>> attempt) {
+        try {
+            return attempt.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Whether a failure says something about question-service's health, as opposed to a rejected
+     * request (4xx) or local load shedding.
+     */
+    public static boolean isServiceFailure(Throwable failure) {
+        Throwable cause = unwrap(failure);
+        if (cause instanceof RestClientResponseException response) {
+            return response.getStatusCode().is5xxServerError();
+        }
+        if (cause instanceof RetryableException) {
+            return true;
+        }
+        if (cause instanceof FeignException feign) {
+            return feign.status() >= 500 || feign.status() < 0;
+        }
+        return cause instanceof IOException || cause instanceof TimeoutException
+                || cause instanceof ResourceAccessException;
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        Throwable cause = failure;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
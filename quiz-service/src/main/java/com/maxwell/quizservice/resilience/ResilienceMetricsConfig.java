@@ -0,0 +1,27 @@
+package com.maxwell.quizservice.resilience;
+
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Publishes breaker state, bulkhead occupancy, retry outcomes and hedge count through Micrometer.
+@Configuration
+public class ResilienceMetricsConfig {
+
+    @Bean
+    public MeterBinder questionServiceResilienceMetrics(QuestionServiceResilience resilience) {
+        return registry -> {
+            TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(resilience.circuitBreakerRegistry()).bindTo(registry);
+            TaggedBulkheadMetrics.ofBulkheadRegistry(resilience.bulkheadRegistry()).bindTo(registry);
+            TaggedRetryMetrics.ofRetryRegistry(resilience.retryRegistry()).bindTo(registry);
+            FunctionCounter.builder("quiz.question-service.hedged.requests", resilience,
+                            QuestionServiceResilience::hedgedRequestCount)
+                    .description("Second attempts started because the first exceeded the hedge delay")
+                    .register(registry);
+        };
+    }
+}
@@ -1,33 +1,98 @@
 package com.maxwell.quizservice.service;
 
 
+import com.maxwell.commons.cache.ResponseBodyCache;
+import com.maxwell.quizservice.cache.QuizDefinitionCache;
+import com.maxwell.quizservice.cache.QuizQuestionCache;
+import com.maxwell.quizservice.cache.QuizQuestionCacheStats;
 import com.maxwell.quizservice.dao.QuizDao;
+import com.maxwell.quizservice.exception.QuestionServiceUnavailableException;
+import com.maxwell.quizservice.feign.AsyncQuizInterface;
 import com.maxwell.quizservice.feign.QuizInterface;
+import com.maxwell.quizservice.materialization.QuizDocumentStore;
+import com.maxwell.quizservice.model.AnswerSheet;
+import com.maxwell.quizservice.model.AnswerSheetResult;
+import com.maxwell.quizservice.model.QuestionResult;
 import com.maxwell.quizservice.model.QuestionWrapper;
 import com.maxwell.quizservice.model.Quiz;
+import com.maxwell.quizservice.model.QuizDocument;
+import com.maxwell.quizservice.model.QuizResult;
 import com.maxwell.quizservice.model.Response;
+import com.maxwell.quizservice.resilience.QuestionServiceResilience;
+import com.maxwell.quizservice.snapshot.QuizSnapshot;
+import com.maxwell.quizservice.snapshot.QuizSnapshotStore;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 
 @Slf4j
 @Service
 public class QuizService {
 
+    private static final int MATERIALIZE_ATTEMPTS = 3;
+
     @Autowired
     QuizDao quizDao;
 
     @Autowired
     QuizInterface quizInterface;
 
-    public ResponseEntity<String> createQuiz(String category, int numQ, String title) {
+    @Autowired
+    AsyncQuizInterface asyncQuizInterface;
+
+    @Autowired
+    QuestionServiceResilience questionServiceResilience;
+
+    @Autowired
+    QuizQuestionCache quizQuestionCache;
+
+    @Autowired
+    QuizDefinitionCache quizDefinitionCache;
+
+    @Autowired
+    QuizSnapshotStore quizSnapshotStore;
+
+    @Autowired
+    ResponseBodyCache responseBodyCache;
+
+    @Autowired
+    QuizDocumentStore quizDocumentStore;
+
+    @Autowired
+    @Qualifier("questionClientExecutor")
+    Executor snapshotRefreshExecutor;
+
+    private final Set<Integer> refreshingSnapshots = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> refreshingDocuments = ConcurrentHashMap.newKeySet();
+
+    public ResponseEntity<String> createQuiz(String category, int numQ, String title,
+                                             Map<String, Integer> difficultyMix, Long seed) {
         try {
-            List<Integer> questions = quizInterface.getQuestionsForQuiz(category, numQ).getBody();
+            List<Integer> questions = questionServiceResilience.call(QuestionServiceResilience.GENERATE,
+                    () -> quizInterface.getQuestionsForQuiz(category, numQ, seed, formatDifficultyMix(difficultyMix)))
+                    .getBody();
             if (questions == null || questions.isEmpty()) {
                 log.warn("No questions found for category: {}", category);
                 return new ResponseEntity<>("No questions available for category: " + category, HttpStatus.NOT_FOUND);
@@ -36,7 +101,13 @@ public class QuizService {
             quiz.setTitle(title);
             quiz.setQuestionIds(questions);
             quizDao.save(quiz);
+            if (quizDocumentStore.isEnabled()) {
+                materializeQuietly(quiz);
+            }
             return new ResponseEntity<>("Quiz created successfully", HttpStatus.CREATED);
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            log.warn("Shedding quiz creation for category {}: {}", category, e.getMessage());
+            return new ResponseEntity<>("Question service is unavailable, try again later", HttpStatus.SERVICE_UNAVAILABLE);
         } catch (Exception e) {
             log.error("Failed to create quiz for category: {}", category, e);
             return new ResponseEntity<>("Failed to create quiz", HttpStatus.INTERNAL_SERVER_ERROR);
@@ -44,13 +115,234 @@ public class QuizService {
     }
 
     public ResponseEntity<List<QuestionWrapper>> getQuizQuestions(Integer id) {
-        Quiz quiz = quizDao.findById(id)
-                .orElseThrow(() -> new RuntimeException("Quiz not found with id: " + id));
-        List<Integer> questionIds = quiz.getQuestionIds();
-        return quizInterface.getQuestionsFromId(questionIds);
+        return new ResponseEntity<>(quizQuestionCache.get(id, this::loadQuizQuestions), HttpStatus.OK);
+    }
+
+    // Same questions as getQuizQuestions, served as a cached JSON body with an ETag and optional gzip.
+    // With materialization on, a miss is answered from the stored document's bytes.
+    public ResponseEntity<?> getQuizQuestions(Integer id, HttpHeaders request) {
+        if (quizDocumentStore.isEnabled()) {
+            return responseBodyCache.respondSerialized(responseKey(id), request, () -> materializedJson(id),
+                    () -> getQuizQuestions(id));
+        }
+        return responseBodyCache.respond(responseKey(id), request, () -> getQuizQuestions(id));
+    }
+
+    /**
+     * Marks the materialized documents of quizzes containing any of the questions stale and drops
+     * their cached responses and snapshots, so the next read serves the new question text once the
+     * document has been rebuilt. Returns the affected quiz ids. The gateway's response cache is in
+     * another process and keeps old bodies until its entries expire.
+     */
+    public ResponseEntity<List<Integer>> questionsChanged(List<Integer> questionIds) {
+        List<Integer> quizIds = quizDocumentStore.markStale(questionIds);
+        for (Integer quizId : quizIds) {
+            quizQuestionCache.invalidate(quizId);
+            quizSnapshotStore.delete(quizId);
+            responseBodyCache.invalidate(responseKey(quizId));
+        }
+        return new ResponseEntity<>(quizIds, HttpStatus.OK);
+    }
+
+    public ResponseEntity<QuizQuestionCacheStats> getQuestionCacheStats() {
+        return new ResponseEntity<>(quizQuestionCache.stats(), HttpStatus.OK);
     }
 
     public ResponseEntity<Integer> calculateResult(Integer id, List<Response> responses) {
-        return quizInterface.getScore(responses);
+        return new ResponseEntity<>(gradeSubmission(id, responses).getScore(), HttpStatus.OK);
+    }
+
+    public ResponseEntity<QuizResult> calculateDetailedResult(Integer id, List<Response> responses) {
+        return new ResponseEntity<>(gradeSubmission(id, responses), HttpStatus.OK);
+    }
+
+    // Scores only responses to questions of the quiz, first response per question, fanned out in parallel chunks.
+    private QuizResult gradeSubmission(Integer id, List<Response> responses) {
+        long start = System.nanoTime();
+        int[] questionIds = quizDefinitionCache.questionIds(id, this::loadQuestionIds);
+        Map<Integer, Integer> positions = new HashMap<>(questionIds.length * 2);
+        for (int i = 0; i < questionIds.length; i++) {
+            positions.putIfAbsent(questionIds[i], i);
+        }
+
+        int[] sheetPositions = new int[Math.min(responses.size(), questionIds.length)];
+        int[] sheetIds = new int[sheetPositions.length];
+        List<String> sheetResponses = new ArrayList<>(sheetPositions.length);
+        boolean[] answered = new boolean[questionIds.length];
+        List<Integer> rejectedIds = new ArrayList<>();
+        for (Response response : responses) {
+            Integer position = positions.get(response.getId());
+            if (position == null) {
+                rejectedIds.add(response.getId());
+            } else if (!answered[position]) {
+                answered[position] = true;
+                sheetPositions[sheetResponses.size()] = position;
+                sheetIds[sheetResponses.size()] = questionIds[position];
+                sheetResponses.add(response.getResponse());
+            }
+        }
+
+        boolean[] correct = new boolean[questionIds.length];
+        int score = 0;
+        if (!sheetResponses.isEmpty()) {
+            AnswerSheet sheet = new AnswerSheet(Arrays.copyOf(sheetIds, sheetResponses.size()), sheetResponses);
+            String failureMessage = "Failed to score submission for quiz with id: " + id;
+            AnswerSheetResult result = await(asyncQuizInterface.gradeAnswerSheet(sheet), failureMessage);
+            if (result.getCorrect() == null || result.getCorrect().length != sheetResponses.size()) {
+                throw new RuntimeException(failureMessage);
+            }
+            for (int i = 0; i < sheetResponses.size(); i++) {
+                correct[sheetPositions[i]] = result.getCorrect()[i];
+            }
+            score = result.getScore();
+        }
+
+        List<QuestionResult> questions = new ArrayList<>(questionIds.length);
+        for (int i = 0; i < questionIds.length; i++) {
+            questions.add(new QuestionResult(questionIds[i], answered[i], correct[i]));
+        }
+        if (!rejectedIds.isEmpty()) {
+            log.warn("Ignored {} responses to questions outside quiz {}", rejectedIds.size(), id);
+        }
+        return new QuizResult(id, score, questionIds.length, sheetResponses.size(), questions, rejectedIds,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<Integer> loadQuestionIds(Integer id) {
+        return quizDao.findById(id)
+                .orElseThrow(() -> new RuntimeException("Quiz not found with id: " + id))
+                .getQuestionIds();
+    }
+
+    // Stale-while-revalidate: a stored snapshot is served at once and refreshed in the background once
+    // it is older than quiz.snapshot.refresh-after, so reads keep working while question-service is down.
+    private List<QuestionWrapper> loadQuizQuestions(Integer id) {
+        Optional<QuizSnapshot> snapshot = quizSnapshotStore.read(id);
+        if (snapshot.isPresent()) {
+            if (quizSnapshotStore.isStale(snapshot.get())) {
+                refreshSnapshot(id);
+            }
+            return snapshot.get().getQuestions();
+        }
+        List<QuestionWrapper> questions = fetchQuizQuestions(id);
+        quizSnapshotStore.write(id, questions);
+        return questions;
+    }
+
+    private List<QuestionWrapper> fetchQuizQuestions(Integer id) {
+        return fetchQuizQuestions(findQuiz(id));
+    }
+
+    private List<QuestionWrapper> fetchQuizQuestions(Quiz quiz) {
+        return await(asyncQuizInterface.getQuestionsFromId(quiz.getQuestionIds()),
+                "Failed to load questions for quiz with id: " + quiz.getId());
+    }
+
+    private Quiz findQuiz(Integer id) {
+        return quizDao.findById(id)
+                .orElseThrow(() -> new RuntimeException("Quiz not found with id: " + id));
+    }
+
+    // A stale document is still served while it is rebuilt in the background; a missing one, e.g. for
+    // a quiz created before materialization was turned on, is built on the spot.
+    private byte[] materializedJson(Integer id) {
+        Optional<QuizDocument> document = quizDocumentStore.read(id);
+        if (document.isPresent()) {
+            if (document.get().isStale()) {
+                refreshDocument(id);
+            }
+            return document.get().getJson();
+        }
+        return materialize(findQuiz(id)).getJson();
+    }
+
+    // The revision is read before the fetch, so a questionsChanged that lands during it fails the
+    // write instead of storing the old text as fresh; the questions are then fetched again.
+    private QuizDocument materialize(Quiz quiz) {
+        for (int attempt = 1; ; attempt++) {
+            Long revision = quizDocumentStore.revision(quiz.getId());
+            List<QuestionWrapper> questions = fetchQuizQuestions(quiz);
+            try {
+                return quizDocumentStore.write(quiz.getId(), revision, quiz.getQuestionIds(), questions);
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt == MATERIALIZE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Document of quiz {} changed while it was built, retrying", quiz.getId());
+            }
+        }
+    }
+
+    // Creation has succeeded by now; a document that can't be built here is built on first read instead.
+    private void materializeQuietly(Quiz quiz) {
+        try {
+            materialize(quiz);
+        } catch (RuntimeException e) {
+            log.warn("Could not materialize quiz {}; it will be built on first read: {}", quiz.getId(), e.getMessage());
+        }
+    }
+
+    private void refreshDocument(Integer id) {
+        if (!refreshingDocuments.add(id)) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            materialize(findQuiz(id));
+            responseBodyCache.invalidate(responseKey(id));
+        }, snapshotRefreshExecutor).whenComplete((done, failure) -> {
+            refreshingDocuments.remove(id);
+            if (failure != null) {
+                log.warn("Serving stale document for quiz {}; refresh failed: {}", id, failure.getMessage());
+            }
+        });
+    }
+
+    private void refreshSnapshot(Integer id) {
+        if (!refreshingSnapshots.add(id)) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            List<QuestionWrapper> questions = fetchQuizQuestions(id);
+            quizSnapshotStore.write(id, questions);
+            quizQuestionCache.put(id, questions);
+            responseBodyCache.invalidate(responseKey(id));
+        }, snapshotRefreshExecutor).whenComplete((done, failure) -> {
+            refreshingSnapshots.remove(id);
+            if (failure != null) {
+                log.warn("Serving stale snapshot for quiz {}; refresh failed: {}", id, failure.getMessage());
+            }
+        });
+    }
+
+    private static String responseKey(Integer quizId) {
+        return "quiz:" + quizId;
+    }
+
+    private static <T> T await(CompletableFuture<T> future, String failureMessage) {
+        try {
+            T result = future.join();
+            if (result == null) {
+                throw new RuntimeException(failureMessage);
+            }
+            return result;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("{}: {}", failureMessage, cause.toString());
+            if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException
+                    || QuestionServiceResilience.isServiceFailure(cause)) {
+                throw new QuestionServiceUnavailableException(failureMessage, cause);
+            }
+            throw new RuntimeException(failureMessage, cause);
+        }
+    }
+
+    // Encodes the mix as the "Easy:40,Medium:40,Hard:20" spec question-service expects.
+    private static String formatDifficultyMix(Map<String, Integer> difficultyMix) {
+        if (difficultyMix == null || difficultyMix.isEmpty()) {
+            return null;
+        }
+        StringJoiner spec = new StringJoiner(",");
+        difficultyMix.forEach((difficulty, weight) -> spec.add(difficulty + ":" + weight));
+        return spec.toString();
     }
 }
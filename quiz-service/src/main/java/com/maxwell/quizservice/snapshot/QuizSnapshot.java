@@ -0,0 +1,17 @@
+package com.maxwell.quizservice.snapshot;
+
+import com.maxwell.quizservice.model.QuestionWrapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizSnapshot {
+
+    private long fetchedAtMillis;
+    private List<QuestionWrapper> questions;
+}
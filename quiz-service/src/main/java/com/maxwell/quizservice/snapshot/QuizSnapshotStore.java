@@ -0,0 +1,111 @@
+package com.maxwell.quizservice.snapshot;
+
+import com.maxwell.quizservice.model.QuestionWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Last known questions of each quiz, one JSON file per quiz id, so quiz reads survive question-service
+ * outages and quiz-service restarts. Files are replaced atomically; a missing, unreadable or corrupt
+ * snapshot is treated as absent and never fails a request.
+ */
+@Slf4j
+@Component
+public class QuizSnapshotStore {
+
+    private final Path directory;
+    private final boolean enabled;
+    private final long refreshAfterMillis;
+    private final ObjectMapper objectMapper;
+
+    public QuizSnapshotStore(@Value("${quiz.snapshot.dir:data/quiz-snapshots}") Path directory,
+                             @Value("${quiz.snapshot.enabled:true}") boolean enabled,
+                             @Value("${quiz.snapshot.refresh-after:5m}") Duration refreshAfter,
+                             ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.enabled = enabled;
+        this.refreshAfterMillis = refreshAfter.toMillis();
+        this.objectMapper = objectMapper;
+        if (enabled) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create quiz snapshot directory " + directory, e);
+            }
+        }
+    }
+
+    public Optional<QuizSnapshot> read(Integer quizId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Path file = fileFor(quizId);
+        try {
+            QuizSnapshot snapshot = objectMapper.readValue(Files.readAllBytes(file), QuizSnapshot.class);
+            if (snapshot.getQuestions() == null) {
+                throw new IllegalStateException("Snapshot has no questions");
+            }
+            return Optional.of(snapshot);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | JacksonException | IllegalStateException e) {
+            log.warn("Discarding unreadable snapshot for quiz {}: {}", quizId, e.getMessage());
+            delete(quizId);
+            return Optional.empty();
+        }
+    }
+
+    public void write(Integer quizId, List<QuestionWrapper> questions) {
+        if (!enabled) {
+            return;
+        }
+        Path file = fileFor(quizId);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, quizId + "-", ".tmp");
+            Files.write(temp, objectMapper.writeValueAsBytes(new QuizSnapshot(System.currentTimeMillis(), questions)));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | JacksonException e) {
+            log.warn("Failed to write snapshot for quiz {}: {}", quizId, e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Left for the next write to the directory to be noticed; nothing reads .tmp files.
+                }
+            }
+        }
+    }
+
+    public void delete(Integer quizId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(fileFor(quizId));
+        } catch (IOException e) {
+            log.warn("Failed to delete snapshot for quiz {}: {}", quizId, e.getMessage());
+        }
+    }
+
+    public boolean isStale(QuizSnapshot snapshot) {
+        return System.currentTimeMillis() - snapshot.getFetchedAtMillis() >= refreshAfterMillis;
+    }
+
+    private Path fileFor(Integer quizId) {
+        return directory.resolve(quizId + ".json");
+    }
+}
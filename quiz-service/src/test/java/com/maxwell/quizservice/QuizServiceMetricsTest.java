@@ -0,0 +1,83 @@
+package com.maxwell.quizservice;
+
+import com.maxwell.quizservice.dao.QuizDao;
+import com.maxwell.quizservice.model.Quiz;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.micrometer.metrics.test.autoconfigure.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// question-service is a stub that answers 503 to everything, so outbound calls fail fast but are still timed.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "quiz.resilience.retry.max-attempts=1")
+@AutoConfigureMetrics
+@ActiveProfiles("test")
+class QuizServiceMetricsTest {
+
+    static HttpServer questionService;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    QuizDao quizDao;
+
+    @DynamicPropertySource
+    static void questionService(DynamicPropertyRegistry registry) throws IOException {
+        questionService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        questionService.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        questionService.start();
+        registry.add("spring.cloud.discovery.client.simple.instances.QUESTION-SERVICE[0].uri",
+                () -> "http://localhost:" + questionService.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopQuestionService() {
+        questionService.stop(0);
+    }
+
+    @Test
+    void prometheusEndpoint_exportsLatencyHistogramsPoolAndCacheMetrics() {
+        Quiz quiz = new Quiz();
+        quiz.setTitle("Metrics");
+        quiz.setQuestionIds(List.of(1, 2));
+        Integer id = quizDao.save(quiz).getId();
+        RestClient client = RestClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .defaultStatusHandler(status -> true, (request, response) -> { })
+                .build();
+        client.post().uri("/quiz/create").contentType(MediaType.APPLICATION_JSON)
+                .body("{\"title\":\"t\",\"categoryName\":\"Java\",\"numberOfQuestions\":1}")
+                .retrieve().toBodilessEntity();
+        client.get().uri("/quiz/get/{id}", id).retrieve().toBodilessEntity();
+
+        String scrape = client.get().uri("/actuator/prometheus").retrieve().body(String.class);
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{application=\"quiz-service\"")
+                .containsPattern("http_server_requests_seconds_bucket\\{[^}]*uri=\"/quiz/get/\\{id}\"")
+                .containsPattern("feign_client_requests_seconds_bucket\\{[^ ]*clientName=\"[^\"]*QuizInterface\"")
+                .containsPattern("http_client_requests_seconds_bucket\\{[^}]*uri=\"/question/getQuestions\"")
+                .containsPattern("spring_data_repository_invocations_seconds_bucket\\{[^}]*repository=\"QuizDao\"")
+                .contains("hikaricp_connections_active{")
+                .contains("tomcat_threads_busy_threads{")
+                .containsPattern("cache_gets_total\\{[^}]*cache=\"quiz-definitions\"");
+    }
+}
@@ -0,0 +1,100 @@
+package com.maxwell.quizservice;
+
+import com.maxwell.commons.tracing.RecordedSpan;
+import com.maxwell.commons.tracing.RecordedTrace;
+import com.maxwell.commons.tracing.SlowTraceRecorder;
+import com.maxwell.quizservice.dao.QuizDao;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.micrometer.tracing.test.autoconfigure.AutoConfigureTracing;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// Every request is kept (slow threshold 0), and a stub question-service records the trace headers it receives.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "quiz.tracing.slow-threshold=0ms")
+@AutoConfigureTracing
+@ActiveProfiles("test")
+class QuizServiceTracingTest {
+
+    static HttpServer questionService;
+    static final Map<String, String> traceparents = new ConcurrentHashMap<>();
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    SlowTraceRecorder recorder;
+
+    @Autowired
+    QuizDao quizDao;
+
+    @DynamicPropertySource
+    static void questionService(DynamicPropertyRegistry registry) throws IOException {
+        questionService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        questionService.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            traceparents.put(path, String.valueOf(exchange.getRequestHeaders().getFirst("traceparent")));
+            byte[] body = (path.equals("/question/generate") ? "[1,2]"
+                    : "[{\"id\":1,\"questionTitle\":\"q1\"},{\"id\":2,\"questionTitle\":\"q2\"}]")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        questionService.start();
+        registry.add("spring.cloud.discovery.client.simple.instances.QUESTION-SERVICE[0].uri",
+                () -> "http://localhost:" + questionService.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopQuestionService() {
+        questionService.stop(0);
+    }
+
+    @Test
+    void getQuiz_tracesServerJdbcAndClientSpansAndPropagatesTheTrace() {
+        RestClient client = RestClient.create("http://localhost:" + port);
+        client.post().uri("/quiz/create").contentType(MediaType.APPLICATION_JSON)
+                .body("{\"title\":\"t\",\"categoryName\":\"Java\",\"numberOfQuestions\":2}")
+                .retrieve().toBodilessEntity();
+        Integer quizId = quizDao.findAll().getLast().getId();
+        recorder.clear();
+
+        client.get().uri("/quiz/get/{id}", quizId).retrieve().toBodilessEntity();
+
+        // The server span finishes just after the response is written.
+        RecordedTrace trace = await().atMost(Duration.ofSeconds(5)).until(() -> recorder.traces().stream()
+                .filter(candidate -> candidate.name().contains("/quiz/get/{id}"))
+                .findFirst(), Optional::isPresent).orElseThrow();
+        List<RecordedSpan> spans = trace.spans();
+        assertThat(spans).anySatisfy(span -> assertThat(span.kind()).isEqualTo("SERVER"));
+        assertThat(spans).anySatisfy(span -> assertThat(span.name()).startsWith("query"));
+        assertThat(spans).anySatisfy(span -> {
+            assertThat(span.kind()).isEqualTo("CLIENT");
+            assertThat(span.tags()).containsValue("/question/getQuestions");
+        });
+        assertThat(traceparents.get("/question/getQuestions")).contains(trace.traceId());
+        assertThat(traceparents.get("/question/generate")).startsWith("00-");
+    }
+}
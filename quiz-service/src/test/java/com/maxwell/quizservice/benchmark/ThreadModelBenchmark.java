@@ -0,0 +1,160 @@
+package com.maxwell.quizservice.benchmark;
+
+import com.maxwell.quizservice.QuizServiceApplication;
+import com.maxwell.quizservice.dao.QuizDao;
+import com.maxwell.quizservice.model.Quiz;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares quiz-service on Tomcat's platform thread pool with the virtual-thread profile. Every
+ * request to {@code POST /quiz/submit/{id}} makes one blocking Feign call to a stub question-service
+ * that answers after a fixed delay, which is the pattern that exhausts the platform pool.
+ * <p>
+ * Not part of the regular build. Run with:
+ * <pre>
+ * ./mvnw test -Dtest=ThreadModelBenchmark -Dbenchmark=true \
+ *     -Dbenchmark.concurrency=2000 -Dbenchmark.requests=40000 -Dbenchmark.upstream-latency-ms=200
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadModelBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20000);
+    private static final long UPSTREAM_LATENCY_MS = Long.getLong("benchmark.upstream-latency-ms", 200);
+    private static final int QUESTIONS_PER_QUIZ = 10;
+
+    @Test
+    void compareThreadModels() throws Exception {
+        HttpServer upstream = startStubQuestionService();
+        try {
+            Result platform = run(false, upstream.getAddress().getPort());
+            Result virtual = run(true, upstream.getAddress().getPort());
+            System.out.printf("%nconcurrency=%d requests=%d upstream latency=%dms%n", CONCURRENCY, REQUESTS, UPSTREAM_LATENCY_MS);
+            System.out.printf("%-10s %12s %10s %10s %10s %8s%n", "threads", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+            platform.print("platform");
+            virtual.print("virtual");
+            assertThat(platform.errors + virtual.errors).isZero();
+        } finally {
+            upstream.stop(0);
+        }
+    }
+
+    private Result run(boolean virtualThreads, int upstreamPort) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(QuizServiceApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.max-connections=20000",
+                        "--server.tomcat.accept-count=1000",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-" + virtualThreads + ";MODE=PostgreSQL",
+                        "--spring.cloud.discovery.client.simple.instances.QUESTION-SERVICE[0].uri=http://localhost:" + upstreamPort,
+                        "--logging.level.root=WARN")) {
+            Quiz quiz = new Quiz();
+            quiz.setTitle("Benchmark");
+            quiz.setQuestionIds(IntStream.rangeClosed(1, QUESTIONS_PER_QUIZ).boxed().toList());
+            int quizId = context.getBean(QuizDao.class).save(quiz).getId();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/quiz/submit/" + quizId);
+
+            load(uri, Math.max(REQUESTS / 10, CONCURRENCY));
+            return load(uri, REQUESTS);
+        }
+    }
+
+    private static Result load(URI uri, int requests) throws InterruptedException {
+        String body = IntStream.rangeClosed(1, QUESTIONS_PER_QUIZ)
+                .mapToObj(id -> "{\"id\":" + id + ",\"response\":\"a\"}")
+                .reduce((a, b) -> a + "," + b).map(list -> "[" + list + "]").orElseThrow();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build()) {
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                inFlight.acquire();
+                executor.execute(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - sent;
+                        inFlight.release();
+                    }
+                });
+            }
+            inFlight.acquire(CONCURRENCY);
+        }
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Result(requests * 1e9 / elapsed, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                latencies[latencies.length - 1] / 1e6, errors.get());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+
+    private static HttpServer startStubQuestionService() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        boolean[] correct = new boolean[QUESTIONS_PER_QUIZ];
+        byte[] body = ("{\"score\":0,\"correct\":" + Arrays.toString(correct) + "}").getBytes(StandardCharsets.UTF_8);
+        server.createContext("/question/gradeAnswerSheet", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(UPSTREAM_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return server;
+    }
+
+    private record Result(double throughput, double p50, double p99, double max, int errors) {
+
+        void print(String threads) {
+            System.out.printf("%-10s %12.0f %10.1f %10.1f %10.1f %8d%n", threads, throughput, p50, p99, max, errors);
+        }
+    }
+}
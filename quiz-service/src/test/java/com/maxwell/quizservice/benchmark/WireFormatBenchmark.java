@@ -0,0 +1,89 @@
+package com.maxwell.quizservice.benchmark;
+
+import com.maxwell.quizservice.model.QuestionWrapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares payload size and serialization CPU of JSON, CBOR and Smile for the two payloads that
+ * dominate traffic to question-service: question lists and id lists. CPU is thread CPU time per
+ * encode plus decode, after a warm-up pass.
+ * <p>
+ * Not part of the regular build. Run with:
+ * <pre>
+ * ./mvnw test -Dtest=WireFormatBenchmark -Dbenchmark=true \
+ *     -Dbenchmark.questions=50 -Dbenchmark.iterations=20000
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class WireFormatBenchmark {
+
+    private static final int QUESTIONS = Integer.getInteger("benchmark.questions", 50);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 20000);
+
+    private static final TypeReference<List<QuestionWrapper>> QUESTION_LIST = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Integer>> ID_LIST = new TypeReference<>() {
+    };
+
+    private static final Map<String, ObjectMapper> FORMATS = Map.of(
+            "json", JsonMapper.builder().build(),
+            "cbor", CBORMapper.builder().build(),
+            "smile", SmileMapper.builder().build());
+
+    @Test
+    void compareWireFormats() {
+        List<QuestionWrapper> questions = IntStream.range(0, QUESTIONS)
+                .mapToObj(i -> new QuestionWrapper(100_000 + i, "Which keyword declares a constant in Java? #" + i,
+                        "final", "static", "const", "volatile"))
+                .toList();
+        List<Integer> ids = questions.stream().map(QuestionWrapper::getId).toList();
+
+        System.out.printf("%n%d questions, %d iterations%n", QUESTIONS, ITERATIONS);
+        System.out.printf("%-8s %-10s %10s %14s%n", "format", "payload", "bytes", "cpu us/op");
+        for (String format : List.of("json", "cbor", "smile")) {
+            ObjectMapper mapper = FORMATS.get(format);
+            Result questionResult = measure(mapper, questions, QUESTION_LIST);
+            Result idResult = measure(mapper, ids, ID_LIST);
+            questionResult.print(format, "questions");
+            idResult.print(format, "ids");
+        }
+    }
+
+    private static <T> Result measure(ObjectMapper mapper, T value, TypeReference<T> type) {
+        byte[] encoded = mapper.writeValueAsBytes(value);
+        assertThat(mapper.readValue(encoded, type)).isEqualTo(value);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        roundTrips(mapper, value, type);
+        long start = threads.getCurrentThreadCpuTime();
+        roundTrips(mapper, value, type);
+        long cpuNanos = threads.getCurrentThreadCpuTime() - start;
+        return new Result(encoded.length, cpuNanos / 1e3 / ITERATIONS);
+    }
+
+    private static <T> void roundTrips(ObjectMapper mapper, T value, TypeReference<T> type) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(value), type);
+        }
+    }
+
+    private record Result(int bytes, double cpuMicrosPerOp) {
+
+        void print(String format, String payload) {
+            System.out.printf("%-8s %-10s %10d %14.2f%n", format, payload, bytes, cpuMicrosPerOp);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.maxwell.quizservice.cache;
+
+import com.maxwell.commons.cache.ResponseBodyCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheMetricsConfigTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final QuizDefinitionCache definitionCache = new QuizDefinitionCache(100);
+
+    @Test
+    void quizCaches_publishHitsAndMissesPerCache() {
+        new CacheMetricsConfig().quizCacheMetrics(new QuizQuestionCache(1024, Duration.ofMinutes(1)), definitionCache,
+                new ResponseBodyCache(1024, Duration.ofMinutes(1), 2048, JsonMapper.builder().build())).bindTo(registry);
+
+        definitionCache.questionIds(1, id -> List.of(1, 2));
+        definitionCache.questionIds(1, id -> List.of(1, 2));
+
+        assertThat(registry.get("cache.gets").tags("cache", "quiz-definitions", "result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", "quiz-definitions", "result", "miss").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.find("cache.gets").tag("cache", "quiz-questions").meters()).isNotEmpty();
+        assertThat(registry.find("cache.gets").tag("cache", "quiz-responses").meters()).isNotEmpty();
+    }
+}
@@ -0,0 +1,38 @@
+package com.maxwell.quizservice.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuizDefinitionCacheTest {
+
+    private final QuizDefinitionCache cache = new QuizDefinitionCache(100);
+
+    @Test
+    void questionIds_loadsOnceAndKeepsOrder() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.questionIds(1, id -> {
+            loads.incrementAndGet();
+            return List.of(5, 3, 9);
+        });
+        int[] ids = cache.questionIds(1, id -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertThat(ids).containsExactly(5, 3, 9);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidate_forcesReload() {
+        cache.questionIds(1, id -> List.of(1));
+        cache.invalidate(1);
+
+        assertThat(cache.questionIds(1, id -> List.of(2))).containsExactly(2);
+    }
+}
@@ -0,0 +1,123 @@
+package com.maxwell.quizservice.cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.maxwell.quizservice.model.QuestionWrapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QuizQuestionCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+
+    @Test
+    void get_loadsOnceAndServesHitsFromMemory() {
+        QuizQuestionCache cache = new QuizQuestionCache(1 << 20, Duration.ofMinutes(10), ticker, Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, id -> load(loads, id));
+        List<QuestionWrapper> second = cache.get(1, id -> load(loads, id));
+
+        assertThat(second).extracting(QuestionWrapper::getId).containsExactly(1);
+        assertThat(loads).hasValue(1);
+        QuizQuestionCacheStats stats = cache.stats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getWeightedBytes()).isPositive();
+    }
+
+    @Test
+    void get_concurrentMissesForSameQuiz_shareOneLoad() throws Exception {
+        QuizQuestionCache cache = new QuizQuestionCache(1 << 20, Duration.ofMinutes(10), ticker, Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<List<QuestionWrapper>>> results = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                results.add(pool.submit(() -> cache.get(7, id -> {
+                    await(release);
+                    return load(loads, id);
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<List<QuestionWrapper>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).extracting(QuestionWrapper::getId).containsExactly(7);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_afterTtl_reloads() {
+        QuizQuestionCache cache = new QuizQuestionCache(1 << 20, Duration.ofMinutes(10), ticker, Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, id -> load(loads, id));
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+        cache.get(1, id -> load(loads, id));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_beyondByteBudget_evictsEntries() {
+        List<QuestionWrapper> sample = List.of(wrapper(1));
+        long budget = QuizQuestionCache.estimateBytes(sample) * 3L;
+        QuizQuestionCache cache = new QuizQuestionCache(budget, Duration.ofMinutes(10), ticker, Runnable::run);
+
+        for (int quizId = 1; quizId <= 10; quizId++) {
+            cache.get(quizId, id -> List.of(wrapper(1)));
+        }
+
+        assertThat(cache.stats().getEntries()).isLessThanOrEqualTo(3);
+        assertThat(cache.stats().getEvictions()).isGreaterThanOrEqualTo(7);
+    }
+
+    @Test
+    void get_whenLoaderFails_doesNotCacheFailure() {
+        QuizQuestionCache cache = new QuizQuestionCache(1 << 20, Duration.ofMinutes(10), ticker, Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThatThrownBy(() -> cache.get(1, id -> {
+            throw new RuntimeException("upstream down");
+        })).hasMessage("upstream down");
+        cache.get(1, id -> load(loads, id));
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().getLoadFailures()).isEqualTo(1);
+    }
+
+    private static List<QuestionWrapper> load(AtomicInteger loads, Integer quizId) {
+        loads.incrementAndGet();
+        return List.of(wrapper(quizId));
+    }
+
+    private static QuestionWrapper wrapper(int id) {
+        return new QuestionWrapper(id, "What is Java?", "A language", "A coffee", "A framework", "An OS");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
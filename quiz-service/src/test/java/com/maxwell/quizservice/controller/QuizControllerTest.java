@@ -1,8 +1,11 @@
 package com.maxwell.quizservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maxwell.quizservice.cache.QuizQuestionCacheStats;
+import com.maxwell.quizservice.model.QuestionResult;
 import com.maxwell.quizservice.model.QuestionWrapper;
 import com.maxwell.quizservice.model.QuizDto;
+import com.maxwell.quizservice.model.QuizResult;
 import com.maxwell.quizservice.model.Response;
 import com.maxwell.quizservice.service.QuizService;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,8 +22,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -47,7 +53,7 @@ class QuizControllerTest {
 
     @Test
     void createQuiz_returns201OnSuccess() throws Exception {
-        when(quizService.createQuiz(eq("Java"), eq(5), eq("Java Quiz")))
+        when(quizService.createQuiz(eq("Java"), eq(5), eq("Java Quiz"), isNull(), isNull()))
                 .thenReturn(new ResponseEntity<>("Quiz created successfully", HttpStatus.CREATED));
 
         QuizDto dto = new QuizDto();
@@ -62,10 +68,22 @@ class QuizControllerTest {
                 .andExpect(content().string("Quiz created successfully"));
     }
 
+    @Test
+    void createQuiz_withDifficultyMix_passesMixAndSeed() throws Exception {
+        when(quizService.createQuiz(eq("Java"), eq(5), eq("Mixed Quiz"), eq(Map.of("Easy", 60, "Hard", 40)), eq(7L)))
+                .thenReturn(new ResponseEntity<>("Quiz created successfully", HttpStatus.CREATED));
+
+        mockMvc.perform(post("/quiz/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Mixed Quiz\",\"categoryName\":\"Java\",\"numberOfQuestions\":5," +
+                                "\"difficultyMix\":{\"Easy\":60,\"Hard\":40},\"seed\":7}"))
+                .andExpect(status().isCreated());
+    }
+
     @Test
     void getQuizQuestions_returns200WithQuestions() throws Exception {
-        when(quizService.getQuizQuestions(1))
-                .thenReturn(new ResponseEntity<>(List.of(wrapper), HttpStatus.OK));
+        doReturn(new ResponseEntity<>(List.of(wrapper), HttpStatus.OK))
+                .when(quizService).getQuizQuestions(eq(1), any(HttpHeaders.class));
 
         mockMvc.perform(get("/quiz/get/1"))
                 .andExpect(status().isOk())
@@ -88,4 +106,43 @@ class QuizControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("3"));
     }
+
+    @Test
+    void submitQuizWithDetails_returnsQuizResult() throws Exception {
+        QuizResult result = new QuizResult(1, 1, 2, 1,
+                List.of(new QuestionResult(1, true, true), new QuestionResult(2, false, false)), List.of(), 3);
+        when(quizService.calculateDetailedResult(eq(1), anyList()))
+                .thenReturn(new ResponseEntity<>(result, HttpStatus.OK));
+
+        mockMvc.perform(post("/quiz/submit/1/details")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":1,\"response\":\"A language\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.score").value(1))
+                .andExpect(jsonPath("$.questions[0].correct").value(true))
+                .andExpect(jsonPath("$.questions[1].answered").value(false));
+    }
+
+    @Test
+    void getQuestionCacheStats_returnsStats() throws Exception {
+        when(quizService.getQuestionCacheStats())
+                .thenReturn(new ResponseEntity<>(new QuizQuestionCacheStats(2, 512, 5, 2, 2, 0, 0, 5 / 7.0), HttpStatus.OK));
+
+        mockMvc.perform(get("/quiz/questionCache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries").value(2))
+                .andExpect(jsonPath("$.hits").value(5));
+    }
+
+    @Test
+    void questionsChanged_returnsAffectedQuizIds() throws Exception {
+        when(quizService.questionsChanged(List.of(3, 4))).thenReturn(new ResponseEntity<>(List.of(1, 2), HttpStatus.OK));
+
+        mockMvc.perform(post("/quiz/questionsChanged")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[3,4]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value(1))
+                .andExpect(jsonPath("$[1]").value(2));
+    }
 }
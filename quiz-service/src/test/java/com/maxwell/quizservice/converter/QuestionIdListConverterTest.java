@@ -0,0 +1,66 @@
+package com.maxwell.quizservice.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QuestionIdListConverterTest {
+
+    private final QuestionIdListConverter converter = new QuestionIdListConverter();
+
+    @Test
+    void roundTrip_preservesOrderAndDuplicates() {
+        List<Integer> ids = List.of(42, 7, 7, 1_000_000, 0, -3, Integer.MAX_VALUE, Integer.MIN_VALUE);
+
+        assertThat(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(ids)))
+                .containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void roundTrip_emptyAndNull() {
+        assertThat(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(List.of()))).isEmpty();
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+
+    @Test
+    void convertToDatabaseColumn_packsNearbyIdsIntoFewBytes() {
+        List<Integer> ids = IntStream.range(0, 100).map(i -> 50_000 + i * 3).boxed().toList();
+
+        byte[] packed = converter.convertToDatabaseColumn(ids);
+
+        // version + count + first id (3 bytes) + 99 one-byte deltas
+        assertThat(packed).hasSize(1 + 1 + 3 + 99);
+    }
+
+    @Test
+    void convertToEntityAttribute_returnsMutableList() {
+        List<Integer> ids = converter.convertToEntityAttribute(converter.convertToDatabaseColumn(List.of(1, 2)));
+
+        ids.add(3);
+
+        assertThat(ids).isInstanceOf(ArrayList.class).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void convertToDatabaseColumn_rejectsNullIds() {
+        assertThatThrownBy(() -> converter.convertToDatabaseColumn(Arrays.asList(1, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void convertToEntityAttribute_rejectsCorruptData() {
+        byte[] packed = converter.convertToDatabaseColumn(List.of(300, 600));
+
+        assertThatThrownBy(() -> converter.convertToEntityAttribute(Arrays.copyOf(packed, packed.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> converter.convertToEntityAttribute(new byte[]{9, 0}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,103 @@
+package com.maxwell.quizservice.dao;
+
+import com.maxwell.quizservice.converter.QuestionIdListConverter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LegacyQuestionIdsMigrationTest {
+
+    private final QuestionIdListConverter converter = new QuestionIdListConverter();
+
+    private JdbcTemplate jdbcTemplate;
+    private LegacyQuestionIdsMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE quiz (id INTEGER PRIMARY KEY, title VARCHAR(255), question_ids VARBINARY(1048576))");
+        migration = new LegacyQuestionIdsMigration(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        migration.batchSize = 2;
+    }
+
+    @Test
+    void migrate_withoutLegacyTable_doesNothing() {
+        jdbcTemplate.update("INSERT INTO quiz (id, title) VALUES (1, 'Java')");
+
+        assertThat(migration.migrate()).isZero();
+    }
+
+    @Test
+    void migrate_copiesIdsAndEmptiesJoinTable() {
+        jdbcTemplate.execute("CREATE TABLE quiz_question_ids (quiz_id INTEGER NOT NULL, question_ids INTEGER)");
+        for (int quizId = 1; quizId <= 5; quizId++) {
+            jdbcTemplate.update("INSERT INTO quiz (id, title) VALUES (?, 'Quiz')", quizId);
+        }
+        insertLegacy(1, 9, 3, 5);
+        insertLegacy(2, 4);
+        insertLegacy(4, 8, 8, 1);
+        // Quiz 5 was already written in the new format and must be left untouched.
+        jdbcTemplate.update("UPDATE quiz SET question_ids = ? WHERE id = 5", (Object) converter.convertToDatabaseColumn(List.of(77)));
+
+        int migrated = migration.migrate();
+
+        assertThat(migrated).isEqualTo(4);
+        assertThat(storedIds(1)).containsExactly(3, 5, 9);
+        assertThat(storedIds(2)).containsExactly(4);
+        assertThat(storedIds(3)).isEmpty();
+        assertThat(storedIds(4)).containsExactly(1, 8, 8);
+        assertThat(storedIds(5)).containsExactly(77);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM quiz_question_ids", Integer.class)).isZero();
+        assertThat(migration.migrate()).isZero();
+    }
+
+    @Test
+    void migrateBatch_skipsQuizzesAnotherInstanceAlreadyMigrated() {
+        jdbcTemplate.execute("CREATE TABLE quiz_question_ids (quiz_id INTEGER NOT NULL, question_ids INTEGER)");
+        jdbcTemplate.update("INSERT INTO quiz (id, title) VALUES (1, 'Quiz')");
+        jdbcTemplate.update("INSERT INTO quiz (id, title) VALUES (2, 'Quiz')");
+        insertLegacy(2, 6);
+        // Quiz 1 was selected by both instances; the other one has already committed it.
+        jdbcTemplate.update("UPDATE quiz SET question_ids = ? WHERE id = 1", (Object) converter.convertToDatabaseColumn(List.of(4, 7)));
+
+        int migrated = migration.migrateBatch(List.of(1, 2));
+
+        assertThat(migrated).isEqualTo(1);
+        assertThat(storedIds(1)).containsExactly(4, 7);
+        assertThat(storedIds(2)).containsExactly(6);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_whenMigrationFails_failsStartup() {
+        // A join table without the id column cannot be read.
+        jdbcTemplate.execute("CREATE TABLE quiz_question_ids (quiz_id INTEGER NOT NULL)");
+        jdbcTemplate.update("INSERT INTO quiz (id, title) VALUES (1, 'Quiz')");
+
+        assertThatThrownBy(migration::afterSingletonsInstantiated)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("quiz_question_ids");
+    }
+
+    private void insertLegacy(int quizId, int... questionIds) {
+        for (int questionId : questionIds) {
+            jdbcTemplate.update("INSERT INTO quiz_question_ids (quiz_id, question_ids) VALUES (?, ?)", quizId, questionId);
+        }
+    }
+
+    private List<Integer> storedIds(int quizId) {
+        byte[] packed = jdbcTemplate.queryForObject("SELECT question_ids FROM quiz WHERE id = ?", byte[].class, quizId);
+        return converter.convertToEntityAttribute(packed);
+    }
+}
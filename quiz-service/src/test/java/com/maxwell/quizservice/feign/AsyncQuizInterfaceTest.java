@@ -0,0 +1,276 @@
+package com.maxwell.quizservice.feign;
+
+import com.maxwell.quizservice.model.AnswerSheet;
+import com.maxwell.quizservice.model.AnswerSheetResult;
+import com.maxwell.quizservice.model.QuestionWrapper;
+import com.maxwell.quizservice.resilience.QuestionServiceResilience;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncQuizInterfaceTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final CBORMapper cborMapper = CBORMapper.builder().build();
+    private final List<String> receivedContentTypes = new CopyOnWriteArrayList<>();
+    private final List<List<Integer>> receivedChunks = new CopyOnWriteArrayList<>();
+    private final Map<Integer, AtomicInteger> attemptsByFirstId = new ConcurrentHashMap<>();
+    // Calls the client is still making, counted around the blocking exchange.
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private QuestionServiceResilience resilience;
+    private AsyncQuizInterface client;
+    private volatile int slowFirstId = -1;
+    private volatile boolean failWithNotFound;
+    private volatile boolean stall;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/question/getQuestions", this::getQuestions);
+        server.createContext("/question/gradeAnswerSheet", this::gradeAnswerSheet);
+        server.createContext("/question/generate", exchange ->
+                respond(exchange, 200, "[" + exchange.getRequestURI().getQuery().length() + "]"));
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        resilience = new QuestionServiceResilience(50, Duration.ofSeconds(2), 20, Duration.ofSeconds(10),
+                100, Duration.ZERO, 2, Duration.ofMillis(10), Duration.ofSeconds(5));
+        client = client(QuestionWireFormat.JSON);
+    }
+
+    private AsyncQuizInterface client(QuestionWireFormat wireFormat) {
+        return client(wireFormat, Duration.ofMillis(500), resilience);
+    }
+
+    private AsyncQuizInterface client(QuestionWireFormat wireFormat, Duration chunkTimeout,
+                                      QuestionServiceResilience resilience) {
+        RestClient restClient = RestClient.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .requestInterceptor((request, body, execution) -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        return execution.execute(request, body);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                })
+                .build();
+        return new AsyncQuizInterface(restClient, executor, 2, chunkTimeout, wireFormat, resilience);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.close();
+        resilience.shutdown();
+    }
+
+    @Test
+    void getQuestionsFromId_fetchesChunksInParallelAndKeepsOrder() throws Exception {
+        List<Integer> ids = List.of(9, 4, 7, 4, 1);
+
+        List<QuestionWrapper> questions = client.getQuestionsFromId(ids).get(5, TimeUnit.SECONDS);
+
+        assertThat(questions).extracting(QuestionWrapper::getId).containsExactlyElementsOf(ids);
+        assertThat(receivedChunks).containsExactlyInAnyOrder(List.of(9, 4), List.of(7, 4), List.of(1));
+    }
+
+    @Test
+    void getQuestionsFromId_retriesSlowChunk() throws Exception {
+        slowFirstId = 7;
+
+        List<QuestionWrapper> questions = client.getQuestionsFromId(List.of(9, 4, 7, 3)).get(5, TimeUnit.SECONDS);
+
+        assertThat(questions).extracting(QuestionWrapper::getId).containsExactly(9, 4, 7, 3);
+        assertThat(attemptsByFirstId.get(7)).hasValue(2);
+        assertThat(attemptsByFirstId.get(9)).hasValue(1);
+    }
+
+    @Test
+    void getQuestionsFromId_stalledChunk_isAbortedWhenItTimesOut() {
+        stall = true;
+        long start = System.nanoTime();
+
+        assertThatThrownBy(() -> client.getQuestionsFromId(List.of(1)).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+        // Both attempts timed out after 500 ms each, well before the stub answers, and neither is still running.
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(attemptsByFirstId.get(1)).hasValue(2);
+        assertThat(inFlight).hasValue(0);
+    }
+
+    @Test
+    void getQuestionsFromId_stalledUpstream_neverExceedsTheBulkhead() {
+        stall = true;
+        QuestionServiceResilience bounded = new QuestionServiceResilience(50, Duration.ofSeconds(2), 20,
+                Duration.ofSeconds(10), 2, Duration.ZERO, 3, Duration.ofMillis(10), Duration.ofMillis(100));
+        try {
+            AsyncQuizInterface client = client(QuestionWireFormat.JSON, Duration.ofMillis(200), bounded);
+
+            // Two chunks, each hedged and retried after its attempts time out.
+            assertThatThrownBy(() -> client.getQuestionsFromId(List.of(1, 2, 3, 4)).get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class);
+
+            assertThat(receivedChunks).hasSizeGreaterThan(2);
+            assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+        } finally {
+            bounded.shutdown();
+        }
+    }
+
+    @Test
+    void getQuestionsFromId_doesNotRetryClientErrors() {
+        failWithNotFound = true;
+
+        assertThatThrownBy(() -> client.getQuestionsFromId(List.of(1)).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RestClientResponseException.class);
+        assertThat(attemptsByFirstId.get(1)).hasValue(1);
+    }
+
+    @Test
+    void getQuestionsFromId_withEmptyList_makesNoCalls() throws Exception {
+        assertThat(client.getQuestionsFromId(List.of()).get(5, TimeUnit.SECONDS)).isEmpty();
+        assertThat(receivedChunks).isEmpty();
+    }
+
+    @Test
+    void getQuestionsFromId_withCbor_exchangesCborBodies() throws Exception {
+        AsyncQuizInterface cborClient = client(QuestionWireFormat.CBOR);
+
+        List<QuestionWrapper> questions = cborClient.getQuestionsFromId(List.of(3, 1, 2)).get(5, TimeUnit.SECONDS);
+
+        assertThat(questions).extracting(QuestionWrapper::getId).containsExactly(3, 1, 2);
+        assertThat(receivedContentTypes).hasSize(2).allMatch(type -> type.startsWith("application/cbor"));
+    }
+
+    @Test
+    void getQuestionsForQuiz_withCbor_acceptsJsonFallback() throws Exception {
+        AsyncQuizInterface cborClient = client(QuestionWireFormat.CBOR);
+
+        assertThat(cborClient.getQuestionsForQuiz("Java", 5, null, null).get(5, TimeUnit.SECONDS))
+                .containsExactly("categoryName=Java&numberOfQuestions=5".length());
+    }
+
+    @Test
+    void gradeAnswerSheet_mergesChunkResultsInOrder() throws Exception {
+        // The stub marks even question ids as correct.
+        AnswerSheet sheet = new AnswerSheet(new int[]{2, 3, 4, 5, 6}, List.of("a", "b", "c", "d", "e"));
+
+        AnswerSheetResult result = client.gradeAnswerSheet(sheet).get(5, TimeUnit.SECONDS);
+
+        assertThat(result.getScore()).isEqualTo(3);
+        assertThat(result.getCorrect()).containsExactly(true, false, true, false, true);
+        assertThat(receivedChunks).hasSize(3);
+    }
+
+    @Test
+    void getQuestionsForQuiz_returnsIds() throws Exception {
+        assertThat(client.getQuestionsForQuiz("Java", 5, null, null).get(5, TimeUnit.SECONDS))
+                .containsExactly("categoryName=Java&numberOfQuestions=5".length());
+    }
+
+    private void getQuestions(HttpExchange exchange) throws IOException {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        receivedContentTypes.add(contentType);
+        boolean cbor = contentType.startsWith("application/cbor");
+        List<Integer> ids = (cbor ? cborMapper : jsonMapper).readValue(exchange.getRequestBody(),
+                new TypeReference<List<Integer>>() {
+                });
+        if (!record(exchange, ids)) {
+            return;
+        }
+        List<QuestionWrapper> questions = new ArrayList<>();
+        for (Integer id : ids) {
+            questions.add(new QuestionWrapper(id, "Question " + id, "a", "b", "c", "d"));
+        }
+        if (cbor && exchange.getRequestHeaders().getFirst("Accept").startsWith("application/cbor")) {
+            respond(exchange, 200, "application/cbor", cborMapper.writeValueAsBytes(questions));
+        } else {
+            respond(exchange, 200, jsonMapper.writeValueAsString(questions));
+        }
+    }
+
+    private void gradeAnswerSheet(HttpExchange exchange) throws IOException {
+        AnswerSheet sheet = jsonMapper.readValue(exchange.getRequestBody(), AnswerSheet.class);
+        List<Integer> ids = IntStream.of(sheet.getQuestionIds()).boxed().toList();
+        if (!record(exchange, ids)) {
+            return;
+        }
+        boolean[] correct = new boolean[ids.size()];
+        int score = 0;
+        for (int i = 0; i < correct.length; i++) {
+            correct[i] = ids.get(i) % 2 == 0;
+            score += correct[i] ? 1 : 0;
+        }
+        respond(exchange, 200, jsonMapper.writeValueAsString(new AnswerSheetResult(score, correct)));
+    }
+
+    private boolean record(HttpExchange exchange, List<Integer> ids) throws IOException {
+        receivedChunks.add(ids);
+        int attempt = ids.isEmpty() ? 1
+                : attemptsByFirstId.computeIfAbsent(ids.get(0), id -> new AtomicInteger()).incrementAndGet();
+        if (failWithNotFound) {
+            respond(exchange, 404, "Questions not found");
+            return false;
+        }
+        try {
+            if (stall) {
+                Thread.sleep(5000);
+            } else if (!ids.isEmpty() && ids.get(0) == slowFirstId && attempt == 1) {
+                Thread.sleep(2000);
+            } else {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(20));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        respond(exchange, status, "application/json", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] bytes) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.maxwell.quizservice.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class LatencyAwareLoadBalancerTest {
+
+    private static final ServiceInstance FAST = instance(8081);
+    private static final ServiceInstance SLOW = instance(8082);
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(10);
+
+    private final AtomicLong nanos = new AtomicLong(1);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final InstanceLoadTracker tracker =
+            new InstanceLoadTracker(Duration.ofSeconds(10), Duration.ofSeconds(1), IDLE_EXPIRY, registry, nanos::get);
+
+    @Test
+    void peakEwma_prefersTheFasterInstance() {
+        call(FAST, Duration.ofMillis(5), null);
+        call(SLOW, Duration.ofMillis(200), null);
+        LatencyAwareLoadBalancer balancer = balancer(BalancingStrategy.PEAK_EWMA);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(balancer.choose(List.of(FAST, SLOW)).getServer()).isEqualTo(FAST);
+            assertThat(balancer.choose(List.of(SLOW, FAST)).getServer()).isEqualTo(FAST);
+        }
+    }
+
+    @Test
+    void peakEwma_weighsLatencyByRequestsInFlight() {
+        call(FAST, Duration.ofMillis(10), null);
+        call(SLOW, Duration.ofMillis(30), null);
+        for (int i = 0; i < 3; i++) {
+            start(FAST);
+        }
+
+        assertThat(tracker.cost(FAST, BalancingStrategy.PEAK_EWMA))
+                .isGreaterThan(tracker.cost(SLOW, BalancingStrategy.PEAK_EWMA));
+    }
+
+    @Test
+    void leastOutstanding_prefersTheLessBusyInstance() {
+        start(FAST);
+        start(FAST);
+        start(SLOW);
+        LatencyAwareLoadBalancer balancer = balancer(BalancingStrategy.LEAST_OUTSTANDING);
+
+        assertThat(balancer.choose(List.of(FAST, SLOW)).getServer()).isEqualTo(SLOW);
+        assertThat(tracker.outstanding(FAST)).isEqualTo(2);
+    }
+
+    @Test
+    void unmeasuredInstance_takesOneRequestUntilItsLatencyIsKnown() {
+        call(SLOW, Duration.ofMillis(500), null);
+
+        assertThat(tracker.cost(FAST, BalancingStrategy.PEAK_EWMA)).isZero();
+        start(FAST);
+        assertThat(tracker.cost(FAST, BalancingStrategy.PEAK_EWMA))
+                .isGreaterThan(tracker.cost(SLOW, BalancingStrategy.PEAK_EWMA));
+    }
+
+    @Test
+    void fastFailures_areChargedTheFailurePenalty() {
+        call(FAST, Duration.ofMillis(20), null);
+        call(SLOW, Duration.ofMillis(2), HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertThat(tracker.cost(SLOW, BalancingStrategy.PEAK_EWMA))
+                .isGreaterThan(tracker.cost(FAST, BalancingStrategy.PEAK_EWMA));
+        assertThat(registry.get("quiz.loadbalancer.requests").tag("instance", "localhost:8082")
+                .tag("outcome", "failure").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void latencyDecaysWhileIdle_soASlowInstanceIsProbedAgain() {
+        call(FAST, Duration.ofMillis(20), null);
+        call(SLOW, Duration.ofMillis(400), null);
+
+        for (int i = 0; i < 40; i++) {
+            nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+            call(FAST, Duration.ofMillis(20), null);
+        }
+
+        assertThat(tracker.cost(SLOW, BalancingStrategy.PEAK_EWMA))
+                .isLessThan(tracker.cost(FAST, BalancingStrategy.PEAK_EWMA));
+    }
+
+    @Test
+    void publishesPerInstanceGauges() {
+        call(FAST, Duration.ofMillis(40), null);
+        start(FAST);
+
+        assertThat(registry.get("quiz.loadbalancer.outstanding").tag("instance", "localhost:8081").gauge().value())
+                .isEqualTo(1);
+        assertThat(registry.get("quiz.loadbalancer.latency.ewma").tag("instance", "localhost:8081").gauge().value())
+                .isCloseTo(40, offset(0.5));
+    }
+
+    @Test
+    void idleInstances_areForgottenWithTheirMeters() {
+        call(FAST, Duration.ofMillis(5), null);
+        call(SLOW, Duration.ofMillis(5), null);
+        start(SLOW);
+
+        nanos.addAndGet(IDLE_EXPIRY.toNanos() + 1);
+        tracker.cost(instance(8083), BalancingStrategy.PEAK_EWMA);
+
+        assertThat(tracker.trackedInstances()).isEqualTo(2);
+        assertThat(registry.find("quiz.loadbalancer.outstanding").tag("instance", "localhost:8081").gauge()).isNull();
+        assertThat(registry.find("quiz.loadbalancer.requests").tag("instance", "localhost:8081").timers()).isEmpty();
+        // Still has a request in flight, so it is kept.
+        assertThat(tracker.outstanding(SLOW)).isEqualTo(1);
+    }
+
+    @Test
+    void strategy_isResolvedPerClientWithAGlobalFallback() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("quiz.load-balancer.strategy", "least-outstanding")
+                .withProperty("quiz.load-balancer.clients.question-service.strategy", "round-robin");
+
+        assertThat(LatencyAwareLoadBalancerConfiguration.strategy(environment, "QUESTION-SERVICE")).isEqualTo(BalancingStrategy.ROUND_ROBIN);
+        assertThat(LatencyAwareLoadBalancerConfiguration.strategy(environment, "OTHER-SERVICE"))
+                .isEqualTo(BalancingStrategy.LEAST_OUTSTANDING);
+        assertThat(LatencyAwareLoadBalancerConfiguration.strategy(new MockEnvironment(), "QUESTION-SERVICE"))
+                .isEqualTo(BalancingStrategy.PEAK_EWMA);
+    }
+
+    private LatencyAwareLoadBalancer balancer(BalancingStrategy strategy) {
+        return new LatencyAwareLoadBalancer(null, "QUESTION-SERVICE", strategy, tracker);
+    }
+
+    private Request<Object> start(ServiceInstance instance) {
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        tracker.onStartRequest(request, new DefaultResponse(instance));
+        return request;
+    }
+
+    private void call(ServiceInstance instance, Duration latency, HttpStatus status) {
+        Request<Object> request = start(instance);
+        nanos.addAndGet(latency.toNanos());
+        Response<ServiceInstance> lbResponse = new DefaultResponse(instance);
+        Object clientResponse = status == null ? null : new ResponseData(status, null, null, null);
+        tracker.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, lbResponse, clientResponse));
+    }
+
+    private static ServiceInstance instance(int port) {
+        return new DefaultServiceInstance("question-" + port, "QUESTION-SERVICE", "localhost", port, false);
+    }
+}
@@ -0,0 +1,184 @@
+package com.maxwell.quizservice.loadbalancer;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs concurrent callers against three local stub instances of question-service, one of which
+ * answers 30 times slower than the others, and compares where requests land and the resulting tail
+ * latency under round-robin and the latency-aware strategies.
+ * <p>
+ * Its assertions depend on wall-clock timing, so it is not part of the regular build. Run with:
+ * <pre>
+ * ./mvnw test -Dtest=LoadBalancerSimulationTest -Dbenchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoadBalancerSimulationTest {
+
+    private static final int CALLERS = 12;
+    private static final int REQUESTS_PER_CALLER = 30;
+    private static final Duration FAST = Duration.ofMillis(5);
+    private static final Duration SLOW = Duration.ofMillis(150);
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final List<ServiceInstance> instances = new ArrayList<>();
+    private ServiceInstance slowInstance;
+
+    @BeforeEach
+    void startStubInstances() throws IOException {
+        for (Duration delay : List.of(FAST, SLOW, FAST)) {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/question/getQuestions", exchange -> {
+                sleep(delay);
+                exchange.sendResponseHeaders(200, 2);
+                exchange.getResponseBody().write("[]".getBytes());
+                exchange.close();
+            });
+            server.start();
+            servers.add(server);
+            ServiceInstance instance = new DefaultServiceInstance("question-" + servers.size(), "QUESTION-SERVICE",
+                    "127.0.0.1", server.getAddress().getPort(), false);
+            instances.add(instance);
+            if (delay == SLOW) {
+                slowInstance = instance;
+            }
+        }
+    }
+
+    @AfterEach
+    void stopStubInstances() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    void latencyAwareStrategies_steerAwayFromTheSlowInstance() throws Exception {
+        Result roundRobin = simulate(BalancingStrategy.ROUND_ROBIN);
+        Result leastOutstanding = simulate(BalancingStrategy.LEAST_OUTSTANDING);
+        Result peakEwma = simulate(BalancingStrategy.PEAK_EWMA);
+        System.out.printf("%n%-18s %12s %10s%n", "strategy", "slow share", "p99 ms");
+        roundRobin.print("round-robin");
+        leastOutstanding.print("least-outstanding");
+        peakEwma.print("peak-ewma");
+
+        assertThat(roundRobin.slowShare()).isGreaterThan(0.3);
+        assertThat(leastOutstanding.slowShare()).isLessThan(roundRobin.slowShare());
+        assertThat(peakEwma.slowShare()).isLessThan(0.1);
+        assertThat(peakEwma.p99()).isLessThan(roundRobin.p99());
+    }
+
+    private Result simulate(BalancingStrategy strategy) throws Exception {
+        InstanceLoadTracker tracker = new InstanceLoadTracker(Duration.ofSeconds(10), Duration.ofSeconds(1),
+                Duration.ofMinutes(10), new SimpleMeterRegistry(), System::nanoTime);
+        ReactorServiceInstanceLoadBalancer balancer = strategy == BalancingStrategy.ROUND_ROBIN
+                ? new RoundRobinLoadBalancer(instanceList(), "QUESTION-SERVICE")
+                : new LatencyAwareLoadBalancer(instanceList(), "QUESTION-SERVICE", strategy, tracker);
+        Map<ServiceInstance, AtomicInteger> hits = new ConcurrentHashMap<>();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> done = new ArrayList<>();
+            for (int c = 0; c < CALLERS; c++) {
+                done.add(callers.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_CALLER; i++) {
+                        long start = System.nanoTime();
+                        ServiceInstance instance = call(balancer, tracker);
+                        latencies.add(System.nanoTime() - start);
+                        hits.computeIfAbsent(instance, k -> new AtomicInteger()).incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+        }
+        List<Long> sorted = latencies.stream().sorted().toList();
+        int total = CALLERS * REQUESTS_PER_CALLER;
+        int slow = hits.getOrDefault(slowInstance, new AtomicInteger()).get();
+        return new Result((double) slow / total, sorted.get((int) (total * 0.99) - 1) / 1e6);
+    }
+
+    // Mirrors what the blocking load-balancer client does around each request.
+    private ServiceInstance call(ReactorServiceInstanceLoadBalancer balancer, InstanceLoadTracker tracker)
+            throws IOException {
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        Response<ServiceInstance> lbResponse = balancer.choose(request).block();
+        ServiceInstance instance = lbResponse.getServer();
+        tracker.onStartRequest(request, lbResponse);
+        HttpURLConnection connection = (HttpURLConnection) URI.create(
+                "http://127.0.0.1:" + instance.getPort() + "/question/getQuestions").toURL().openConnection();
+        try (InputStream body = connection.getInputStream()) {
+            body.readAllBytes();
+        }
+        tracker.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, lbResponse));
+        return instance;
+    }
+
+    private ObjectProvider<ServiceInstanceListSupplier> instanceList() {
+        ServiceInstanceListSupplier supplier = new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "QUESTION-SERVICE";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(instances);
+            }
+        };
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("instances", supplier));
+        return beanFactory.getBeanProvider(ServiceInstanceListSupplier.class);
+    }
+
+    private static void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Result(double slowShare, double p99) {
+
+        void print(String strategy) {
+            System.out.printf("%-18s %11.1f%% %10.1f%n", strategy, slowShare * 100, p99);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.maxwell.quizservice.materialization;
+
+import com.maxwell.quizservice.dao.QuizDocumentDao;
+import com.maxwell.quizservice.feign.QuizInterface;
+import com.maxwell.quizservice.model.QuestionWrapper;
+import com.maxwell.quizservice.model.QuizDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "quiz.materialization.enabled=true")
+@ActiveProfiles("test")
+class QuizDocumentStoreTest {
+
+    @MockitoBean
+    QuizInterface quizInterface;
+
+    @Autowired
+    QuizDocumentStore store;
+
+    @Autowired
+    QuizDocumentDao quizDocumentDao;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private final QuestionWrapper question = new QuestionWrapper(1, "What is Java?", "A language", "A coffee",
+            "A framework", "An OS");
+
+    @AfterEach
+    void tearDown() {
+        quizDocumentDao.deleteAll();
+    }
+
+    @Test
+    void write_storesQuestionsAsServedJson() {
+        store.write(1, null, List.of(1, 2), List.of(question));
+
+        QuizDocument document = store.read(1).orElseThrow();
+        assertThat(document.getJson()).isEqualTo(objectMapper.writeValueAsBytes(List.of(question)));
+        assertThat(document.getRevision()).isZero();
+        assertThat(document.isStale()).isFalse();
+    }
+
+    @Test
+    void markStale_flagsOnlyQuizzesContainingTheQuestions() {
+        store.write(1, null, List.of(1, 2), List.of(question));
+        store.write(2, null, List.of(2, 3), List.of(question));
+        store.write(3, null, List.of(4), List.of(question));
+
+        List<Integer> affected = store.markStale(List.of(2, 5));
+
+        assertThat(affected).containsExactlyInAnyOrder(1, 2);
+        assertThat(store.read(1).orElseThrow().isStale()).isTrue();
+        assertThat(store.read(2).orElseThrow().isStale()).isTrue();
+        assertThat(store.read(3).orElseThrow().isStale()).isFalse();
+    }
+
+    @Test
+    void write_afterMarkStale_clearsFlagAndBumpsRevision() {
+        store.write(1, null, List.of(1, 2), List.of(question));
+        store.markStale(List.of(1));
+
+        store.write(1, store.revision(1), List.of(1, 2), List.of(question));
+
+        QuizDocument document = store.read(1).orElseThrow();
+        assertThat(document.isStale()).isFalse();
+        assertThat(document.getRevision()).isEqualTo(2);
+    }
+
+    @Test
+    void write_afterConcurrentMarkStale_isRejected() {
+        store.write(1, null, List.of(1, 2), List.of(question));
+        Long revision = store.revision(1);
+        store.markStale(List.of(2));
+
+        assertThatThrownBy(() -> store.write(1, revision, List.of(1, 2), List.of(question)))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(store.read(1).orElseThrow().isStale()).isTrue();
+    }
+
+    @Test
+    void read_ignoresDocumentsInAnotherFormat() {
+        QuizDocument document = store.write(1, null, List.of(1), List.of(question));
+        document.setFormat(QuizDocumentStore.FORMAT - 1);
+        quizDocumentDao.save(document);
+
+        assertThat(store.read(1)).isEmpty();
+    }
+}
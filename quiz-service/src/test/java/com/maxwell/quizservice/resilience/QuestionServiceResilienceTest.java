@@ -0,0 +1,161 @@
+package com.maxwell.quizservice.resilience;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QuestionServiceResilienceTest {
+
+    private final List<QuestionServiceResilience> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(QuestionServiceResilience::shutdown);
+    }
+
+    @Test
+    void call_retriesServiceFailuresAndSucceeds() {
+        QuestionServiceResilience resilience = resilience(20, 10, 3, Duration.ofSeconds(5));
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = resilience.call(QuestionServiceResilience.GENERATE, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ResourceAccessException("connection reset");
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void call_doesNotRetryClientErrors() {
+        QuestionServiceResilience resilience = resilience(20, 10, 3, Duration.ofSeconds(5));
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> resilience.call(QuestionServiceResilience.GENERATE, () -> {
+            attempts.incrementAndGet();
+            throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+        })).isInstanceOf(HttpClientErrorException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void call_afterRepeatedFailures_opensBreakerAndFailsFast() {
+        QuestionServiceResilience resilience = resilience(4, 10, 1, Duration.ofSeconds(5));
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> resilience.call(QuestionServiceResilience.GENERATE, () -> {
+                throw HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", null, null, null);
+            })).isInstanceOf(HttpServerErrorException.class);
+        }
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> resilience.call(QuestionServiceResilience.GET_QUESTIONS, attempts::incrementAndGet))
+                .isInstanceOf(CallNotPermittedException.class);
+        assertThat(attempts).hasValue(0);
+        assertThat(resilience.circuitBreaker().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void callAsync_whenBulkheadFull_rejectsWithoutCallingUpstream() {
+        QuestionServiceResilience resilience = resilience(20, 1, 3, Duration.ofSeconds(5));
+        CompletableFuture<String> blocked = new CompletableFuture<>();
+        resilience.callAsync(QuestionServiceResilience.GRADE_ANSWER_SHEET, () -> blocked);
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> rejected = resilience.callAsync(QuestionServiceResilience.GRADE_ANSWER_SHEET, () -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.completedFuture("ok");
+        });
+
+        assertThatThrownBy(() -> rejected.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(BulkheadFullException.class);
+        assertThat(attempts).hasValue(0);
+        // Other operations have their own bulkhead.
+        assertThat(resilience.callAsync(QuestionServiceResilience.GET_QUESTIONS,
+                () -> CompletableFuture.completedFuture("ok")).join()).isEqualTo("ok");
+        blocked.complete("done");
+    }
+
+    @Test
+    void callHedged_whenFirstAttemptIsSlow_returnsSecondAttempt() throws Exception {
+        QuestionServiceResilience resilience = resilience(20, 10, 1, Duration.ofMillis(50));
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = resilience.callHedged(QuestionServiceResilience.GET_QUESTIONS, () ->
+                attempts.incrementAndGet() == 1 ? new CompletableFuture<>() : CompletableFuture.completedFuture("hedge"));
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("hedge");
+        assertThat(attempts).hasValue(2);
+        assertThat(resilience.hedgedRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void callHedged_whenFirstAttemptIsFast_doesNotHedge() throws Exception {
+        QuestionServiceResilience resilience = resilience(20, 10, 1, Duration.ofMillis(50));
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = resilience.callHedged(QuestionServiceResilience.GET_QUESTIONS, () -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.completedFuture("primary");
+        });
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("primary");
+        Thread.sleep(150);
+        assertThat(attempts).hasValue(1);
+        assertThat(resilience.hedgedRequestCount()).isZero();
+    }
+
+    @Test
+    void callHedged_whenBothAttemptsFail_retries() throws Exception {
+        QuestionServiceResilience resilience = resilience(20, 10, 2, Duration.ofMillis(10));
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = resilience.callHedged(QuestionServiceResilience.GET_QUESTIONS, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                return CompletableFuture.failedFuture(new ResourceAccessException("connection refused"));
+            }
+            return CompletableFuture.completedFuture("retried");
+        });
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("retried");
+    }
+
+    @Test
+    void isServiceFailure_classifiesFailures() {
+        assertThat(QuestionServiceResilience.isServiceFailure(new TimeoutException())).isTrue();
+        assertThat(QuestionServiceResilience.isServiceFailure(
+                HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "", null, null, null))).isTrue();
+        assertThat(QuestionServiceResilience.isServiceFailure(
+                HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "", null, null, null))).isFalse();
+        assertThat(QuestionServiceResilience.isServiceFailure(new IllegalStateException())).isFalse();
+    }
+
+    private QuestionServiceResilience resilience(int minimumCalls, int maxConcurrentCalls, int maxAttempts,
+                                                 Duration hedgeDelay) {
+        QuestionServiceResilience resilience = new QuestionServiceResilience(50, Duration.ofSeconds(2), minimumCalls,
+                Duration.ofSeconds(10), maxConcurrentCalls, Duration.ZERO, maxAttempts, Duration.ofMillis(10), hedgeDelay);
+        created.add(resilience);
+        return resilience;
+    }
+}
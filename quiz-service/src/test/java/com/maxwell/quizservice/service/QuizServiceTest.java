@@ -1,21 +1,47 @@
 package com.maxwell.quizservice.service;
 
+import com.maxwell.commons.cache.ResponseBodyCache;
+import com.maxwell.quizservice.cache.QuizDefinitionCache;
+import com.maxwell.quizservice.cache.QuizQuestionCache;
 import com.maxwell.quizservice.dao.QuizDao;
+import com.maxwell.quizservice.exception.QuestionServiceUnavailableException;
+import com.maxwell.quizservice.feign.AsyncQuizInterface;
 import com.maxwell.quizservice.feign.QuizInterface;
+import com.maxwell.quizservice.materialization.QuizDocumentStore;
+import com.maxwell.quizservice.model.AnswerSheet;
+import com.maxwell.quizservice.model.AnswerSheetResult;
+import com.maxwell.quizservice.model.QuestionResult;
 import com.maxwell.quizservice.model.QuestionWrapper;
 import com.maxwell.quizservice.model.Quiz;
+import com.maxwell.quizservice.model.QuizDocument;
+import com.maxwell.quizservice.model.QuizResult;
 import com.maxwell.quizservice.model.Response;
+import com.maxwell.quizservice.resilience.QuestionServiceResilience;
+import com.maxwell.quizservice.snapshot.QuizSnapshot;
+import com.maxwell.quizservice.snapshot.QuizSnapshotStore;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -31,6 +57,32 @@ class QuizServiceTest {
     @Mock
     private QuizInterface quizInterface;
 
+    @Mock
+    private AsyncQuizInterface asyncQuizInterface;
+
+    @Spy
+    private QuestionServiceResilience questionServiceResilience = new QuestionServiceResilience(50, Duration.ofSeconds(2),
+            4, Duration.ofSeconds(10), 100, Duration.ZERO, 1, Duration.ofMillis(10), Duration.ofSeconds(5));
+
+    @Spy
+    private QuizQuestionCache quizQuestionCache = new QuizQuestionCache(1 << 20, Duration.ofMinutes(10));
+
+    @Spy
+    private QuizDefinitionCache quizDefinitionCache = new QuizDefinitionCache(1000);
+
+    @Mock
+    private QuizSnapshotStore quizSnapshotStore;
+
+    @Spy
+    private ResponseBodyCache responseBodyCache = new ResponseBodyCache(1 << 20, Duration.ofMinutes(10), 2048,
+            JsonMapper.builder().build());
+
+    @Mock
+    private QuizDocumentStore quizDocumentStore;
+
+    @Spy
+    private Executor snapshotRefreshExecutor = new DirectExecutor();
+
     @InjectMocks
     private QuizService quizService;
 
@@ -47,25 +99,45 @@ class QuizServiceTest {
         wrapper = new QuestionWrapper(1, "What is Java?", "A language", "A coffee", "A framework", "An OS");
     }
 
+    @AfterEach
+    void tearDown() {
+        questionServiceResilience.shutdown();
+    }
+
     @Test
     void createQuiz_savesQuizAndReturnsCreated() {
-        when(quizInterface.getQuestionsForQuiz("Java", 3))
+        when(quizInterface.getQuestionsForQuiz("Java", 3, null, null))
                 .thenReturn(new ResponseEntity<>(List.of(1, 2, 3), HttpStatus.OK));
         when(quizDao.save(any(Quiz.class))).thenReturn(quiz);
 
-        ResponseEntity<String> response = quizService.createQuiz("Java", 3, "Java Basics");
+        ResponseEntity<String> response = quizService.createQuiz("Java", 3, "Java Basics", null, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         assertThat(response.getBody()).isEqualTo("Quiz created successfully");
         verify(quizDao).save(any(Quiz.class));
     }
 
+    @Test
+    void createQuiz_withDifficultyMix_forwardsMixAndSeed() {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        mix.put("Easy", 40);
+        mix.put("Medium", 40);
+        mix.put("Hard", 20);
+        when(quizInterface.getQuestionsForQuiz("Java", 5, 42L, "Easy:40,Medium:40,Hard:20"))
+                .thenReturn(new ResponseEntity<>(List.of(1, 2, 3, 4, 5), HttpStatus.OK));
+
+        ResponseEntity<String> response = quizService.createQuiz("Java", 5, "Mixed Java", mix, 42L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        verify(quizDao).save(argThat(saved -> saved.getQuestionIds().equals(List.of(1, 2, 3, 4, 5))));
+    }
+
     @Test
     void createQuiz_whenNoQuestionsAvailable_returnsNotFound() {
-        when(quizInterface.getQuestionsForQuiz("Unknown", 5))
+        when(quizInterface.getQuestionsForQuiz("Unknown", 5, null, null))
                 .thenReturn(new ResponseEntity<>(List.of(), HttpStatus.OK));
 
-        ResponseEntity<String> response = quizService.createQuiz("Unknown", 5, "Empty Quiz");
+        ResponseEntity<String> response = quizService.createQuiz("Unknown", 5, "Empty Quiz", null, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         assertThat(response.getBody()).contains("Unknown");
@@ -74,20 +146,41 @@ class QuizServiceTest {
 
     @Test
     void createQuiz_whenFeignThrows_returnsInternalServerError() {
-        when(quizInterface.getQuestionsForQuiz(any(), anyInt()))
+        when(quizInterface.getQuestionsForQuiz(any(), anyInt(), any(), any()))
                 .thenThrow(new RuntimeException("Service unavailable"));
 
-        ResponseEntity<String> response = quizService.createQuiz("Java", 3, "Java Basics");
+        ResponseEntity<String> response = quizService.createQuiz("Java", 3, "Java Basics", null, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
         verify(quizDao, never()).save(any());
     }
 
+    @Test
+    void createQuiz_whenBreakerOpen_returnsServiceUnavailable() {
+        questionServiceResilience.circuitBreaker().transitionToOpenState();
+
+        ResponseEntity<String> response = quizService.createQuiz("Java", 3, "Java Basics", null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        verifyNoInteractions(quizInterface);
+    }
+
+    @Test
+    void getQuizQuestions_whenUpstreamTimesOut_throwsServiceUnavailable() {
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.getQuestionsFromId(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+
+        assertThatThrownBy(() -> quizService.getQuizQuestions(1))
+                .isInstanceOf(QuestionServiceUnavailableException.class)
+                .hasMessage("Failed to load questions for quiz with id: 1");
+    }
+
     @Test
     void getQuizQuestions_returnsQuestionsForQuiz() {
         when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
-        when(quizInterface.getQuestionsFromId(List.of(1, 2, 3)))
-                .thenReturn(new ResponseEntity<>(List.of(wrapper), HttpStatus.OK));
+        when(asyncQuizInterface.getQuestionsFromId(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(wrapper)));
 
         ResponseEntity<List<QuestionWrapper>> response = quizService.getQuizQuestions(1);
 
@@ -96,6 +189,117 @@ class QuizServiceTest {
         assertThat(response.getBody().get(0).getQuestionTitle()).isEqualTo("What is Java?");
     }
 
+    @Test
+    void getQuizQuestions_servesRepeatReadsFromCache() {
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.getQuestionsFromId(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(wrapper)));
+
+        quizService.getQuizQuestions(1);
+        ResponseEntity<List<QuestionWrapper>> response = quizService.getQuizQuestions(1);
+
+        assertThat(response.getBody()).containsExactly(wrapper);
+        verify(quizDao, times(1)).findById(1);
+        verify(asyncQuizInterface, times(1)).getQuestionsFromId(anyList());
+    }
+
+    @Test
+    void getQuizQuestions_whenUpstreamReturnsError_throwsAndDoesNotCache() {
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.getQuestionsFromId(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("503 Service Unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(List.of(wrapper)));
+
+        assertThatThrownBy(() -> quizService.getQuizQuestions(1)).isInstanceOf(RuntimeException.class);
+        assertThat(quizService.getQuizQuestions(1).getBody()).containsExactly(wrapper);
+    }
+
+    @Test
+    void getQuizQuestions_storesSnapshotAfterUpstreamLoad() {
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.getQuestionsFromId(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(wrapper)));
+
+        quizService.getQuizQuestions(1);
+
+        verify(quizSnapshotStore).write(1, List.of(wrapper));
+    }
+
+    @Test
+    void getQuizQuestions_servesFreshSnapshotWithoutCallingUpstream() {
+        when(quizSnapshotStore.read(1)).thenReturn(Optional.of(new QuizSnapshot(System.currentTimeMillis(), List.of(wrapper))));
+
+        ResponseEntity<List<QuestionWrapper>> response = quizService.getQuizQuestions(1);
+
+        assertThat(response.getBody()).containsExactly(wrapper);
+        verifyNoInteractions(quizDao, asyncQuizInterface);
+    }
+
+    @Test
+    void getQuizQuestions_servesStaleSnapshotAndRefreshesInBackground() {
+        QuestionWrapper updated = new QuestionWrapper(1, "What is Java 21?", "A language", "A coffee", "A framework", "An OS");
+        QuizSnapshot snapshot = new QuizSnapshot(0, List.of(wrapper));
+        when(quizSnapshotStore.read(1)).thenReturn(Optional.of(snapshot));
+        when(quizSnapshotStore.isStale(snapshot)).thenReturn(true);
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.getQuestionsFromId(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(updated)));
+
+        ResponseEntity<List<QuestionWrapper>> response = quizService.getQuizQuestions(1);
+
+        assertThat(response.getBody()).containsExactly(wrapper);
+        verify(quizSnapshotStore).write(1, List.of(updated));
+        assertThat(quizService.getQuizQuestions(1).getBody()).containsExactly(updated);
+    }
+
+    @Test
+    void getQuizQuestions_whenUpstreamDown_keepsServingStaleSnapshot() {
+        QuizSnapshot snapshot = new QuizSnapshot(0, List.of(wrapper));
+        when(quizSnapshotStore.read(1)).thenReturn(Optional.of(snapshot));
+        when(quizSnapshotStore.isStale(snapshot)).thenReturn(true);
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.getQuestionsFromId(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+
+        ResponseEntity<List<QuestionWrapper>> response = quizService.getQuizQuestions(1);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(wrapper);
+        verify(quizSnapshotStore, never()).write(anyInt(), anyList());
+    }
+
+    @Test
+    void getQuizQuestions_withMatchingIfNoneMatch_returnsNotModified() {
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.getQuestionsFromId(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(wrapper)));
+
+        ResponseEntity<?> first = quizService.getQuizQuestions(1, new HttpHeaders());
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(first.getHeaders().getETag());
+        ResponseEntity<?> second = quizService.getQuizQuestions(1, conditional);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(second.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
+    }
+
+    @Test
+    void getQuizQuestions_snapshotRefreshChangesEtag() {
+        QuestionWrapper updated = new QuestionWrapper(1, "What is Java 21?", "A language", "A coffee", "A framework", "An OS");
+        QuizSnapshot snapshot = new QuizSnapshot(0, List.of(wrapper));
+        when(quizSnapshotStore.read(1)).thenReturn(Optional.of(snapshot));
+        when(quizSnapshotStore.isStale(snapshot)).thenReturn(true);
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.getQuestionsFromId(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(updated)));
+
+        String before = quizService.getQuizQuestions(1, new HttpHeaders()).getHeaders().getETag();
+        String after = quizService.getQuizQuestions(1, new HttpHeaders()).getHeaders().getETag();
+
+        assertThat(after).isNotEqualTo(before);
+    }
+
     @Test
     void getQuizQuestions_whenQuizNotFound_throwsException() {
         when(quizDao.findById(99)).thenReturn(Optional.empty());
@@ -106,17 +310,214 @@ class QuizServiceTest {
     }
 
     @Test
-    void calculateResult_delegatesToQuizInterface() {
-        Response r = new Response();
-        r.setId(1);
-        r.setResponse("A language");
+    void createQuiz_withMaterialization_storesDocument() {
+        when(quizDocumentStore.isEnabled()).thenReturn(true);
+        when(quizInterface.getQuestionsForQuiz("Java", 3, null, null))
+                .thenReturn(new ResponseEntity<>(List.of(1, 2, 3), HttpStatus.OK));
+        when(asyncQuizInterface.getQuestionsFromId(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(wrapper)));
 
-        when(quizInterface.getScore(anyList()))
-                .thenReturn(new ResponseEntity<>(1, HttpStatus.OK));
+        ResponseEntity<String> response = quizService.createQuiz("Java", 3, "Java Basics", null, null);
 
-        ResponseEntity<Integer> response = quizService.calculateResult(1, List.of(r));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        verify(quizDocumentStore).write(any(), any(), eq(List.of(1, 2, 3)), eq(List.of(wrapper)));
+    }
+
+    @Test
+    void createQuiz_whenMaterializationFails_stillCreatesQuiz() {
+        when(quizDocumentStore.isEnabled()).thenReturn(true);
+        when(quizInterface.getQuestionsForQuiz("Java", 3, null, null))
+                .thenReturn(new ResponseEntity<>(List.of(1, 2, 3), HttpStatus.OK));
+        when(asyncQuizInterface.getQuestionsFromId(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+
+        ResponseEntity<String> response = quizService.createQuiz("Java", 3, "Java Basics", null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        verify(quizDao).save(any(Quiz.class));
+        verify(quizDocumentStore, never()).write(any(), any(), anyList(), anyList());
+    }
+
+    @Test
+    void getQuizQuestions_withMaterialization_servesStoredBytesWithoutUpstream() {
+        byte[] json = "[{\"id\":1}]".getBytes();
+        when(quizDocumentStore.isEnabled()).thenReturn(true);
+        when(quizDocumentStore.read(1)).thenReturn(Optional.of(document(json, false)));
+
+        ResponseEntity<?> response = quizService.getQuizQuestions(1, new HttpHeaders());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(json);
+        verifyNoInteractions(quizDao, asyncQuizInterface);
+    }
+
+    @Test
+    void getQuizQuestions_withMaterialization_buildsMissingDocument() {
+        byte[] json = "[{\"id\":1}]".getBytes();
+        when(quizDocumentStore.isEnabled()).thenReturn(true);
+        when(quizDocumentStore.read(1)).thenReturn(Optional.empty());
+        when(quizDocumentStore.revision(1)).thenReturn(null);
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.getQuestionsFromId(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(wrapper)));
+        when(quizDocumentStore.write(1, null, List.of(1, 2, 3), List.of(wrapper))).thenReturn(document(json, false));
+
+        ResponseEntity<?> response = quizService.getQuizQuestions(1, new HttpHeaders());
+
+        assertThat(response.getBody()).isEqualTo(json);
+    }
+
+    @Test
+    void getQuizQuestions_withMaterialization_servesStaleDocumentAndRebuildsIt() {
+        byte[] json = "[{\"id\":1}]".getBytes();
+        when(quizDocumentStore.isEnabled()).thenReturn(true);
+        when(quizDocumentStore.read(1)).thenReturn(Optional.of(document(json, true)));
+        when(quizDocumentStore.revision(1)).thenReturn(3L);
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.getQuestionsFromId(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(wrapper)));
+
+        ResponseEntity<?> response = quizService.getQuizQuestions(1, new HttpHeaders());
+
+        assertThat(response.getBody()).isEqualTo(json);
+        verify(quizDocumentStore).write(1, 3L, List.of(1, 2, 3), List.of(wrapper));
+        verify(responseBodyCache).invalidate("quiz:1");
+    }
+
+    @Test
+    void getQuizQuestions_withMaterialization_refetchesWhenDocumentChangesDuringRebuild() {
+        QuestionWrapper updated = new QuestionWrapper(1, "What is Java 21?", "A language", "A coffee", "A framework", "An OS");
+        when(quizDocumentStore.isEnabled()).thenReturn(true);
+        when(quizDocumentStore.read(1)).thenReturn(Optional.of(document("[]".getBytes(), true)));
+        // questionsChanged marked the document again while the first fetch was running.
+        when(quizDocumentStore.revision(1)).thenReturn(3L, 4L);
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.getQuestionsFromId(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(wrapper)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(updated)));
+        when(quizDocumentStore.write(1, 3L, List.of(1, 2, 3), List.of(wrapper)))
+                .thenThrow(new OptimisticLockingFailureException("changed"));
+
+        quizService.getQuizQuestions(1, new HttpHeaders());
+
+        verify(quizDocumentStore).write(1, 4L, List.of(1, 2, 3), List.of(updated));
+    }
+
+    @Test
+    void questionsChanged_dropsCachedResponsesOfAffectedQuizzes() {
+        when(quizDocumentStore.isEnabled()).thenReturn(true);
+        when(quizDocumentStore.read(1)).thenReturn(Optional.of(document("[]".getBytes(), false)));
+        when(quizDocumentStore.markStale(List.of(2))).thenReturn(List.of(1));
+        quizService.getQuizQuestions(1, new HttpHeaders());
+
+        ResponseEntity<List<Integer>> response = quizService.questionsChanged(List.of(2));
+        quizService.getQuizQuestions(1, new HttpHeaders());
+
+        assertThat(response.getBody()).containsExactly(1);
+        verify(quizDocumentStore, times(2)).read(1);
+        verify(quizSnapshotStore).delete(1);
+    }
+
+    @Test
+    void calculateResult_scoresOnlyQuizQuestionsInOneCall() {
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.gradeAnswerSheet(any(AnswerSheet.class)))
+                .thenReturn(CompletableFuture.completedFuture(new AnswerSheetResult(1, new boolean[]{true, false})));
+
+        ResponseEntity<Integer> response = quizService.calculateResult(1, List.of(
+                response(3, "A language"), response(99, "A coffee"), response(1, "A coffee")));
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(1);
+        ArgumentCaptor<AnswerSheet> sheet = ArgumentCaptor.forClass(AnswerSheet.class);
+        verify(asyncQuizInterface, times(1)).gradeAnswerSheet(sheet.capture());
+        assertThat(sheet.getValue().getQuestionIds()).containsExactly(3, 1);
+        assertThat(sheet.getValue().getResponses()).containsExactly("A language", "A coffee");
+    }
+
+    @Test
+    void calculateDetailedResult_reportsPerQuestionOutcomeInQuizOrder() {
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.gradeAnswerSheet(any(AnswerSheet.class)))
+                .thenReturn(CompletableFuture.completedFuture(new AnswerSheetResult(1, new boolean[]{true, false})));
+
+        QuizResult result = quizService.calculateDetailedResult(1, List.of(
+                response(3, "A language"), response(3, "A framework"), response(99, "x"), response(1, "A coffee")))
+                .getBody();
+
+        assertThat(result.getQuizId()).isEqualTo(1);
+        assertThat(result.getScore()).isEqualTo(1);
+        assertThat(result.getTotalQuestions()).isEqualTo(3);
+        assertThat(result.getAnswered()).isEqualTo(2);
+        assertThat(result.getQuestions()).containsExactly(
+                new QuestionResult(1, true, false),
+                new QuestionResult(2, false, false),
+                new QuestionResult(3, true, true));
+        assertThat(result.getRejectedQuestionIds()).containsExactly(99);
+        assertThat(result.getElapsedMillis()).isNotNegative();
+    }
+
+    @Test
+    void calculateResult_readsQuizDefinitionOnce() {
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.gradeAnswerSheet(any(AnswerSheet.class)))
+                .thenReturn(CompletableFuture.completedFuture(new AnswerSheetResult(1, new boolean[]{true})));
+
+        quizService.calculateResult(1, List.of(response(1, "A language")));
+        quizService.calculateResult(1, List.of(response(1, "A language")));
+
+        verify(quizDao, times(1)).findById(1);
+    }
+
+    @Test
+    void calculateResult_withNoQuizQuestionsAnswered_skipsUpstream() {
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+
+        ResponseEntity<Integer> response = quizService.calculateResult(1, List.of(response(42, "A language")));
+
+        assertThat(response.getBody()).isZero();
+        verifyNoInteractions(asyncQuizInterface);
+    }
+
+    @Test
+    void calculateResult_whenQuizMissing_throwsException() {
+        when(quizDao.findById(99)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> quizService.calculateResult(99, List.of(response(1, "A language"))))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("99");
+    }
+
+    @Test
+    void calculateResult_whenUpstreamFails_throwsException() {
+        when(quizDao.findById(1)).thenReturn(Optional.of(quiz));
+        when(asyncQuizInterface.gradeAnswerSheet(any(AnswerSheet.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("503 Service Unavailable")));
+
+        assertThatThrownBy(() -> quizService.calculateResult(1, List.of(response(1, "A language"))))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Failed to score submission for quiz with id: 1");
+    }
+
+    private static QuizDocument document(byte[] json, boolean stale) {
+        QuizDocument document = new QuizDocument();
+        document.setQuizId(1);
+        document.setJson(json);
+        document.setStale(stale);
+        return document;
+    }
+
+    private static Response response(Integer id, String answer) {
+        Response r = new Response();
+        r.setId(id);
+        r.setResponse(answer);
+        return r;
+    }
+
+    static class DirectExecutor implements Executor {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
     }
 }
@@ -0,0 +1,82 @@
+package com.maxwell.quizservice.snapshot;
+
+import com.maxwell.quizservice.model.QuestionWrapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuizSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private final QuestionWrapper wrapper =
+            new QuestionWrapper(1, "What is Java?", "A language", "A coffee", "A framework", "An OS");
+
+    private QuizSnapshotStore store(Duration refreshAfter) {
+        return new QuizSnapshotStore(dir, true, refreshAfter, JsonMapper.builder().build());
+    }
+
+    @Test
+    void write_thenRead_roundTripsQuestions() {
+        QuizSnapshotStore store = store(Duration.ofMinutes(5));
+
+        store.write(1, List.of(wrapper));
+
+        QuizSnapshot snapshot = store.read(1).orElseThrow();
+        assertThat(snapshot.getQuestions()).containsExactly(wrapper);
+        assertThat(store.isStale(snapshot)).isFalse();
+        assertThat(dir).isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    void write_replacesPreviousSnapshot() {
+        QuizSnapshotStore store = store(Duration.ofMinutes(5));
+        QuestionWrapper updated = new QuestionWrapper(2, "What is a JVM?", "A machine", "A car", "A file", "A test");
+
+        store.write(1, List.of(wrapper));
+        store.write(1, List.of(updated));
+
+        assertThat(store.read(1).orElseThrow().getQuestions()).containsExactly(updated);
+    }
+
+    @Test
+    void read_whenMissing_returnsEmpty() {
+        assertThat(store(Duration.ofMinutes(5)).read(42)).isEmpty();
+    }
+
+    @Test
+    void read_whenCorrupt_discardsSnapshot() throws Exception {
+        QuizSnapshotStore store = store(Duration.ofMinutes(5));
+        Files.writeString(dir.resolve("1.json"), "{\"questions\": [");
+
+        assertThat(store.read(1)).isEmpty();
+        assertThat(dir.resolve("1.json")).doesNotExist();
+    }
+
+    @Test
+    void isStale_afterRefreshInterval() {
+        QuizSnapshotStore store = store(Duration.ZERO);
+        store.write(1, List.of(wrapper));
+
+        assertThat(store.isStale(store.read(1).orElseThrow())).isTrue();
+    }
+
+    @Test
+    void disabledStore_neitherWritesNorReads() {
+        QuizSnapshotStore store = new QuizSnapshotStore(dir.resolve("off"), false, Duration.ofMinutes(5),
+                JsonMapper.builder().build());
+
+        store.write(1, List.of(wrapper));
+
+        assertThat(store.read(1)).isEmpty();
+        assertThat(dir.resolve("off")).doesNotExist();
+    }
+}
@@ -0,0 +1,211 @@
+package com.maxwell.commons.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized JSON bodies of read endpoints, each with a content-hash ETag and, above
+ * {@code gzipMinSize}, a pre-compressed gzip copy. A matching {@code If-None-Match} is answered with
+ * 304 straight from the cache. Entries are dropped when the owning service invalidates them, when
+ * they expire after {@code ttl}, or when the byte budget is exceeded.
+ */
+public class ResponseBodyCache {
+
+    private static final List<String> VARY = List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+    private final Cache<String, Entry> cache;
+    private final int gzipMinSize;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseBodyCache(long maxBytes, Duration ttl, int gzipMinSize, ObjectMapper objectMapper) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Entry entry) -> entry.weight())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.gzipMinSize = gzipMinSize;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Answers a JSON read from the cache, calling {@code loader} on a miss. Only 200 responses are
+     * cached; anything else, and requests that prefer another media type, pass through unchanged.
+     */
+    public ResponseEntity<?> respond(String key, HttpHeaders request, Supplier<? extends ResponseEntity<?>> loader) {
+        if (!prefersJson(request.getFirst(HttpHeaders.ACCEPT))) {
+            return loader.get();
+        }
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            long loadedAt = generation.get();
+            ResponseEntity<?> response = loader.get();
+            if (response.getStatusCode() != HttpStatus.OK) {
+                return response;
+            }
+            entry = store(key, encode(response.getBody()), loadedAt);
+        }
+        return entry.toResponse(request.getFirst(HttpHeaders.IF_NONE_MATCH),
+                acceptsGzip(request.getFirst(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
+    /**
+     * Like {@link #respond}, for bodies that are already serialized: on a miss {@code json} supplies
+     * the bytes, which are cached as they are. Requests that prefer another media type get
+     * {@code fallback} instead.
+     */
+    public ResponseEntity<?> respondSerialized(String key, HttpHeaders request, Supplier<byte[]> json,
+                                               Supplier<? extends ResponseEntity<?>> fallback) {
+        if (!prefersJson(request.getFirst(HttpHeaders.ACCEPT))) {
+            return fallback.get();
+        }
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            long loadedAt = generation.get();
+            entry = store(key, encodeJson(json.get()), loadedAt);
+        }
+        return entry.toResponse(request.getFirst(HttpHeaders.IF_NONE_MATCH),
+                acceptsGzip(request.getFirst(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
+    public void invalidate(String key) {
+        generation.incrementAndGet();
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public Cache<String, ?> nativeCache() {
+        return cache;
+    }
+
+    private Entry store(String key, Entry entry, long loadedAt) {
+        cache.put(key, entry);
+        // A write that landed during the load may have been missed; don't keep the entry past it.
+        if (generation.get() != loadedAt) {
+            cache.invalidate(key);
+        }
+        return entry;
+    }
+
+    Entry encode(Object body) {
+        return encodeJson(objectMapper.writeValueAsBytes(body));
+    }
+
+    Entry encodeJson(byte[] json) {
+        String hash;
+        try {
+            hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] gzip = json.length >= gzipMinSize ? gzip(json) : null;
+        return new Entry(json, gzip != null && gzip.length < json.length ? gzip : null, hash);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Only the first listed type is considered, so clients asking for CBOR or Smile still get them.
+    static boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).get(0).includes(MediaType.APPLICATION_JSON);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if ((name.equals("gzip") || name.equals("*"))
+                    && !(parts.length > 1 && parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    record Entry(byte[] json, byte[] gzip, String hash) {
+
+        int weight() {
+            return json.length + (gzip == null ? 0 : gzip.length) + 128;
+        }
+
+        String etag(boolean gzipped) {
+            return "\"" + hash + (gzipped ? "-gzip" : "") + "\"";
+        }
+
+        ResponseEntity<byte[]> toResponse(String ifNoneMatch, boolean acceptsGzip) {
+            boolean gzipped = acceptsGzip && gzip != null;
+            HttpHeaders headers = new HttpHeaders();
+            headers.setETag(etag(gzipped));
+            headers.setVary(VARY);
+            if (matches(ifNoneMatch)) {
+                return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+            }
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            if (gzipped) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return new ResponseEntity<>(gzipped ? gzip : json, headers, HttpStatus.OK);
+        }
+
+        // Either encoding's tag identifies the same content, so both revalidate.
+        private boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.equals("*")) {
+                    return true;
+                }
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals(etag(false)) || candidate.equals(etag(true))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.maxwell.commons.discovery;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Keeps the instance's Eureka status in step with its readiness: {@code UP} once the application
+ * accepts traffic, which is after {@code ApplicationReadyEvent} listeners such as cache warm-up have
+ * run, and {@code OUT_OF_SERVICE} when it stops accepting it. Combined with
+ * {@code eureka.instance.initial-status=starting}, clients only route to an instance once it is warm.
+ */
+@Slf4j
+public class ReadinessRegistration {
+
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+
+    public ReadinessRegistration(ObjectProvider<ApplicationInfoManager> applicationInfoManager) {
+        this.applicationInfoManager = applicationInfoManager;
+    }
+
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        ApplicationInfoManager manager = applicationInfoManager.getIfAvailable();
+        if (manager == null) {
+            return;
+        }
+        InstanceStatus status = event.getState() == ReadinessState.ACCEPTING_TRAFFIC
+                ? InstanceStatus.UP
+                : InstanceStatus.OUT_OF_SERVICE;
+        if (manager.getInfo().getStatus() != status) {
+            log.info("Readiness is {}, setting registry status to {}", event.getState(), status);
+            manager.setInstanceStatus(status);
+        }
+    }
+}
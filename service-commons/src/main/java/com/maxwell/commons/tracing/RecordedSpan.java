@@ -0,0 +1,19 @@
+package com.maxwell.commons.tracing;
+
+import brave.handler.MutableSpan;
+import brave.propagation.TraceContext;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record RecordedSpan(String spanId, String parentId, String name, String kind, String remoteService,
+                           Instant start, double durationMillis, String error, Map<String, String> tags) {
+
+    static RecordedSpan of(TraceContext context, MutableSpan span) {
+        long startMicros = span.startTimestamp();
+        return new RecordedSpan(context.spanIdString(), context.parentIdString(), span.name(),
+                span.kind() == null ? null : span.kind().name(), span.remoteServiceName(),
+                Instant.EPOCH.plusNanos(startMicros * 1000), (span.finishTimestamp() - startMicros) / 1000.0,
+                span.error() == null ? span.tag("error") : span.error().toString(), Map.copyOf(span.tags()));
+    }
+}
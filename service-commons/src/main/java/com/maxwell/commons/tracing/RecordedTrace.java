@@ -0,0 +1,17 @@
+package com.maxwell.commons.tracing;
+
+import java.time.Instant;
+import java.util.List;
+
+/** The spans one request produced in this service, under its local root span. */
+public record RecordedTrace(String traceId, String name, String reason, Instant start, double durationMillis,
+                            List<RecordedSpan> spans) {
+
+    public TraceSummary summary() {
+        return new TraceSummary(traceId, name, reason, start, durationMillis, spans.size());
+    }
+
+    public record TraceSummary(String traceId, String name, String reason, Instant start, double durationMillis,
+                               int spanCount) {
+    }
+}
@@ -0,0 +1,157 @@
+package com.maxwell.commons.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * In-process tail sampler and store for traces. Every request is traced, and the spans of each
+ * local trace are held until its local root, normally this service's server span, finishes. The
+ * trace is then kept if the root was slow or failed, or at random at the keep probability, and
+ * dropped otherwise. Outliers keep every span, and fast requests cost nothing after they finish.
+ * <p>
+ * Each service decides for its own hop. A slow downstream hop makes its callers slow too, so the
+ * whole path of an outlier is kept; the spans of one request are joined by trace id across the
+ * services' {@link TracesEndpoint}s.
+ * <p>
+ * Each service registers one as a bean, with its thresholds under its own property prefix.
+ */
+public class SlowTraceRecorder extends SpanHandler {
+
+    private static final LocalTrace DROPPED = new LocalTrace(null);
+
+    private final long slowThresholdMicros;
+    private final double keepProbability;
+    private final int maxTraces;
+    private final DoubleSupplier random;
+    // In-flight traces by local root span id. Bounded so a root that never finishes cannot leak its children.
+    private final Cache<Long, LocalTrace> open = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofMinutes(1))
+            .build();
+    // Traces whose root has finished, so late spans join a kept trace or are ignored; a dropped trace
+    // leaves only the shared DROPPED marker. Kept apart from open so finished traces never evict live ones.
+    private final Cache<Long, LocalTrace> finished = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofSeconds(30))
+            .build();
+    private final Deque<LocalTrace> kept = new ArrayDeque<>();
+
+    public SlowTraceRecorder(Duration slowThreshold, double keepProbability, int maxTraces) {
+        this(slowThreshold, keepProbability, maxTraces, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    SlowTraceRecorder(Duration slowThreshold, double keepProbability, int maxTraces, DoubleSupplier random) {
+        this.slowThresholdMicros = slowThreshold.toNanos() / 1000;
+        this.keepProbability = keepProbability;
+        this.maxTraces = maxTraces;
+        this.random = random;
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause == Cause.ABANDONED) {
+            return true;
+        }
+        long localRootId = context.localRootId();
+        RecordedSpan recorded = RecordedSpan.of(context, span);
+        // Spans that finish after a kept root are still added to it.
+        LocalTrace done = finished.getIfPresent(localRootId);
+        if (done != null) {
+            if (done != DROPPED) {
+                done.add(recorded);
+            }
+            return true;
+        }
+        LocalTrace trace = open.get(localRootId, id -> new LocalTrace(context.traceIdString()));
+        synchronized (trace) {
+            trace.spans.add(recorded);
+            if (context.isLocalRoot() && trace.root == null) {
+                String reason = keepReason(span);
+                if (reason != null) {
+                    trace.root = recorded;
+                    trace.reason = reason;
+                    keep(trace);
+                }
+                finished.put(localRootId, reason != null ? trace : DROPPED);
+                open.invalidate(localRootId);
+            }
+        }
+        return true;
+    }
+
+    /** Kept traces, newest first. */
+    public List<RecordedTrace> traces() {
+        List<LocalTrace> snapshot;
+        synchronized (kept) {
+            snapshot = new ArrayList<>(kept);
+        }
+        return snapshot.stream().map(LocalTrace::toRecord).toList();
+    }
+
+    /** Kept local traces of the given trace; more than one when a request reached this service twice. */
+    public List<RecordedTrace> traces(String traceId) {
+        return traces().stream().filter(trace -> trace.traceId().equals(traceId)).toList();
+    }
+
+    // For tests: traces whose local root has not finished yet.
+    long openTraces() {
+        open.cleanUp();
+        return open.estimatedSize();
+    }
+
+    public void clear() {
+        synchronized (kept) {
+            kept.clear();
+        }
+    }
+
+    private String keepReason(MutableSpan root) {
+        if (root.error() != null || "SERVER_ERROR".equals(root.tag("outcome"))) {
+            return "error";
+        }
+        if (root.finishTimestamp() - root.startTimestamp() >= slowThresholdMicros) {
+            return "slow";
+        }
+        return random.getAsDouble() < keepProbability ? "sampled" : null;
+    }
+
+    private void keep(LocalTrace trace) {
+        synchronized (kept) {
+            kept.addFirst(trace);
+            while (kept.size() > maxTraces) {
+                kept.removeLast();
+            }
+        }
+    }
+
+    private static final class LocalTrace {
+
+        final String traceId;
+        final List<RecordedSpan> spans = new ArrayList<>();
+        RecordedSpan root;
+        String reason;
+
+        LocalTrace(String traceId) {
+            this.traceId = traceId;
+        }
+
+        synchronized void add(RecordedSpan span) {
+            spans.add(span);
+        }
+
+        synchronized RecordedTrace toRecord() {
+            return new RecordedTrace(traceId, root.name(), reason, root.start(), root.durationMillis(), List.copyOf(spans));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.maxwell.commons.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/traces}: the traces {@link SlowTraceRecorder} kept, newest first, and every
+ * span of one of them at {@code /actuator/traces/{traceId}}.
+ */
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private final SlowTraceRecorder recorder;
+
+    public TracesEndpoint(SlowTraceRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public List<RecordedTrace.TraceSummary> traces() {
+        return recorder.traces().stream().map(RecordedTrace::summary).toList();
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<List<RecordedTrace>> trace(@Selector String traceId) {
+        List<RecordedTrace> traces = recorder.traces(traceId);
+        return traces.isEmpty()
+                ? new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND)
+                : new WebEndpointResponse<>(traces);
+    }
+
+    @DeleteOperation
+    public void clear() {
+        recorder.clear();
+    }
+}
@@ -0,0 +1,140 @@
+package com.maxwell.commons.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseBodyCacheTest {
+
+    private final ResponseBodyCache cache = new ResponseBodyCache(1 << 20, Duration.ofMinutes(5), 16,
+            JsonMapper.builder().build());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ResponseEntity<?> respond(HttpHeaders headers, List<String> body) {
+        return cache.respond("key", headers, () -> {
+            loads.incrementAndGet();
+            return ResponseEntity.ok(body);
+        });
+    }
+
+    @Test
+    void respond_cachesBodyAndEtagAfterFirstLoad() {
+        ResponseEntity<?> first = respond(new HttpHeaders(), List.of("a", "b"));
+        ResponseEntity<?> second = respond(new HttpHeaders(), List.of("changed"));
+
+        assertThat(loads).hasValue(1);
+        assertThat(second.getBody()).isEqualTo("[\"a\",\"b\"]".getBytes());
+        assertThat(second.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag()).isNotNull();
+    }
+
+    @Test
+    void respond_sameContentGivesSameEtag() {
+        String etag = respond(new HttpHeaders(), List.of("a")).getHeaders().getETag();
+        cache.invalidateAll();
+
+        assertThat(respond(new HttpHeaders(), List.of("a")).getHeaders().getETag()).isEqualTo(etag);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void respond_withMatchingIfNoneMatch_returnsNotModified() {
+        String etag = respond(new HttpHeaders(), List.of("a")).getHeaders().getETag();
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.set(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag);
+
+        ResponseEntity<?> response = respond(conditional, List.of("a"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void respond_gzipsOnlyWhenAcceptedAndAboveThreshold() {
+        HttpHeaders gzip = new HttpHeaders();
+        gzip.set(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8");
+        List<String> large = List.of("x".repeat(200));
+
+        ResponseEntity<?> compressed = respond(gzip, large);
+        ResponseEntity<?> plain = respond(new HttpHeaders(), large);
+
+        assertThat(compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(compressed.getHeaders().getETag()).isNotEqualTo(plain.getHeaders().getETag());
+
+        cache.invalidateAll();
+        assertThat(respond(gzip, List.of("a")).getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    @Test
+    void respond_gzipEtagRevalidatesIdentityRequest() {
+        HttpHeaders gzip = new HttpHeaders();
+        gzip.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        String gzipEtag = respond(gzip, List.of("x".repeat(200))).getHeaders().getETag();
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.set(HttpHeaders.IF_NONE_MATCH, gzipEtag);
+
+        assertThat(respond(conditional, List.of()).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void respond_whenBinaryFormatPreferred_bypassesCache() {
+        HttpHeaders cbor = new HttpHeaders();
+        cbor.set(HttpHeaders.ACCEPT, "application/cbor, application/json;q=0.5");
+
+        ResponseEntity<?> response = respond(cbor, List.of("a"));
+        respond(cbor, List.of("a"));
+
+        assertThat(response.getBody()).isEqualTo(List.of("a"));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void respondSerialized_cachesTheBytesAsTheyAre() {
+        byte[] json = "{\"id\":1}".getBytes();
+
+        ResponseEntity<?> first = cache.respondSerialized("key", new HttpHeaders(), () -> {
+            loads.incrementAndGet();
+            return json;
+        }, () -> ResponseEntity.ok("fallback"));
+        ResponseEntity<?> second = cache.respondSerialized("key", new HttpHeaders(), () -> "{}".getBytes(),
+                () -> ResponseEntity.ok("fallback"));
+
+        assertThat(loads).hasValue(1);
+        assertThat(second.getBody()).isEqualTo(json);
+        assertThat(second.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
+    }
+
+    @Test
+    void respondSerialized_whenBinaryFormatPreferred_usesFallback() {
+        HttpHeaders cbor = new HttpHeaders();
+        cbor.set(HttpHeaders.ACCEPT, "application/cbor");
+
+        ResponseEntity<?> response = cache.respondSerialized("key", cbor, () -> "{}".getBytes(),
+                () -> ResponseEntity.ok("fallback"));
+
+        assertThat(response.getBody()).isEqualTo("fallback");
+    }
+
+    @Test
+    void invalidate_dropsEntry() {
+        respond(new HttpHeaders(), List.of("a"));
+        cache.invalidate("key");
+
+        assertThat(respond(new HttpHeaders(), List.of("b")).getBody()).isEqualTo("[\"b\"]".getBytes());
+    }
+
+    @Test
+    void acceptsGzip_honoursZeroQuality() {
+        assertThat(ResponseBodyCache.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ResponseBodyCache.acceptsGzip("deflate, *")).isTrue();
+        assertThat(ResponseBodyCache.acceptsGzip(null)).isFalse();
+    }
+}
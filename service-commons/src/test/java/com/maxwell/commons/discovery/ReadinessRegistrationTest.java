@@ -0,0 +1,71 @@
+package com.maxwell.commons.discovery;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadinessRegistrationTest {
+
+    @Mock
+    private ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+
+    @Mock
+    private ApplicationInfoManager manager;
+
+    @InjectMocks
+    private ReadinessRegistration readinessRegistration;
+
+    private final InstanceInfo instance = InstanceInfo.Builder.newBuilder()
+            .setAppName("QUIZ-SERVICE")
+            .setStatus(InstanceStatus.STARTING)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(manager.getInfo()).thenReturn(instance);
+    }
+
+    @Test
+    void acceptingTraffic_marksInstanceUp() {
+        when(applicationInfoManager.getIfAvailable()).thenReturn(manager);
+
+        readinessRegistration.onReadinessChange(event(ReadinessState.ACCEPTING_TRAFFIC));
+
+        verify(manager).setInstanceStatus(InstanceStatus.UP);
+    }
+
+    @Test
+    void refusingTraffic_takesInstanceOutOfService() {
+        when(applicationInfoManager.getIfAvailable()).thenReturn(manager);
+        instance.setStatus(InstanceStatus.UP);
+
+        readinessRegistration.onReadinessChange(event(ReadinessState.REFUSING_TRAFFIC));
+
+        verify(manager).setInstanceStatus(InstanceStatus.OUT_OF_SERVICE);
+    }
+
+    @Test
+    void withoutEureka_doesNothing() {
+        when(applicationInfoManager.getIfAvailable()).thenReturn(null);
+
+        readinessRegistration.onReadinessChange(event(ReadinessState.ACCEPTING_TRAFFIC));
+
+        verifyNoInteractions(manager);
+    }
+
+    private AvailabilityChangeEvent<ReadinessState> event(ReadinessState state) {
+        return new AvailabilityChangeEvent<>(this, state);
+    }
+}
@@ -0,0 +1,117 @@
+package com.maxwell.commons.tracing;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowTraceRecorderTest {
+
+    private final AtomicReference<Double> random = new AtomicReference<>(0.5);
+    private final SlowTraceRecorder recorder = new SlowTraceRecorder(Duration.ofMillis(500), 0.01, 2, random::get);
+    private final Tracing tracing = Tracing.newBuilder().addSpanHandler(recorder).build();
+    private final Tracer tracer = tracing.tracer();
+
+    @AfterEach
+    void tearDown() {
+        tracing.close();
+    }
+
+    // Runs a server span with one child query and returns the trace id.
+    private String request(long durationMicros, boolean failed) {
+        Span root = tracer.newTrace().name("http post /question/getQuestions").kind(Span.Kind.SERVER).start(1_000);
+        tracer.newChild(root.context()).name("query").start(1_100).finish(1_200);
+        if (failed) {
+            root.error(new IllegalStateException("boom"));
+        }
+        root.finish(1_000 + durationMicros);
+        return root.context().traceIdString();
+    }
+
+    @Test
+    void slowRequest_isKeptWithEverySpan() {
+        String traceId = request(600_000, false);
+
+        assertThat(recorder.traces()).singleElement().satisfies(trace -> {
+            assertThat(trace.traceId()).isEqualTo(traceId);
+            assertThat(trace.reason()).isEqualTo("slow");
+            assertThat(trace.durationMillis()).isEqualTo(600.0);
+            assertThat(trace.spans()).extracting(RecordedSpan::name).containsExactly("query", "http post /question/getQuestions");
+        });
+    }
+
+    @Test
+    void fastRequest_isDropped() {
+        request(10_000, false);
+
+        assertThat(recorder.traces()).isEmpty();
+    }
+
+    @Test
+    void failedRequest_isKeptEvenWhenFast() {
+        request(10_000, true);
+
+        assertThat(recorder.traces()).singleElement().extracting(RecordedTrace::reason).isEqualTo("error");
+    }
+
+    @Test
+    void fastRequest_isKeptAtTheKeepProbability() {
+        random.set(0.001);
+        request(10_000, false);
+
+        assertThat(recorder.traces()).singleElement().extracting(RecordedTrace::reason).isEqualTo("sampled");
+    }
+
+    @Test
+    void spanFinishingAfterKeptRoot_isAddedToTheTrace() {
+        Span root = tracer.newTrace().name("root").kind(Span.Kind.SERVER).start(1_000);
+        Span late = tracer.newChild(root.context()).name("late").start(1_100);
+        root.finish(1_000 + 600_000);
+        late.finish(1_000 + 700_000);
+
+        assertThat(recorder.traces(root.context().traceIdString())).singleElement()
+                .satisfies(trace -> assertThat(trace.spans()).extracting(RecordedSpan::name)
+                        .containsExactly("root", "late"));
+    }
+
+    @Test
+    void spanFinishingAfterDroppedRoot_isIgnored() {
+        Span root = tracer.newTrace().name("root").kind(Span.Kind.SERVER).start(1_000);
+        Span late = tracer.newChild(root.context()).name("late").start(1_100);
+        root.finish(1_000 + 10_000);
+        late.finish(1_000 + 20_000);
+
+        assertThat(recorder.traces()).isEmpty();
+        assertThat(recorder.openTraces()).isZero();
+    }
+
+    @Test
+    void finishedTraces_leaveOnlyInFlightOnesOpen() {
+        Span inFlight = tracer.newTrace().name("in flight").kind(Span.Kind.SERVER).start(1_000);
+        tracer.newChild(inFlight.context()).name("query").start(1_100).finish(1_200);
+        request(10_000, false);
+        request(600_000, false);
+
+        assertThat(recorder.openTraces()).isEqualTo(1);
+        inFlight.finish(1_000 + 600_000);
+        assertThat(recorder.traces(inFlight.context().traceIdString())).singleElement()
+                .satisfies(trace -> assertThat(trace.spans()).hasSize(2));
+        assertThat(recorder.openTraces()).isZero();
+    }
+
+    @Test
+    void onlyTheNewestTracesAreKept() {
+        String first = request(600_000, false);
+        String second = request(600_000, false);
+        String third = request(600_000, false);
+
+        assertThat(recorder.traces()).extracting(RecordedTrace::traceId).containsExactly(third, second);
+        assertThat(recorder.traces(first)).isEmpty();
+    }
+}